@@ -18,7 +18,7 @@ const TaskMasterDashboard = () => {
     const fetchProjects = async () => {
       try {
         const userId = getCurrentUserId();
-        const response = await api.get(`/projects?userId=${userId}`);
+        const response = await api.get(`/projects?userId=${userId}&view=summary`);
         setProjects(response.data || []);
       } catch (error) {
         console.error('Error fetching projects:', error);
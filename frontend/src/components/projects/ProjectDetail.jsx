@@ -55,11 +55,7 @@ const ProjectDetail = () => {
     return tasks.filter(task => task.status === status);
   };
 
-  const getCompletionPercentage = () => {
-    if (tasks.length === 0) return 0;
-    const completedTasks = tasks.filter(task => task.status === 'DONE').length;
-    return Math.round((completedTasks / tasks.length) * 100);
-  };
+  const getCompletionPercentage = () => project?.progress ?? 0;
 
   const canManageProject = () => {
     if (!project || !team || !user) return false;
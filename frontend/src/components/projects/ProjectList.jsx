@@ -30,7 +30,7 @@ const ProjectList = () => {
       const allProjects = [];
       for (const team of teamsData) {
         try {
-          const projectsResponse = await api.get(`/projects/team/${team.id}`);
+          const projectsResponse = await api.get(`/projects/team/${team.id}?view=summary`);
           const teamProjects = projectsResponse.data || [];
           allProjects.push(...teamProjects.map(p => ({ ...p, teamName: team.name })));
         } catch (err) {
@@ -171,7 +171,7 @@ const ProjectList = () => {
                     {project.status}
                   </span>
                   <div className="text-sm text-muted-foreground">
-                    {project.taskIds?.length || 0} tasks
+                    {project.taskCounts?.total ?? 0} tasks • {project.progress ?? 0}% complete
                   </div>
                 </div>
 
@@ -33,7 +33,7 @@ const ProjectManagement = () => {
       const allProjects = [];
       for (const team of teamsData) {
         try {
-          const projectsResponse = await api.get(`/projects/team/${team.id}`);
+          const projectsResponse = await api.get(`/projects/team/${team.id}?view=summary`);
           const teamProjects = projectsResponse.data || [];
           allProjects.push(...teamProjects.map(p => ({ ...p, teamName: team.name })));
         } catch (err) {
@@ -204,7 +204,6 @@ const ShadcnProjectManagement = () => {
         ...createProjectForm,
         userId: currentUser.userId,
         teamId: createProjectForm.teamId,
-        progress: 0,
         createdAt: new Date().toISOString(),
         updatedAt: new Date().toISOString()
       };
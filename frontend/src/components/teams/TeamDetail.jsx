@@ -24,7 +24,7 @@ const TeamDetail = () => {
       setLoading(true);
       const [teamResponse, projectsResponse] = await Promise.all([
         api.get(`/teams/${id}`),
-        api.get(`/projects/team/${id}`)
+        api.get(`/projects/team/${id}?view=summary`)
       ]);
 
       const teamData = teamResponse.data;
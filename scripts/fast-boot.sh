@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+# Fast-boot build: Spring AOT plus an AppCDS archive.
+#
+#   scripts/fast-boot.sh build [app args]   package with -Pfast-boot and record the CDS archive
+#   scripts/fast-boot.sh run   [app args]   start with AOT and the archive
+#   scripts/fast-boot.sh bench [runs] [app args]
+#                                           compare startup of the regular jar and the fast-boot build
+#
+# The training run starts the application context (so MongoDB must be
+# reachable with the given args) and exits right after refresh.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+DIR=target/fast-boot
+JAR=$(ls "$DIR"/*-fast-boot.jar 2>/dev/null | head -1 || true)
+ARCHIVE=$DIR/application.jsa
+PORT=${PORT:-18081}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-$((PORT + 1))}
+
+build() {
+    mvn -B -q -Pfast-boot package -DskipTests
+    JAR=$(ls "$DIR"/*-fast-boot.jar | head -1)
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        -jar "$JAR" "$@" > "$DIR/training.log" 2>&1
+    echo "CDS archive: $ARCHIVE ($(du -h "$ARCHIVE" | cut -f1))"
+}
+
+run() {
+    exec java -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -jar "$JAR" "$@"
+}
+
+# Starts one JVM, prints "<started-seconds> <ready-ms>" and stops it again.
+# started: Spring's own "Started ... in" figure; ready: launch until the
+# readiness probe reports UP, which includes the warm-up phase.
+measure() {
+    local log=$DIR/bench.log start pid ready=""
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" > "$log" 2>&1 &
+    pid=$!
+    for _ in $(seq 1 600); do
+        if curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health/readiness" > /dev/null 2>&1; then
+            ready=$(( ($(date +%s%N) - start) / 1000000 ))
+            break
+        fi
+        sleep 0.1
+    done
+    kill "$pid" 2>/dev/null; wait "$pid" 2>/dev/null || true
+    echo "$(grep -o 'Started TaskMasterApplication in [0-9.]*' "$log" | awk '{print $4}') ${ready:-timeout}"
+}
+
+bench() {
+    local runs=${1:-5}; shift || true
+    [ -f target/taskmaster-0.0.1-SNAPSHOT.jar ] || mvn -B -q package -DskipTests
+    [ -f "$ARCHIVE" ] || build "$@"
+    JAR=$(ls "$DIR"/*-fast-boot.jar | head -1)
+    for mode in regular fast-boot; do
+        for i in $(seq 1 "$runs"); do
+            if [ "$mode" = regular ]; then
+                result=$(measure java -jar target/taskmaster-0.0.1-SNAPSHOT.jar "$@")
+            else
+                result=$(measure java -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -jar "$JAR" "$@")
+            fi
+            echo "$mode run=$i started_s=${result% *} ready_ms=${result#* }"
+        done
+    done
+}
+
+command=${1:-}
+shift || true
+case "$command" in
+    build) build "$@" ;;
+    run) run "$@" ;;
+    bench) bench "$@" ;;
+    *) sed -n '2,10p' "$0"; exit 1 ;;
+esac
@@ -0,0 +1,77 @@
+package com.taskmaster.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmaster.service.RawUserDocumentService.JsonBody;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link JsonBody} responses by handing them a generator on the
+ * response stream. Registered ahead of the Jackson converters, which would
+ * otherwise serialize the body object itself. The generator comes from the
+ * same factory as the matching Jackson converter, so the body is written as
+ * JSON, CBOR or Smile according to the negotiated content type.
+ */
+@Component
+public class JsonBodyMessageConverter extends AbstractHttpMessageConverter<JsonBody> {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    public JsonBodyMessageConverter() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonBody readInternal(Class<? extends JsonBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonBody is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(JsonBody body, HttpOutputMessage outputMessage) throws IOException {
+        JsonFactory factory = factoryFor(outputMessage.getHeaders().getContentType());
+        try (JsonGenerator json = factory.createGenerator(outputMessage.getBody())) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            body.write(json);
+        }
+    }
+
+    private JsonFactory factoryFor(MediaType contentType) {
+        if (contentType != null && MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            return cborConverter.getObjectMapper().getFactory();
+        }
+        if (contentType != null && SMILE.isCompatibleWith(contentType)) {
+            return smileConverter.getObjectMapper().getFactory();
+        }
+        return objectMapper.getFactory();
+    }
+}
@@ -0,0 +1,65 @@
+package com.taskmaster.config;
+
+import com.mongodb.ReadPreference;
+import com.taskmaster.monitoring.MongoCommandTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+
+    /**
+     * Qualifier of the template for reads that may be served by a secondary.
+     */
+    public static final String SECONDARY_READS = "secondaryMongoTemplate";
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandTrackerCustomizer(MongoCommandTracker tracker) {
+        return builder -> builder.addCommandListener(tracker);
+    }
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new UserReadConverter(), new UserWriteConverter()));
+    }
+
+    /**
+     * The template for writes and for reads that must see them. Declared here
+     * because Boot only creates its own when no other template exists.
+     */
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory factory, MongoConverter converter) {
+        return new MongoTemplate(factory, converter);
+    }
+
+    /**
+     * Same client and mapping, but reads go to a secondary no further than
+     * {@code max-staleness-seconds} behind the primary, falling back to the
+     * primary when none qualifies. For read-only views that tolerate that lag
+     * (dashboards, public shares, invitation listings); with secondary reads
+     * disabled, or against a standalone server, it reads the primary like
+     * the main template.
+     */
+    @Bean(SECONDARY_READS)
+    public MongoTemplate secondaryMongoTemplate(MongoDatabaseFactory factory, MongoConverter converter,
+                                                @Value("${taskmaster.mongo.secondary-reads.enabled:false}") boolean enabled,
+                                                @Value("${taskmaster.mongo.secondary-reads.max-staleness-seconds:90}") long maxStalenessSeconds) {
+        MongoTemplate template = new MongoTemplate(factory, converter);
+        if (enabled) {
+            // The driver rejects a max staleness below 90 seconds
+            template.setReadPreference(ReadPreference.secondaryPreferred(Math.max(90, maxStalenessSeconds), TimeUnit.SECONDS));
+        }
+        return template;
+    }
+}
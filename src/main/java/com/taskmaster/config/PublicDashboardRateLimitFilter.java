@@ -0,0 +1,151 @@
+package com.taskmaster.config;
+
+import com.taskmaster.controller.DashboardController;
+import com.taskmaster.service.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Rate limits the unauthenticated public dashboard endpoint, per share and
+ * per client address, so a single kiosk or scraper cannot monopolize it.
+ * Rejected requests get 429 with Retry-After before any other filter or
+ * handler runs; nothing else under {@code /api} is limited.
+ *
+ * Only shares that exist get a bucket of their own. Made-up ids are limited
+ * by address alone and end in a 404; otherwise they could fill the share
+ * buckets and push real shares into the shared overflow bucket.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class PublicDashboardRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PATH_PREFIX = "/api/public/dashboard/";
+
+    // As issued by DashboardController
+    private static final Pattern SHARE_ID = Pattern.compile("share_[0-9a-f]{16}");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskmaster.ratelimit.public-dashboard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${taskmaster.ratelimit.public-dashboard.per-share.rate:50}")
+    private double perShareRate;
+
+    @Value("${taskmaster.ratelimit.public-dashboard.per-share.burst:100}")
+    private int perShareBurst;
+
+    @Value("${taskmaster.ratelimit.public-dashboard.per-ip.rate:10}")
+    private double perIpRate;
+
+    @Value("${taskmaster.ratelimit.public-dashboard.per-ip.burst:30}")
+    private int perIpBurst;
+
+    @Value("${taskmaster.ratelimit.public-dashboard.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${taskmaster.ratelimit.public-dashboard.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private TokenBucketRateLimiter<String> perShare;
+    private TokenBucketRateLimiter<String> perIp;
+    private Counter shareRejections;
+    private Counter ipRejections;
+
+    @PostConstruct
+    void init() {
+        perShare = new TokenBucketRateLimiter<>(perShareRate, perShareBurst, maxKeys);
+        perIp = new TokenBucketRateLimiter<>(perIpRate, perIpBurst, maxKeys);
+        shareRejections = rejections("share");
+        ipRejections = rejections("ip");
+        Gauge.builder("taskmaster.ratelimit.public.dashboard.keys", perShare, TokenBucketRateLimiter::size)
+            .description("Rate limit buckets held for public dashboard requests")
+            .tag("limit", "share")
+            .register(meterRegistry);
+        Gauge.builder("taskmaster.ratelimit.public.dashboard.keys", perIp, TokenBucketRateLimiter::size)
+            .description("Rate limit buckets held for public dashboard requests")
+            .tag("limit", "ip")
+            .register(meterRegistry);
+    }
+
+    private Counter rejections(String limit) {
+        return Counter.builder("taskmaster.ratelimit.public.dashboard.rejected")
+            .description("Public dashboard requests rejected with 429")
+            .tag("limit", limit)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+            || !"GET".equals(request.getMethod())
+            || !request.getRequestURI().startsWith(PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // The client's own limit goes first, so a scraper's rejected requests
+        // don't use up the share's budget for everyone else
+        long waitNanos = perIp.acquire(clientAddress(request));
+        if (waitNanos > 0) {
+            ipRejections.increment();
+            reject(response, waitNanos);
+            return;
+        }
+        String shareId = request.getRequestURI().substring(PATH_PREFIX.length());
+        if (!SHARE_ID.matcher(shareId).matches() || !DashboardController.isShared(shareId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        waitNanos = perShare.acquire(shareId);
+        if (waitNanos > 0) {
+            shareRejections.increment();
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientAddress(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        // The endpoint is called cross-origin; without these the browser hides the 429 and its header
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.RETRY_AFTER);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"retryAfterSeconds\":" + retryAfterSeconds + "}");
+    }
+}
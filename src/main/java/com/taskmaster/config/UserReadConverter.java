@@ -0,0 +1,270 @@
+package com.taskmaster.config;
+
+import com.taskmaster.model.*;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.time.*;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Reads a {@code users} document into the typed model, without going
+ * through the reflective mapping and generic map conversion. Fields the
+ * model doesn't know are kept in each entity's extras, and in the user's
+ * own for top-level ones. Dates held in string fields (timestamps, due
+ * dates stored as BSON dates by older writers) read as ISO-8601.
+ *
+ * The source is the {@link Document} the driver has already decoded:
+ * Spring Data's mapping layer only hands entity converters a decoded
+ * document, so this saves the reflective mapping pass, not the decode.
+ */
+@ReadingConverter
+public class UserReadConverter implements Converter<Document, User> {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public User convert(Document source) {
+        User user = new User();
+        for (Map.Entry<String, Object> field : source.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "_id" -> user.setUserId(string(value));
+                case "email" -> user.setEmail(string(value));
+                case "password" -> user.setPassword(string(value));
+                case "sessionToken" -> user.setSessionToken(string(value));
+                case "createdAt" -> user.setCreatedAt(timestampString(value));
+                case "updatedAt" -> user.setUpdatedAt(timestampString(value));
+                case "userdata" -> user.setUserdata(value instanceof Map ? (Map<String, Object>) value : null);
+                case "teams" -> user.setTeams(readList(value, UserReadConverter::readTeam));
+                case "projects" -> user.setProjects(readList(value, UserReadConverter::readProject));
+                case "tasks" -> user.setTasks(readList(value, UserReadConverter::readTask));
+                case "revision" -> user.setRevision(longValue(value));
+                case "changesFloor" -> user.setChangesFloor(longValue(value));
+                case "tombstones" -> user.setTombstones(readList(value, document -> document));
+                default -> user.putExtra(field.getKey(), value);
+            }
+        }
+        return user;
+    }
+
+    static Team readTeam(Document source) {
+        Team team = new Team();
+        for (Map.Entry<String, Object> field : source.entrySet()) {
+            String key = field.getKey();
+            Object value = field.getValue();
+            switch (key) {
+                case "name" -> team.setName(string(value));
+                case "description" -> team.setDescription(string(value));
+                case "createdBy" -> team.setCreatedBy(string(value));
+                case "createdAt" -> team.setCreatedAt(date(value, team, key));
+                case "updatedAt" -> team.setUpdatedAt(date(value, team, key));
+                case "members" -> team.setMembers(readList(value, UserReadConverter::readMember));
+                case "role" -> team.setRole(string(value));
+                default -> readCommon(team, key, value);
+            }
+        }
+        return team;
+    }
+
+    static Member readMember(Document source) {
+        Member member = new Member();
+        for (Map.Entry<String, Object> field : source.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "userId" -> member.setUserId(string(value));
+                case "role" -> member.setRole(string(value));
+                case "joinedAt" -> {
+                    Date joinedAt = parseDate(value);
+                    if (joinedAt == null && value != null) {
+                        member.putExtra("joinedAt", value);
+                    }
+                    member.setJoinedAt(joinedAt);
+                }
+                default -> member.putExtra(field.getKey(), value);
+            }
+        }
+        return member;
+    }
+
+    static Project readProject(Document source) {
+        Project project = new Project();
+        Integer statusCode = null;
+        Integer priorityCode = null;
+        for (Map.Entry<String, Object> field : source.entrySet()) {
+            String key = field.getKey();
+            Object value = field.getValue();
+            switch (key) {
+                case "name" -> project.setName(string(value));
+                case "description" -> project.setDescription(string(value));
+                case "status" -> project.setStatusLabel(string(value));
+                case "statusCode" -> statusCode = intValue(value);
+                case "priority" -> project.setPriorityLabel(string(value));
+                case "priorityCode" -> priorityCode = intValue(value);
+                case "progress" -> {
+                    Integer progress = intValue(value);
+                    if (progress == null && value != null) {
+                        project.putExtra(key, value);
+                    }
+                    project.setProgress(progress);
+                }
+                case "teamId" -> project.setTeamId(string(value));
+                case "teamName" -> project.setTeamName(string(value));
+                case "createdBy" -> project.setCreatedBy(string(value));
+                case "createdAt" -> project.setCreatedAt(date(value, project, key));
+                case "updatedAt" -> project.setUpdatedAt(date(value, project, key));
+                case "dueDate" -> project.setDueDate(timestampString(value));
+                case "tasks" -> project.setTasks(readList(value, UserReadConverter::readTask));
+                case "archivedTaskCount" -> project.setArchivedTaskCount(intValue(value));
+                case "taskCount" -> project.setTaskCount(intValue(value));
+                case "completedTaskCount" -> project.setCompletedTaskCount(intValue(value));
+                case "taskWeight" -> project.setTaskWeight(intValue(value));
+                case "completedTaskWeight" -> project.setCompletedTaskWeight(intValue(value));
+                default -> readCommon(project, key, value);
+            }
+        }
+        if (project.getStatusLabel() == null && statusCode != null) {
+            project.setStatus(ProjectStatus.fromCode(statusCode));
+        }
+        if (project.getPriorityLabel() == null && priorityCode != null) {
+            project.setPriority(Priority.fromCode(priorityCode));
+        }
+        return project;
+    }
+
+    static EmbeddedTask readTask(Document source) {
+        EmbeddedTask task = new EmbeddedTask();
+        Integer statusCode = null;
+        Integer priorityCode = null;
+        for (Map.Entry<String, Object> field : source.entrySet()) {
+            String key = field.getKey();
+            Object value = field.getValue();
+            switch (key) {
+                case "title" -> task.setTitle(string(value));
+                case "description" -> task.setDescription(string(value));
+                case "status" -> task.setStatusLabel(string(value));
+                case "statusCode" -> statusCode = intValue(value);
+                case "priority" -> task.setPriorityLabel(string(value));
+                case "priorityCode" -> priorityCode = intValue(value);
+                case "assignedTo" -> task.setAssignedTo(string(value));
+                case "createdBy" -> task.setCreatedBy(string(value));
+                case "createdAt" -> task.setCreatedAt(date(value, task, key));
+                case "updatedAt" -> task.setUpdatedAt(date(value, task, key));
+                case "dueDate" -> task.setDueDate(timestampString(value));
+                case "rank" -> task.setRank(string(value));
+                case "dependsOn" -> task.setDependsOn(stringList(value));
+                default -> readCommon(task, key, value);
+            }
+        }
+        if (task.getStatusLabel() == null && statusCode != null) {
+            task.setStatus(TaskStatus.fromCode(statusCode));
+        }
+        if (task.getPriorityLabel() == null && priorityCode != null) {
+            task.setPriority(Priority.fromCode(priorityCode));
+        }
+        return task;
+    }
+
+    private static void readCommon(EmbeddedEntity entity, String key, Object value) {
+        switch (key) {
+            case "_id" -> entity.setId(string(value));
+            // Entries written before ids were normalised to _id
+            case "id" -> entity.setLegacyId(string(value));
+            case "rev" -> entity.setRev(longValue(value));
+            default -> entity.putExtra(key, value);
+        }
+    }
+
+    private static <T> List<T> readList(Object value, java.util.function.Function<Document, T> reader) {
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        List<T> result = new ArrayList<>(list.size());
+        for (Object element : list) {
+            if (element instanceof Document document) {
+                result.add(reader.apply(document));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> stringList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(list.size());
+        for (Object element : list) {
+            if (element != null) {
+                result.add(string(element));
+            }
+        }
+        return result;
+    }
+
+    private static String string(Object value) {
+        return value == null || value instanceof String ? (String) value : value.toString();
+    }
+
+    private static String timestampString(Object value) {
+        return value instanceof Date date ? date.toInstant().toString() : string(value);
+    }
+
+    private static Long longValue(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static Integer intValue(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return (int) Math.round(Double.parseDouble(text.trim()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // Unparseable legacy values are kept verbatim in the extras
+    private static Date date(Object value, EmbeddedEntity entity, String key) {
+        Date date = parseDate(value);
+        if (date == null && value != null) {
+            entity.putExtra(key, value);
+        }
+        return date;
+    }
+
+    /**
+     * Dates used to be stored both as BSON dates and, by older endpoints, as
+     * {@code LocalDateTime.toString()} strings in the server's zone.
+     */
+    static Date parseDate(Object value) {
+        if (value instanceof Date date) {
+            return date;
+        }
+        if (value instanceof Number number) {
+            return new Date(number.longValue());
+        }
+        if (!(value instanceof String text) || text.isBlank()) {
+            return null;
+        }
+        try {
+            return Date.from(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException ignored) {
+            // fall through
+        }
+        try {
+            return Date.from(LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException ignored) {
+            // fall through
+        }
+        try {
+            return Date.from(LocalDate.parse(text).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.taskmaster.config;
+
+import com.taskmaster.model.*;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes the typed user model as a {@link Document}, which the driver then
+ * encodes. Status and priority are stored as the label plus a numeric code;
+ * null fields are left out, as the default mapping did.
+ */
+@WritingConverter
+public class UserWriteConverter implements Converter<User, Document> {
+
+    @Override
+    public Document convert(User user) {
+        Document document = new Document();
+        document.put("_id", user.getUserId());
+        putIfPresent(document, "email", user.getEmail());
+        putIfPresent(document, "password", user.getPassword());
+        putIfPresent(document, "sessionToken", user.getSessionToken());
+        putIfPresent(document, "createdAt", user.getCreatedAt());
+        putIfPresent(document, "updatedAt", user.getUpdatedAt());
+        putIfPresent(document, "userdata", user.getUserdata());
+        putIfPresent(document, "teams", writeList(user.getTeams(), UserWriteConverter::writeTeam));
+        putIfPresent(document, "projects", writeList(user.getProjects(), UserWriteConverter::writeProject));
+        putIfPresent(document, "tasks", writeList(user.getTasks(), UserWriteConverter::writeTask));
+        putIfPresent(document, "revision", user.getRevision());
+        putIfPresent(document, "changesFloor", user.getChangesFloor());
+        putIfPresent(document, "tombstones", user.getTombstones());
+        for (Map.Entry<String, Object> extra : user.getExtras().entrySet()) {
+            document.putIfAbsent(extra.getKey(), extra.getValue());
+        }
+        return document;
+    }
+
+    static Document writeTeam(Team team) {
+        Document document = writeId(team);
+        putIfPresent(document, "name", team.getName());
+        putIfPresent(document, "description", team.getDescription());
+        putIfPresent(document, "createdBy", team.getCreatedBy());
+        putIfPresent(document, "createdAt", team.getCreatedAt());
+        putIfPresent(document, "updatedAt", team.getUpdatedAt());
+        putIfPresent(document, "members", writeList(team.getMembers(), UserWriteConverter::writeMember));
+        putIfPresent(document, "role", team.getRole());
+        return writeCommon(team, document);
+    }
+
+    static Document writeMember(Member member) {
+        Document document = new Document();
+        putIfPresent(document, "userId", member.getUserId());
+        putIfPresent(document, "role", member.getRole());
+        putIfPresent(document, "joinedAt", member.getJoinedAt());
+        for (Map.Entry<String, Object> extra : member.getExtras().entrySet()) {
+            document.putIfAbsent(extra.getKey(), extra.getValue());
+        }
+        return document;
+    }
+
+    static Document writeProject(Project project) {
+        Document document = writeId(project);
+        putIfPresent(document, "name", project.getName());
+        putIfPresent(document, "description", project.getDescription());
+        putIfPresent(document, "status", project.getStatusLabel());
+        if (project.getStatus() != null) {
+            document.put("statusCode", project.getStatus().code());
+        }
+        putIfPresent(document, "priority", project.getPriorityLabel());
+        if (project.getPriority() != null) {
+            document.put("priorityCode", project.getPriority().code());
+        }
+        putIfPresent(document, "progress", project.getProgress());
+        putIfPresent(document, "teamId", project.getTeamId());
+        putIfPresent(document, "teamName", project.getTeamName());
+        putIfPresent(document, "createdBy", project.getCreatedBy());
+        putIfPresent(document, "createdAt", project.getCreatedAt());
+        putIfPresent(document, "updatedAt", project.getUpdatedAt());
+        putIfPresent(document, "dueDate", project.getDueDate());
+        putIfPresent(document, "tasks", writeList(project.getTasks(), UserWriteConverter::writeTask));
+        putIfPresent(document, "archivedTaskCount", project.getArchivedTaskCount());
+        putIfPresent(document, "taskCount", project.getTaskCount());
+        putIfPresent(document, "completedTaskCount", project.getCompletedTaskCount());
+        putIfPresent(document, "taskWeight", project.getTaskWeight());
+        putIfPresent(document, "completedTaskWeight", project.getCompletedTaskWeight());
+        return writeCommon(project, document);
+    }
+
+    static Document writeTask(EmbeddedTask task) {
+        Document document = writeId(task);
+        putIfPresent(document, "title", task.getTitle());
+        putIfPresent(document, "description", task.getDescription());
+        putIfPresent(document, "status", task.getStatusLabel());
+        if (task.getStatus() != null) {
+            document.put("statusCode", task.getStatus().code());
+        }
+        putIfPresent(document, "priority", task.getPriorityLabel());
+        if (task.getPriority() != null) {
+            document.put("priorityCode", task.getPriority().code());
+        }
+        putIfPresent(document, "assignedTo", task.getAssignedTo());
+        putIfPresent(document, "createdBy", task.getCreatedBy());
+        putIfPresent(document, "createdAt", task.getCreatedAt());
+        putIfPresent(document, "updatedAt", task.getUpdatedAt());
+        putIfPresent(document, "dueDate", task.getDueDate());
+        putIfPresent(document, "rank", task.getRank());
+        if (task.getDependsOn() != null && !task.getDependsOn().isEmpty()) {
+            document.put("dependsOn", task.getDependsOn());
+        }
+        return writeCommon(task, document);
+    }
+
+    private static Document writeId(EmbeddedEntity entity) {
+        Document document = new Document();
+        putIfPresent(document, "_id", entity.getId());
+        return document;
+    }
+
+    private static Document writeCommon(EmbeddedEntity entity, Document document) {
+        putIfPresent(document, "rev", entity.getRev());
+        for (Map.Entry<String, Object> extra : entity.getExtras().entrySet()) {
+            document.putIfAbsent(extra.getKey(), extra.getValue());
+        }
+        return document;
+    }
+
+    private static <T> List<Document> writeList(List<T> values, Function<T, Document> writer) {
+        if (values == null) {
+            return null;
+        }
+        List<Document> documents = new ArrayList<>(values.size());
+        for (T value : values) {
+            if (value != null) {
+                documents.add(writer.apply(value));
+            }
+        }
+        return documents;
+    }
+
+    private static void putIfPresent(Document document, String key, Object value) {
+        if (value != null) {
+            document.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskmaster.controller;
+
+import com.taskmaster.service.TeamAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private TeamAnalyticsService teamAnalyticsService;
+
+    @GetMapping("/teams/{teamId}/analytics")
+    public ResponseEntity<?> getTeamAnalytics(@PathVariable String teamId) {
+        try {
+            Map<String, Object> analytics = teamAnalyticsService.snapshot(teamId);
+            if (analytics == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(analytics);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to fetch team analytics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Recomputes every team's analytics from stored task history. Meant for
+     * first rollout and repair; updates made while it runs may be
+     * overwritten by the rebuilt values.
+     */
+    @PostMapping("/analytics/teams/backfill")
+    public ResponseEntity<?> backfillTeamAnalytics() {
+        try {
+            return ResponseEntity.ok(teamAnalyticsService.backfill());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Team analytics backfill failed: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.taskmaster.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmaster.config.UserReadConverter;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.User;
+import com.taskmaster.repository.UserRepository;
+import com.taskmaster.service.RawUserDocumentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Developer benchmarks that drive the real controllers in-process, so the
+ * numbers cover the write queue and Mongo round trips but not HTTP. Like
+ * the seed endpoints, these write real data; point them at a scratch user.
+ *
+ * The endpoints take any user id without a session, so they only exist
+ * when the {@code bench} profile is active, which no deployment enables.
+ */
+@Profile("bench")
+@RestController
+@RequestMapping("/api/bench")
+@CrossOrigin(origins = "*")
+public class BenchmarkController {
+
+    @Autowired
+    private TaskController taskController;
+
+    @Autowired
+    private ProjectController projectController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RawUserDocumentService rawUserDocumentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DashboardController dashboardController;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    /**
+     * Creates {@code count} tasks in a scratch project, then marks them done
+     * once with {@code count} single PUT-equivalent calls and once with a
+     * single batch call, and reports time and Mongo commands for each.
+     */
+    @PostMapping("/tasks/batch")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<?> benchmarkTaskBatch(@RequestParam String userId,
+                                                @RequestParam(defaultValue = "1000") int count) {
+        String projectId = null;
+        try {
+            if (count < 1 || count > 1000) {
+                return ResponseEntity.badRequest().body(Map.of("error", "count must be between 1 and 1000"));
+            }
+
+            Map<String, Object> projectData = new HashMap<>();
+            projectData.put("userId", userId);
+            projectData.put("name", "Benchmark " + UUID.randomUUID());
+            ResponseEntity<?> created = projectController.createProject(projectData);
+            if (!created.getStatusCode().is2xxSuccessful()) {
+                return created;
+            }
+            projectId = ((Project) created.getBody()).getId();
+
+            List<Map<String, Object>> creates = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Map<String, Object> op = new HashMap<>();
+                op.put("op", "create");
+                op.put("projectId", projectId);
+                op.put("title", "Benchmark task " + i);
+                creates.add(op);
+            }
+            Map<String, Object> setup = (Map<String, Object>) taskController
+                .batchTasks(Map.of("userId", userId, "operations", creates)).getBody();
+            List<String> taskIds = new ArrayList<>();
+            for (Map<String, Object> item : (List<Map<String, Object>>) setup.get("results")) {
+                taskIds.add((String) item.get("taskId"));
+            }
+
+            // Single calls, one load and save each
+            long commandsBefore = mongoCommandCount();
+            long start = System.nanoTime();
+            for (String taskId : taskIds) {
+                taskController.updateTask(taskId, Map.of("userId", userId, "status", "done"));
+            }
+            long singleNanos = System.nanoTime() - start;
+            long singleCommands = mongoCommandCount() - commandsBefore;
+
+            // The same updates as one batch
+            List<Map<String, Object>> updates = new ArrayList<>();
+            for (String taskId : taskIds) {
+                updates.add(Map.of("op", "update", "taskId", taskId, "status", "todo"));
+            }
+            commandsBefore = mongoCommandCount();
+            start = System.nanoTime();
+            taskController.batchTasks(Map.of("userId", userId, "operations", updates));
+            long batchNanos = System.nanoTime() - start;
+            long batchCommands = mongoCommandCount() - commandsBefore;
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", count);
+            response.put("single", result(singleNanos, singleCommands, count));
+            response.put("batch", result(batchNanos, batchCommands, count));
+            response.put("speedup", batchNanos > 0 ? (double) singleNanos / batchNanos : null);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Benchmark failed: " + e.getMessage()));
+        } finally {
+            if (projectId != null) {
+                projectController.deleteProject(projectId, userId);
+            }
+        }
+    }
+
+    /**
+     * Converts one user's stored document {@code iterations} times with the
+     * typed converter and with Spring Data's generic map conversion (what the
+     * old {@code List<Map<String, Object>>} model went through), and times a
+     * full {@code findByUserId} for comparison. Allocation is read from the
+     * calling thread's allocation counter, so it is exact for the two
+     * in-process conversions and excludes the driver's I/O threads for the
+     * repository read. Read-only.
+     */
+    @GetMapping("/user-read")
+    public ResponseEntity<?> benchmarkUserRead(@RequestParam String userId,
+                                               @RequestParam(defaultValue = "1000") int iterations) {
+        try {
+            if (iterations < 1 || iterations > 100000) {
+                return ResponseEntity.badRequest().body(Map.of("error", "iterations must be between 1 and 100000"));
+            }
+
+            Document document = mongoTemplate.getCollection("users").find(new Document("_id", userId)).first();
+            if (document == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            UserReadConverter typedConverter = new UserReadConverter();
+            Supplier<Object> typed = () -> typedConverter.convert(document);
+            Supplier<Object> generic = () -> mongoTemplate.getConverter().read(Map.class, document);
+            Supplier<Object> repository = () -> userRepository.findByUserId(userId);
+
+            // Warm up both conversion paths before measuring
+            int warmup = Math.min(iterations, 200);
+            measure(typed, warmup);
+            measure(generic, warmup);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("iterations", iterations);
+            response.put("documentBytes", document.toJson().length());
+            response.put("typedConverter", measure(typed, iterations));
+            response.put("genericMapConversion", measure(generic, iterations));
+            response.put("findByUserId", measure(repository, Math.min(iterations, 1000)));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Benchmark failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Renders a user's project list {@code iterations} times both ways: the
+     * typed path (findByUserId, then Jackson) and the raw pass-through used by
+     * GET /api/projects. Output goes to a discarding stream; Mongo round trips
+     * are included in both. Read-only.
+     */
+    @GetMapping("/projects-read")
+    public ResponseEntity<?> benchmarkProjectsRead(@RequestParam String userId,
+                                                   @RequestParam(defaultValue = "200") int iterations) {
+        try {
+            if (iterations < 1 || iterations > 10000) {
+                return ResponseEntity.badRequest().body(Map.of("error", "iterations must be between 1 and 10000"));
+            }
+            if (userRepository.findByUserId(userId) == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Supplier<Object> typed = () -> {
+                try {
+                    User user = userRepository.findByUserId(userId);
+                    objectMapper.writeValue(OutputStream.nullOutputStream(), user.getProjects());
+                    return user;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            Supplier<Object> raw = () -> {
+                RawBsonDocument user = rawUserDocumentService.find(userId, "teams", "projects");
+                try (JsonGenerator json = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+                    rawUserDocumentService.copyEntities(
+                        RawUserDocumentService.BsonSource.at(user, "projects"), json, null, null);
+                    return user;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            int warmup = Math.min(iterations, 50);
+            measure(typed, warmup);
+            measure(raw, warmup);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("iterations", iterations);
+            response.put("typed", measure(typed, iterations));
+            response.put("rawPassThrough", measure(raw, iterations));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Benchmark failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Encodes the same response bodies as JSON, CBOR and Smile with the
+     * mappers the HTTP converters use, and reports size and serialization
+     * throughput for each. Covers GET /api/tasks, the raw GET /api/projects
+     * pass-through and, when {@code shareId} is given, the public dashboard.
+     * Read-only.
+     */
+    @GetMapping("/encodings")
+    public ResponseEntity<?> benchmarkEncodings(@RequestParam String userId,
+                                                @RequestParam(required = false) String shareId,
+                                                @RequestParam(defaultValue = "500") int iterations) {
+        try {
+            if (iterations < 1 || iterations > 100000) {
+                return ResponseEntity.badRequest().body(Map.of("error", "iterations must be between 1 and 100000"));
+            }
+
+            Map<String, Object> bodies = new LinkedHashMap<>();
+            ResponseEntity<?> tasks = taskController.getTasks(userId);
+            if (!tasks.getStatusCode().is2xxSuccessful()) {
+                return tasks;
+            }
+            bodies.put("tasks", tasks.getBody());
+            bodies.put("projects", projectController.getProjects(userId, null, null).getBody());
+            if (shareId != null) {
+                Map<String, Object> dashboard = dashboardController.renderedBody(shareId);
+                if (dashboard == null) {
+                    return ResponseEntity.notFound().build();
+                }
+                bodies.put("dashboard", dashboard);
+            }
+
+            Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+            mappers.put("json", objectMapper);
+            mappers.put("cbor", cborConverter.getObjectMapper());
+            mappers.put("smile", smileConverter.getObjectMapper());
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> body : bodies.entrySet()) {
+                Map<String, Object> results = new LinkedHashMap<>();
+                long jsonBytes = 0;
+                for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+                    ByteArrayOutputStream sample = new ByteArrayOutputStream();
+                    encode(mapper.getValue(), body.getValue(), sample);
+                    if (mapper.getKey().equals("json")) {
+                        jsonBytes = sample.size();
+                    }
+
+                    // Warm up, then time encoding into a discarding stream
+                    for (int i = 0; i < Math.min(iterations, 100); i++) {
+                        encode(mapper.getValue(), body.getValue(), OutputStream.nullOutputStream());
+                    }
+                    long start = System.nanoTime();
+                    for (int i = 0; i < iterations; i++) {
+                        encode(mapper.getValue(), body.getValue(), OutputStream.nullOutputStream());
+                    }
+                    long nanos = System.nanoTime() - start;
+
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("bytes", sample.size());
+                    result.put("sizeVsJson", jsonBytes > 0 ? (double) sample.size() / jsonBytes : null);
+                    result.put("perEncodeMicros", nanos / 1_000.0 / iterations);
+                    result.put("mbPerSecond", nanos > 0 ? (double) sample.size() * iterations / nanos * 1_000 : null);
+                    results.put(mapper.getKey(), result);
+                }
+                response.put(body.getKey(), results);
+            }
+            response.put("iterations", iterations);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Benchmark failed: " + e.getMessage()));
+        }
+    }
+
+    // Raw pass-through bodies write themselves; everything else goes through the mapper
+    private static void encode(ObjectMapper mapper, Object body, OutputStream out) throws IOException {
+        if (body instanceof RawUserDocumentService.JsonBody) {
+            try (JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+                ((RawUserDocumentService.JsonBody) body).write(json);
+            }
+        } else {
+            mapper.writeValue(out, body);
+        }
+    }
+
+    private Map<String, Object> measure(Supplier<Object> work, int iterations) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        Object sink = null;
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = work.get();
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("perCallMicros", nanos / 1_000.0 / iterations);
+        result.put("bytesPerCall", bytes / iterations);
+        result.put("iterations", iterations);
+        result.put("nonNull", sink != null);
+        return result;
+    }
+
+    private Map<String, Object> result(long nanos, long commands, int count) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("totalMs", nanos / 1_000_000.0);
+        result.put("perTaskMs", nanos / 1_000_000.0 / count);
+        result.put("mongoCommands", commands);
+        return result;
+    }
+
+    // Driver-wide command count; other traffic during a run shows up here too
+    private long mongoCommandCount() {
+        long total = 0;
+        for (Timer timer : meterRegistry.find("mongodb.driver.commands").timers()) {
+            total += timer.count();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,111 @@
+package com.taskmaster.controller;
+
+import com.taskmaster.model.EmbeddedEntity;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.Team;
+import com.taskmaster.model.User;
+import com.taskmaster.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+/**
+ * Delta sync for clients that keep a local mirror of a user's teams,
+ * projects and tasks.
+ *
+ * Every write through the user write queue stamps the entities it touched
+ * with the user's next revision and leaves a tombstone for what it removed.
+ * A client passes the revision of its last sync and gets back only the
+ * entities stamped after it plus the tombstones; when it is too far behind
+ * (or has never synced) it gets {@code fullResync: true} and a complete
+ * snapshot instead. Projects are sent without their embedded task arrays;
+ * tasks come separately with a {@code projectId}, and a project tombstone
+ * implies all of its tasks.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class ChangesController {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String userId,
+                                        @RequestParam(required = false) Long since) {
+        try {
+            if (userId == null || userId.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
+            }
+
+            User user = userRepository.findByUserId(userId);
+            if (user == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            long revision = user.getRevision() != null ? user.getRevision() : 0L;
+            long floor = user.getChangesFloor() != null ? user.getChangesFloor() : 0L;
+            boolean fullResync = since == null || since <= 0 || since < floor || since > revision;
+            long from = fullResync ? Long.MIN_VALUE : since;
+
+            List<Team> teams = new ArrayList<>();
+            if (user.getTeams() != null) {
+                for (Team team : user.getTeams()) {
+                    if (revisionOf(team) > from) {
+                        teams.add(team);
+                    }
+                }
+            }
+
+            List<Project> projects = new ArrayList<>();
+            List<EmbeddedTask> tasks = new ArrayList<>();
+            if (user.getProjects() != null) {
+                for (Project project : user.getProjects()) {
+                    if (revisionOf(project) > from) {
+                        projects.add(project.copyWithoutTasks());
+                    }
+                    if (project.getTasks() == null) {
+                        continue;
+                    }
+                    for (EmbeddedTask task : project.getTasks()) {
+                        if (revisionOf(task) > from) {
+                            EmbeddedTask taskWithProject = task.copy();
+                            taskWithProject.putExtra("projectId", project.getId());
+                            tasks.add(taskWithProject);
+                        }
+                    }
+                }
+            }
+
+            List<Map<String, Object>> deleted = new ArrayList<>();
+            if (!fullResync && user.getTombstones() != null) {
+                for (Map<String, Object> tombstone : user.getTombstones()) {
+                    Object rev = tombstone.get("rev");
+                    if (rev instanceof Number && ((Number) rev).longValue() > from) {
+                        deleted.add(tombstone);
+                    }
+                }
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("revision", revision);
+            response.put("fullResync", fullResync);
+            response.put("teams", teams);
+            response.put("projects", projects);
+            response.put("tasks", tasks);
+            response.put("deleted", deleted);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to fetch changes: " + e.getMessage()));
+        }
+    }
+
+    // Entities written before revisions existed count as revision 0
+    private static long revisionOf(EmbeddedEntity entity) {
+        return entity.getRev() != null ? entity.getRev() : 0L;
+    }
+}
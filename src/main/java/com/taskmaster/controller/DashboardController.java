@@ -1,33 +1,175 @@
 
 package com.taskmaster.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmaster.config.MongoConfig;
 import com.taskmaster.model.User;
+import com.taskmaster.service.ActivityRollupService;
+import com.taskmaster.service.ProjectProgressService;
+import com.taskmaster.service.TeamAnalyticsService;
 import com.taskmaster.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class DashboardController {
 
+    private static final Logger log = LoggerFactory.getLogger(DashboardController.class);
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    // Background and public refreshes tolerate replica lag; refreshes the
+    // owner asked for read the primary so they include the owner's last write
+    @Autowired
+    @Qualifier(MongoConfig.SECONDARY_READS)
+    private MongoTemplate secondaryMongoTemplate;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private TeamAnalyticsService teamAnalyticsService;
+
+    @Autowired
+    private ProjectProgressService projectProgressService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${taskmaster.dashboard.public.max-age-seconds:15}")
+    private long publicMaxAgeSeconds;
+
+    @Value("${taskmaster.dashboard.shared.max-staleness-seconds:300}")
+    private long maxStalenessSeconds;
+
+    @Value("${taskmaster.dashboard.shared.refresh-ahead-seconds:0}")
+    private long refreshAheadSeconds;
+
+    @Value("${taskmaster.dashboard.shared.refresh-threads:2}")
+    private int refreshThreads;
+
+    @Value("${taskmaster.dashboard.shared.refresh-queue:256}")
+    private int refreshQueue;
+
+    private static final int MAX_ACTIVITY_DAYS = 366;
+
     // Store shared dashboards in memory (in production, use Redis or database)
-    private static final Map<String, SharedDashboard> sharedDashboards = new HashMap<>();
+    private static final Map<String, SharedDashboard> sharedDashboards = new ConcurrentHashMap<>();
     
     // Track last update times for users to know when to refresh shared data
-    private static final Map<String, Date> userLastUpdated = new HashMap<>();
+    private static final Map<String, Date> userLastUpdated = new ConcurrentHashMap<>();
+
+    // Owner userId to that owner's shareIds, so per-user work does not scan every share
+    private static final Map<String, Set<String>> sharesByOwner = new ConcurrentHashMap<>();
+
+    // Stale snapshots are recomputed here, never on the request thread: the
+    // pool size caps concurrent dashboard queries however many viewers there are
+    private ThreadPoolExecutor refreshExecutor;
+    private ScheduledExecutorService refreshAheadScheduler;
+
+    private Counter refreshesCompleted;
+    private Counter refreshesCoalesced;
+    private Counter refreshesRejected;
+    private Counter refreshesFailed;
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("taskmaster.dashboard.shared.size", sharedDashboards, Map::size)
+            .description("Shared dashboard snapshots held in memory")
+            .register(meterRegistry);
+        Gauge.builder("taskmaster.dashboard.tracked.users", userLastUpdated, Map::size)
+            .description("Users with a tracked last-update time for shared dashboard refresh")
+            .register(meterRegistry);
+        Gauge.builder("taskmaster.dashboard.shared.owners", sharesByOwner, Map::size)
+            .description("Users with at least one shared dashboard")
+            .register(meterRegistry);
+
+        refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(refreshQueue), daemonThreads("dashboard-refresh"));
+        Gauge.builder("taskmaster.dashboard.shared.refresh.queued", refreshExecutor, executor -> executor.getQueue().size())
+            .description("Shared dashboard refreshes waiting for a worker")
+            .register(meterRegistry);
+        refreshesCompleted = refreshCounter("refreshed");
+        refreshesCoalesced = refreshCounter("coalesced");
+        refreshesRejected = refreshCounter("rejected");
+        refreshesFailed = refreshCounter("failed");
+
+        if (refreshAheadSeconds > 0) {
+            long period = Math.max(1, refreshAheadSeconds / 2);
+            refreshAheadScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("dashboard-refresh-ahead"));
+            refreshAheadScheduler.scheduleWithFixedDelay(this::refreshAhead, period, period, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stopRefreshing() {
+        if (refreshAheadScheduler != null) {
+            refreshAheadScheduler.shutdown();
+        }
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdown();
+        }
+    }
+
+    private Counter refreshCounter(String outcome) {
+        return Counter.builder("taskmaster.dashboard.shared.refreshes")
+            .description("Stale shared dashboard snapshots by what happened to their refresh")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 
     @PostMapping("/dashboard/share")
     public ResponseEntity<Map<String, String>> shareDashboard(@RequestBody Map<String, String> request) {
@@ -44,7 +186,7 @@ public class DashboardController {
             }
 
             // Get current dashboard data as snapshot
-            Map<String, Object> dashboardSnapshot = getDashboardData(userId);
+            Map<String, Object> dashboardSnapshot = getDashboardData(userId, mongoTemplate);
             
             // Create shared dashboard entry with data snapshot
             SharedDashboard sharedDashboard = new SharedDashboard();
@@ -60,107 +202,112 @@ public class DashboardController {
             sharedDashboard.createdAt = new Date();
             sharedDashboard.lastUpdated = new Date();
             sharedDashboard.expiresAt = new Date(System.currentTimeMillis() + (30L * 24 * 60 * 60 * 1000)); // 30 days
+            render(sharedDashboard);
             
             // Store the snapshot
-            sharedDashboards.put(shareId, sharedDashboard);
+            addShare(sharedDashboard);
             
-            // Update user's last updated time
-            userLastUpdated.put(userId, new Date());
+            // Update user's last updated time; the same instant, so the new
+            // snapshot does not count as stale on its first read
+            userLastUpdated.put(userId, sharedDashboard.lastUpdated);
             
-            System.out.println("Created shared dashboard snapshot for user: " + userId + " with shareId: " + shareId);
-            System.out.println("Snapshot contains: Teams=" + dashboardSnapshot.get("teams") + 
-                             ", Projects=" + dashboardSnapshot.get("projects") + 
-                             ", Tasks=" + dashboardSnapshot.get("tasks"));
+            log.info("Created shared dashboard {} for user {} (teams={}, projects={}, tasks={})", shareId, userId,
+                dashboardSnapshot.get("teams"), dashboardSnapshot.get("projects"), dashboardSnapshot.get("tasks"));
             
             return ResponseEntity.ok(Map.of("shareId", shareId));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to create shared dashboard", e);
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to create shareable link"));
         }
     }
 
+    /**
+     * Serves the snapshot from bytes rendered when it was last refreshed:
+     * JSON (gzipped when the client accepts it) with an ETag per encoding,
+     * so unchanged snapshots cost neither serialization nor, on
+     * revalidation, a body.
+     * Clients asking only for a binary encoding get the same body through
+     * the regular converters.
+     */
+    /**
+     * Whether {@code shareId} names a share that currently exists, expired
+     * or not; used to keep made-up ids out of per-share rate limiting.
+     */
+    public static boolean isShared(String shareId) {
+        return sharedDashboards.containsKey(shareId);
+    }
+
     @GetMapping("/public/dashboard/{shareId}")
-    public ResponseEntity<Map<String, Object>> getPublicDashboard(@PathVariable String shareId) {
+    public ResponseEntity<?> getPublicDashboard(@PathVariable String shareId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
             SharedDashboard sharedDashboard = sharedDashboards.get(shareId);
             
             if (sharedDashboard == null) {
-                System.out.println("Shared dashboard not found for shareId: " + shareId);
+                log.debug("Shared dashboard {} not found", shareId);
                 return ResponseEntity.notFound().build();
             }
 
             // Check if expired
             if (sharedDashboard.expiresAt.before(new Date())) {
-                sharedDashboards.remove(shareId);
-                System.out.println("Shared dashboard expired for shareId: " + shareId);
+                removeShare(sharedDashboard);
+                log.debug("Shared dashboard {} expired", shareId);
                 return ResponseEntity.notFound().build();
             }
 
-            // Check if we need to refresh the snapshot (if user data was updated recently)
-            Date userLastUpdate = userLastUpdated.get(sharedDashboard.userId);
-            boolean needsRefresh = userLastUpdate != null && 
-                                 userLastUpdate.after(sharedDashboard.lastUpdated);
-            
-            // Also refresh if snapshot is older than 5 minutes
-            long fiveMinutesAgo = System.currentTimeMillis() - (5 * 60 * 1000);
-            if (sharedDashboard.lastUpdated.getTime() < fiveMinutesAgo) {
-                needsRefresh = true;
+            // Stale snapshots are served as they are while one background
+            // refresh per share replaces them
+            sharedDashboard.lastViewed = System.currentTimeMillis();
+            if (isStale(sharedDashboard)) {
+                scheduleRefresh(sharedDashboard);
             }
-            
-            if (needsRefresh) {
-                System.out.println("Refreshing dashboard snapshot for shareId: " + shareId);
-                try {
-                    Map<String, Object> freshData = getDashboardData(sharedDashboard.userId);
-                    sharedDashboard.dashboardData = freshData;
-                    sharedDashboard.lastUpdated = new Date();
-                    System.out.println("Refreshed snapshot: Teams=" + freshData.get("teams") + 
-                                     ", Projects=" + freshData.get("projects") + 
-                                     ", Tasks=" + freshData.get("tasks"));
-                } catch (Exception refreshError) {
-                    System.err.println("Failed to refresh snapshot, using cached data: " + refreshError.getMessage());
-                }
-            }
-
-            // Return the snapshot data
-            Map<String, Object> response = new HashMap<>();
-            response.put("dashboardData", sharedDashboard.dashboardData);
-            response.put("dashboardInfo", Map.of(
-                "ownerName", sharedDashboard.ownerName,
-                "projectCount", sharedDashboard.dashboardData.getOrDefault("projects", 0),
-                "createdAt", sharedDashboard.createdAt,
-                "shareId", shareId,
-                "lastUpdated", sharedDashboard.lastUpdated,
-                "isSnapshot", true
-            ));
 
-            System.out.println("Serving dashboard snapshot for shareId: " + shareId + 
-                             " with data: Teams=" + sharedDashboard.dashboardData.get("teams") + 
-                             ", Projects=" + sharedDashboard.dashboardData.get("projects") + 
-                             ", Tasks=" + sharedDashboard.dashboardData.get("tasks"));
+            RenderedSnapshot rendered = sharedDashboard.rendered;
+            CacheControl cacheControl = CacheControl.maxAge(publicMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+            if (!acceptsJson(accept)) {
+                return ResponseEntity.ok().cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).body(rendered.body);
+            }
 
-            return ResponseEntity.ok(response);
+            // The gzip copy is a different representation, so it gets its own ETag
+            boolean gzip = acceptsGzip(acceptEncoding);
+            String etag = gzip ? rendered.gzipEtag : rendered.etag;
+            if (matchesAny(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(gzip ? rendered.gzip : rendered.json);
         } catch (Exception e) {
-            System.err.println("Error fetching public dashboard for shareId: " + shareId);
-            e.printStackTrace();
+            log.error("Failed to fetch shared dashboard {}", shareId, e);
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to fetch dashboard", "shareId", shareId));
         }
     }
 
-    private Map<String, Object> getDashboardData(String userId) {
+    private Map<String, Object> getDashboardData(String userId, MongoTemplate reads) {
         Map<String, Object> result = new HashMap<>();
         
         try {
             // Get teams where user is a member
             Query teamQuery = new Query(Criteria.where("members.userId").is(userId));
-            List<Map> teams = mongoTemplate.find(teamQuery, Map.class, "teams");
+            List<Map> teams = reads.find(teamQuery, Map.class, "teams");
             
             // Get projects created by or assigned to user
             Query projectQuery = new Query(Criteria.where("createdBy").is(userId));
-            List<Map> projects = mongoTemplate.find(projectQuery, Map.class, "projects");
+            List<Map> projects = reads.find(projectQuery, Map.class, "projects");
             
             // Get tasks assigned to user
             Query taskQuery = new Query(Criteria.where("assignedTo").is(userId));
-            List<Map> tasks = mongoTemplate.find(taskQuery, Map.class, "tasks");
+            List<Map> tasks = reads.find(taskQuery, Map.class, "tasks");
             
             // Build stats object
             Map<String, Object> stats = new HashMap<>();
@@ -185,19 +332,24 @@ public class DashboardController {
                 teamData.put("inProgress", projects.stream().mapToInt(p -> 
                     String.valueOf(p.get("teamId")).equals(String.valueOf(team.get("id"))) && 
                     "in progress".equalsIgnoreCase(String.valueOf(p.get("status"))) ? 1 : 0).sum());
-                teamData.put("efficiency", 75 + (int)(Math.random() * 25)); // Randomized efficiency 75-100%
-                teamData.put("completionRate", 60 + (int)(Math.random() * 40)); // Randomized completion rate
+                // On-time share and completion rate from the team's moving averages (0 until it has history)
+                Map<String, Object> analytics = teamAnalyticsService.snapshot(String.valueOf(team.get("id")));
+                teamData.put("efficiency", percent(analytics, "efficiency"));
+                teamData.put("completionRate", percent(analytics, "completionRate"));
+                teamData.put("throughputPerWeek", analytics != null ? analytics.get("throughputPerWeek") : 0);
+                teamData.put("cycleTimeHours", analytics != null ? analytics.get("cycleTimeHours") : null);
                 teamPerformance.add(teamData);
             }
             
-            // Build weekly activity data (last 7 days)
+            // Build weekly activity data (last 7 days, oldest first) from the daily rollups
             List<Map<String, Object>> weeklyActivity = new ArrayList<>();
-            String[] days = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
-            for (int i = 0; i < 7; i++) {
+            for (Map<String, Object> day : activityRollupService.daily(ActivityRollupService.USER, userId, 7)) {
                 Map<String, Object> dayData = new HashMap<>();
-                dayData.put("day", days[i]);
-                dayData.put("tasks", 2 + (int)(Math.random() * 8)); // 2-10 tasks per day
-                dayData.put("projects", (int)(Math.random() * 3)); // 0-2 projects per day
+                dayData.put("day", day.get("day"));
+                dayData.put("date", day.get("date"));
+                dayData.put("tasks", day.get(ActivityRollupService.TASKS_CREATED));
+                dayData.put("completed", day.get(ActivityRollupService.TASKS_COMPLETED));
+                dayData.put("projects", day.get(ActivityRollupService.PROJECTS_CREATED));
                 weeklyActivity.add(dayData);
             }
             
@@ -218,9 +370,7 @@ public class DashboardController {
             statusData.add(Map.of("name", "On Hold", "value", onHoldProjects, "color", "#6b7280"));
             projectStatusDistribution.put("data", statusData);
             
-            // Calculate completion progress
-            int completionProgress = projects.size() > 0 ? 
-                (int)((completedProjects * 100) / projects.size()) : 0;
+            int completionProgress = completionProgress(userId, reads);
             
             // Assemble final result
             result.put("stats", stats);
@@ -232,12 +382,9 @@ public class DashboardController {
             result.put("projects", projects.size());
             result.put("tasks", tasks.size());
             
-            System.out.println("Generated comprehensive dashboard data for userId: " + userId);
-            System.out.println("Data contains: " + result.keySet());
-            
             return result;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to build dashboard data for user {}", userId, e);
             // Return minimal structure on error
             Map<String, Object> stats = Map.of("totalTeams", 0, "totalProjects", 0, "totalTasks", 0, "activeUsers", 1, "completedTasks", 0);
             result.put("stats", stats);
@@ -252,6 +399,67 @@ public class DashboardController {
         }
     }
 
+    /**
+     * Task completion across the user's projects, from the totals each
+     * project keeps up to date as its tasks change. The startup backfill
+     * counts older projects; until it reaches one, that project is left out.
+     */
+    private int completionProgress(String userId, MongoTemplate reads) {
+        boolean weighted = projectProgressService.weightedByPriority();
+        String totalField = weighted ? "taskWeight" : "taskCount";
+        String completedField = weighted ? "completedTaskWeight" : "completedTaskCount";
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("projects." + totalField).include("projects." + completedField);
+        Document user = reads.findOne(query, Document.class, "users");
+        long total = 0;
+        long completed = 0;
+        if (user != null && user.get("projects") instanceof List<?> projects) {
+            for (Object project : projects) {
+                if (project instanceof Document document
+                        && document.get(totalField) instanceof Number projectTotal
+                        && document.get(completedField) instanceof Number projectCompleted) {
+                    total += projectTotal.longValue();
+                    completed += projectCompleted.longValue();
+                }
+            }
+        }
+        return ProjectProgressService.percent(completed, total);
+    }
+
+    private static int percent(Map<String, Object> analytics, String key) {
+        Object value = analytics != null ? analytics.get(key) : null;
+        return value instanceof Number ? (int) Math.round(((Number) value).doubleValue()) : 0;
+    }
+
+    /**
+     * Daily activity of a user or a team over the last {@code days} days
+     * (7, 30 and 90 are what the dashboard offers), oldest first.
+     */
+    @GetMapping("/dashboard/activity")
+    public ResponseEntity<?> getActivity(@RequestParam(required = false) String userId,
+                                         @RequestParam(required = false) String teamId,
+                                         @RequestParam(defaultValue = "7") int days) {
+        try {
+            if ((userId == null || userId.isEmpty()) == (teamId == null || teamId.isEmpty())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Exactly one of userId or teamId is required"));
+            }
+            if (days < 1 || days > MAX_ACTIVITY_DAYS) {
+                return ResponseEntity.badRequest().body(Map.of("error", "days must be between 1 and " + MAX_ACTIVITY_DAYS));
+            }
+
+            boolean team = teamId != null && !teamId.isEmpty();
+            Map<String, Object> response = new HashMap<>();
+            response.put(team ? "teamId" : "userId", team ? teamId : userId);
+            response.put("days", days);
+            response.put("activity", activityRollupService.daily(
+                team ? ActivityRollupService.TEAM : ActivityRollupService.USER, team ? teamId : userId, days));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to fetch activity: " + e.getMessage()));
+        }
+    }
+
     // Method to trigger data refresh for shared dashboards when user data changes
     @PostMapping("/dashboard/refresh-shared")
     public ResponseEntity<Map<String, String>> refreshSharedDashboards(@RequestBody Map<String, String> request) {
@@ -259,21 +467,30 @@ public class DashboardController {
             String userId = request.get("userId");
             
             // Update the user's last updated timestamp
-            userLastUpdated.put(userId, new Date());
+            Date updatedAt = new Date();
+            userLastUpdated.put(userId, updatedAt);
             
-            // Find and refresh all shared dashboards for this user
+            // Find and refresh all shared dashboards for this user; they all
+            // show the same data, so it is queried once
             int refreshedCount = 0;
-            for (SharedDashboard dashboard : sharedDashboards.values()) {
-                if (dashboard.userId.equals(userId)) {
-                    try {
-                        Map<String, Object> freshData = getDashboardData(userId);
-                        dashboard.dashboardData = freshData;
-                        dashboard.lastUpdated = new Date();
-                        refreshedCount++;
-                        System.out.println("Refreshed shared dashboard: " + dashboard.shareId);
-                    } catch (Exception e) {
-                        System.err.println("Failed to refresh dashboard " + dashboard.shareId + ": " + e.getMessage());
+            Map<String, Object> freshData = null;
+            for (String shareId : sharesByOwner.getOrDefault(userId, Set.of())) {
+                SharedDashboard dashboard = sharedDashboards.get(shareId);
+                if (dashboard == null) {
+                    continue;
+                }
+                if (dashboard.expiresAt.before(updatedAt)) {
+                    removeShare(dashboard);
+                    continue;
+                }
+                try {
+                    if (freshData == null) {
+                        freshData = getDashboardData(userId, mongoTemplate);
                     }
+                    apply(dashboard, freshData, updatedAt);
+                    refreshedCount++;
+                } catch (Exception e) {
+                    log.warn("Failed to refresh shared dashboard {}: {}", dashboard.shareId, e.getMessage());
                 }
             }
             
@@ -282,19 +499,282 @@ public class DashboardController {
                 "userId", userId
             ));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to refresh shared dashboards", e);
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to refresh shared dashboards"));
         }
     }
 
+    /**
+     * Registers a share and indexes it under its owner. Both indexes are
+     * updated inside {@code compute} for the owner, so a concurrent add and
+     * remove for the same owner cannot lose a share from the index.
+     */
+    private static void addShare(SharedDashboard dashboard) {
+        sharesByOwner.compute(dashboard.userId, (owner, shareIds) -> {
+            Set<String> ids = shareIds != null ? shareIds : ConcurrentHashMap.newKeySet();
+            ids.add(dashboard.shareId);
+            sharedDashboards.put(dashboard.shareId, dashboard);
+            return ids;
+        });
+    }
+
+    private static void removeShare(SharedDashboard dashboard) {
+        sharedDashboards.remove(dashboard.shareId, dashboard);
+        sharesByOwner.computeIfPresent(dashboard.userId, (owner, shareIds) -> {
+            shareIds.remove(dashboard.shareId);
+            return shareIds.isEmpty() ? null : shareIds;
+        });
+    }
+
+    private boolean isStale(SharedDashboard dashboard) {
+        Date userLastUpdate = userLastUpdated.get(dashboard.userId);
+        Date lastUpdated = dashboard.lastUpdated;
+        return (userLastUpdate != null && userLastUpdate.after(lastUpdated))
+            || lastUpdated.getTime() < System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(maxStalenessSeconds);
+    }
+
+    /**
+     * Queues a refresh of the dashboard unless one is already queued or
+     * running. When the pool's queue is full the refresh is dropped and the
+     * next stale read tries again.
+     */
+    private void scheduleRefresh(SharedDashboard dashboard) {
+        if (!dashboard.refreshing.compareAndSet(false, true)) {
+            refreshesCoalesced.increment();
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(dashboard));
+        } catch (RejectedExecutionException e) {
+            dashboard.refreshing.set(false);
+            refreshesRejected.increment();
+        }
+    }
+
+    private void refresh(SharedDashboard dashboard) {
+        try {
+            Date startedAt = new Date();
+            // A snapshot stale because the owner wrote since is refreshed
+            // from the primary; a secondary might not have that write yet
+            Date userLastUpdate = userLastUpdated.get(dashboard.userId);
+            boolean ownerWrote = userLastUpdate != null && userLastUpdate.after(dashboard.lastUpdated);
+            apply(dashboard, getDashboardData(dashboard.userId, ownerWrote ? mongoTemplate : secondaryMongoTemplate),
+                startedAt);
+            refreshesCompleted.increment();
+            log.debug("Refreshed shared dashboard {}", dashboard.shareId);
+        } catch (Exception e) {
+            refreshesFailed.increment();
+            log.warn("Failed to refresh shared dashboard {}, serving cached snapshot: {}", dashboard.shareId,
+                e.getMessage());
+        } finally {
+            dashboard.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Installs data queried at {@code asOf}, unless the dashboard already
+     * holds data at least as recent (a slow background refresh finishing
+     * after an explicit one).
+     */
+    private void apply(SharedDashboard dashboard, Map<String, Object> data, Date asOf) throws IOException {
+        synchronized (dashboard) {
+            if (asOf.before(dashboard.lastUpdated)) {
+                return;
+            }
+            dashboard.dashboardData = data;
+            dashboard.lastUpdated = asOf;
+            render(dashboard);
+        }
+    }
+
+    /**
+     * Refreshes snapshots that are about to go stale and were viewed
+     * recently, so their viewers never see the stale copy. Shares nobody
+     * looks at are left to expire and refresh on their next read.
+     */
+    private void refreshAhead() {
+        try {
+            long now = System.currentTimeMillis();
+            long maxStalenessMs = TimeUnit.SECONDS.toMillis(maxStalenessSeconds);
+            long dueBefore = now - maxStalenessMs + TimeUnit.SECONDS.toMillis(refreshAheadSeconds);
+            for (SharedDashboard dashboard : sharedDashboards.values()) {
+                if (dashboard.expiresAt.before(new Date(now))) {
+                    removeShare(dashboard);
+                } else if (dashboard.lastViewed > now - maxStalenessMs
+                        && (dashboard.lastUpdated.getTime() < dueBefore || isStale(dashboard))) {
+                    scheduleRefresh(dashboard);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Shared dashboard refresh-ahead pass failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the public response for the dashboard's current snapshot and
+     * stores it ready to send: JSON bytes, a gzip copy and an ETag derived
+     * from the content. Called whenever the snapshot changes.
+     */
+    private void render(SharedDashboard dashboard) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("dashboardData", dashboard.dashboardData);
+        body.put("dashboardInfo", Map.of(
+            "ownerName", dashboard.ownerName,
+            "projectCount", dashboard.dashboardData.getOrDefault("projects", 0),
+            "createdAt", dashboard.createdAt,
+            "shareId", dashboard.shareId,
+            "lastUpdated", dashboard.lastUpdated,
+            "isSnapshot", true
+        ));
+
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        }
+        String etag = etag(json);
+        dashboard.rendered = new RenderedSnapshot(Collections.unmodifiableMap(body), json, compressed.toByteArray(), etag,
+            etag.substring(0, etag.length() - 1) + "-gz\"");
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header lists {@code etag} or is {@code *}.
+     * Tags are compared weakly, as RFC 9110 prescribes for this header, so
+     * {@code W/"x"} matches {@code "x"}.
+     */
+    static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        int i = 0;
+        int length = ifNoneMatch.length();
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+            } else if (c == '*') {
+                return true;
+            } else {
+                if (ifNoneMatch.startsWith("W/", i)) {
+                    i += 2;
+                }
+                if (i >= length || ifNoneMatch.charAt(i) != '"') {
+                    // Not an entity tag; nothing after it can be trusted
+                    return false;
+                }
+                int end = ifNoneMatch.indexOf('"', i + 1);
+                if (end < 0) {
+                    return false;
+                }
+                if (ifNoneMatch.regionMatches(i, opaque, 0, opaque.length()) && end + 1 - i == opaque.length()) {
+                    return true;
+                }
+                i = end + 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed as
+     * {@code gzip} or {@code x-gzip}, or covered by {@code *}, with a
+     * non-zero quality. An explicit {@code gzip;q=0} wins over {@code *}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip != null ? Math.max(gzip, quality) : quality;
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        double quality = gzip != null ? gzip : wildcard != null ? wildcard : 0;
+        return quality > 0;
+    }
+
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    /**
+     * Public response body of a shared dashboard, or {@code null} when the
+     * share does not exist.
+     */
+    Map<String, Object> renderedBody(String shareId) {
+        SharedDashboard dashboard = sharedDashboards.get(shareId);
+        return dashboard != null && dashboard.rendered != null ? dashboard.rendered.body : null;
+    }
+
     // Inner class for shared dashboard data
     private static class SharedDashboard {
         String shareId;
         String userId;
         String ownerName;
-        Map<String, Object> dashboardData;
+        volatile Map<String, Object> dashboardData;
         Date createdAt;
-        Date lastUpdated;
+        volatile Date lastUpdated;
         Date expiresAt;
+        volatile RenderedSnapshot rendered;
+        volatile long lastViewed;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+    }
+
+    /**
+     * Immutable, ready-to-send form of one snapshot version.
+     */
+    private static class RenderedSnapshot {
+        final Map<String, Object> body;
+        final byte[] json;
+        final byte[] gzip;
+        final String etag;
+        final String gzipEtag;
+
+        RenderedSnapshot(Map<String, Object> body, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+            this.body = body;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.gzipEtag = gzipEtag;
+        }
     }
 }
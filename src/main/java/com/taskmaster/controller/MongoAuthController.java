@@ -1,8 +1,18 @@
 package com.taskmaster.controller;
 
 
+import com.taskmaster.model.Project;
+import com.taskmaster.model.Team;
 import com.taskmaster.model.User;
 import com.taskmaster.repository.UserRepository;
+import com.taskmaster.service.ActivityRollupService;
+import com.taskmaster.service.ProjectProgressService;
+import com.taskmaster.service.RawUserDocumentService;
+import com.taskmaster.service.SearchIndexService;
+import com.taskmaster.service.UserWriteQueue;
+import org.bson.RawBsonDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,11 +27,34 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class MongoAuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(MongoAuthController.class);
+
+
+    // Never includes the password: this endpoint is unauthenticated
+    private static final List<String> PUBLIC_USER_FIELDS = List.of(
+        "email", "userdata", "teams", "projects", "createdAt", "updatedAt");
+
 
     @Autowired
     private UserRepository userRepository;
 
 
+    @Autowired
+    private RawUserDocumentService rawUserDocumentService;
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private UserWriteQueue userWriteQueue;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ProjectProgressService projectProgressService;
+
+
     @GetMapping("/test")
     public ResponseEntity<?> test() {
         return ResponseEntity.ok(Map.of("message", "TaskMaster API is running", "timestamp", System.currentTimeMillis()));
@@ -91,7 +124,8 @@ public class MongoAuthController {
             user.setProjects(new ArrayList<>());
 
 
-            userRepository.save(user);
+            // A new document: insert rather than save, so an existing user is never overwritten
+            userRepository.insert(user);
 
 
             Map<String, Object> response = new HashMap<>();
@@ -127,12 +161,18 @@ public class MongoAuthController {
 
 
             String sessionToken = "session_" + UUID.randomUUID().toString().replace("-", "");
-            user.setSessionToken(sessionToken);
-            userRepository.save(user);
+            Map<String, Object> userdata = userWriteQueue.write(user.getUserId(), ctx -> {
+                if (ctx.user() == null) {
+                    return null;
+                }
+                ctx.user().setSessionToken(sessionToken);
+                ctx.changed();
+                return ctx.user().getUserdata();
+            });
 
 
             Map<String, Object> response = new HashMap<>();
-            response.put("userdata", user.getUserdata());
+            response.put("userdata", userdata);
             response.put("sessionToken", sessionToken);
             response.put("message", "Login successful");
             response.put("userId", user.getUserId());
@@ -171,27 +211,34 @@ public class MongoAuthController {
             }
 
 
-            Map<String, Object> newTeam = new HashMap<>();
-            newTeam.put("id", "team_" + System.currentTimeMillis());
-            newTeam.put("name", teamName);
-            newTeam.put("description", teamDescription != null ? teamDescription : "");
-            newTeam.put("role", "OWNER");
-            newTeam.put("createdAt", LocalDateTime.now().toString());
-
-
-            List<Map<String, Object>> teams = user.getTeams();
-            if (teams == null) {
-                teams = new ArrayList<>();
-                user.setTeams(teams);
-            }
-            teams.add(newTeam);
-            user.setUpdatedAt(LocalDateTime.now().toString());
-
-
-            userRepository.save(user);
+            Team newTeam = new Team();
+            newTeam.setId("team_" + System.currentTimeMillis());
+            newTeam.setName(teamName);
+            newTeam.setDescription(teamDescription != null ? teamDescription : "");
+            newTeam.setRole("OWNER");
+            newTeam.setCreatedAt(new Date());
 
 
-            return ResponseEntity.ok(newTeam);
+            ResponseEntity<?> response = userWriteQueue.write(user.getUserId(), ctx -> {
+                User current = ctx.user();
+                if (current == null) {
+                    return ResponseEntity.status(401).body(Map.of("error", "Invalid session token"));
+                }
+                List<Team> teams = current.getTeams();
+                if (teams == null) {
+                    teams = new ArrayList<>();
+                    current.setTeams(teams);
+                }
+                ctx.stamp(newTeam);
+                teams.add(newTeam);
+                current.setUpdatedAt(LocalDateTime.now().toString());
+                ctx.changed();
+                return ResponseEntity.ok(newTeam);
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                searchIndexService.indexTeam(user.getUserId(), newTeam);
+            }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to create team: " + e.getMessage()));
         }
@@ -209,7 +256,7 @@ public class MongoAuthController {
             // Try session token first (new method)
             if (sessionToken != null && !sessionToken.isEmpty()) {
                 user = userRepository.findBySessionToken(sessionToken);
-                System.out.println("Found user with session token: " + (user != null ? user.getEmail() : "null"));
+                log.debug("Session token lookup resolved user {}", user != null ? user.getUserId() : null);
             }
             // Fallback to Authorization header
             else if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -223,42 +270,66 @@ public class MongoAuthController {
 
 
             if (user == null) {
-                System.out.println("No user found for teams request");
+                log.debug("No user resolved for teams request");
                 return ResponseEntity.ok(new ArrayList<>());
             }
 
 
-            List<Map<String, Object>> teams = user.getTeams();
-            System.out.println("Returning teams for user " + user.getEmail() + ": " + (teams != null ? teams.size() : 0) + " teams");
+            List<Team> teams = user.getTeams();
+            log.debug("Returning {} teams for user {}", teams != null ? teams.size() : 0, user.getUserId());
             return ResponseEntity.ok(teams != null ? teams : new ArrayList<>());
         } catch (Exception e) {
-            System.out.println("Error in getTeams: " + e.getMessage());
+            log.warn("Failed to fetch teams: {}", e.getMessage());
             return ResponseEntity.ok(new ArrayList<>());
         }
     }
 
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getUser(@PathVariable String userId) {
+    public ResponseEntity<?> getUser(@PathVariable String userId,
+                                     @RequestParam(required = false) String fields) {
         try {
-            User user = userRepository.findByUserId(userId);
+            // Read-only: project the requested fields and stream them straight from BSON
+            Set<String> requested = RawUserDocumentService.fields(fields);
+            List<String> included = new ArrayList<>();
+            for (String field : PUBLIC_USER_FIELDS) {
+                if (requested == null || requested.contains(field)) {
+                    included.add(field);
+                }
+            }
+            RawBsonDocument user = rawUserDocumentService.find(userId,
+                included.isEmpty() ? new String[] {"_id"} : included.toArray(new String[0]));
             if (user == null) {
                 return ResponseEntity.status(404).body(Map.of("error", "User not found"));
             }
 
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("userId", user.getUserId());
-            response.put("email", user.getEmail());
-            response.put("password", user.getPassword());
-            response.put("userdata", user.getUserdata());
-            response.put("teams", user.getTeams());
-            response.put("projects", user.getProjects());
-            response.put("createdAt", user.getCreatedAt());
-            response.put("updatedAt", user.getUpdatedAt());
-
-
-            return ResponseEntity.ok(response);
+            return rawUserDocumentService.stream(json -> {
+                json.writeStartObject();
+                if (requested == null || requested.contains("userId")) {
+                    json.writeStringField("userId", userId);
+                }
+                Set<String> written = new HashSet<>();
+                rawUserDocumentService.forEachField(RawUserDocumentService.BsonSource.of(user), (name, value) -> {
+                    if (!included.contains(name)) {
+                        return;
+                    }
+                    json.writeFieldName(name);
+                    if (name.equals("teams") || name.equals("projects")) {
+                        rawUserDocumentService.copyEntities(value, json, null, null);
+                    } else {
+                        rawUserDocumentService.copyValue(value, json);
+                    }
+                    written.add(name);
+                });
+                // Absent fields were always rendered as null
+                for (String field : included) {
+                    if (!written.contains(field)) {
+                        json.writeNullField(field);
+                    }
+                }
+                json.writeEndObject();
+            });
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to get user: " + e.getMessage()));
         }
@@ -276,7 +347,7 @@ public class MongoAuthController {
             // Try session token first (new method)
             if (sessionToken != null && !sessionToken.isEmpty()) {
                 user = userRepository.findBySessionToken(sessionToken);
-                System.out.println("Found user with session token for project creation: " + (user != null ? user.getEmail() : "null"));
+                log.debug("Session token lookup resolved user {}", user != null ? user.getUserId() : null);
             }
             // Fallback to Authorization header
             else if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -302,23 +373,23 @@ public class MongoAuthController {
             }
 
 
-            Map<String, Object> newProject = new HashMap<>();
-            newProject.put("id", "project_" + System.currentTimeMillis());
-            newProject.put("name", projectName);
-            newProject.put("description", projectDescription != null ? projectDescription : "");
-            newProject.put("teamId", teamId); // null for standalone projects
-            newProject.put("priority", priority != null ? priority : "MEDIUM");
-            newProject.put("status", status != null ? status : "PLANNING");
-            newProject.put("ownerId", user.getUserId());
-            newProject.put("createdAt", LocalDateTime.now().toString());
-            newProject.put("updatedAt", LocalDateTime.now().toString());
+            Project newProject = new Project();
+            newProject.setId("project_" + System.currentTimeMillis());
+            newProject.setName(projectName);
+            newProject.setDescription(projectDescription != null ? projectDescription : "");
+            newProject.setTeamId(teamId); // null for standalone projects
+            newProject.setPriorityLabel(priority != null ? priority : "MEDIUM");
+            newProject.setStatusLabel(status != null ? status : "PLANNING");
+            newProject.putExtra("ownerId", user.getUserId());
+            newProject.setCreatedAt(new Date());
+            newProject.setUpdatedAt(new Date());
+            newProject.setTasks(new ArrayList<>());
+            projectProgressService.start(newProject);
 
 
             // If teamId is provided, verify the user owns or is part of that team
             if (teamId != null && !teamId.isEmpty()) {
-                List<Map<String, Object>> userTeams = user.getTeams();
-                boolean isTeamMember = userTeams != null &&
-                    userTeams.stream().anyMatch(team -> teamId.equals(team.get("id")));
+                boolean isTeamMember = user.findTeam(teamId) != null;
 
 
                 if (!isTeamMember) {
@@ -326,25 +397,34 @@ public class MongoAuthController {
                 }
 
 
-                newProject.put("type", "TEAM_PROJECT");
+                newProject.putExtra("type", "TEAM_PROJECT");
             } else {
-                newProject.put("type", "PERSONAL_PROJECT");
+                newProject.putExtra("type", "PERSONAL_PROJECT");
             }
 
 
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
-                projects = new ArrayList<>();
-                user.setProjects(projects);
-            }
-            projects.add(newProject);
-            user.setUpdatedAt(LocalDateTime.now().toString());
-
-
-            userRepository.save(user);
-
-
-            return ResponseEntity.ok(newProject);
+            ResponseEntity<?> response = userWriteQueue.write(user.getUserId(), ctx -> {
+                User current = ctx.user();
+                if (current == null) {
+                    return ResponseEntity.status(401).body(Map.of("error", "No valid session token provided"));
+                }
+                List<Project> projects = current.getProjects();
+                if (projects == null) {
+                    projects = new ArrayList<>();
+                    current.setProjects(projects);
+                }
+                ctx.stamp(newProject);
+                projects.add(newProject);
+                current.setUpdatedAt(LocalDateTime.now().toString());
+                ctx.changed();
+                return ResponseEntity.ok(newProject);
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                searchIndexService.indexProject(user.getUserId(), newProject);
+                activityRollupService.record(new ActivityRollupService.Tally()
+                    .add(user.getUserId(), teamId, ActivityRollupService.PROJECTS_CREATED));
+            }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to create project: " + e.getMessage()));
         }
@@ -363,7 +443,7 @@ public class MongoAuthController {
             // Try session token first (new method)
             if (sessionToken != null && !sessionToken.isEmpty()) {
                 user = userRepository.findBySessionToken(sessionToken);
-                System.out.println("Found user with session token: " + (user != null ? user.getEmail() : "null"));
+                log.debug("Session token lookup resolved user {}", user != null ? user.getUserId() : null);
             }
             // Fallback to Authorization header
             else if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -377,12 +457,12 @@ public class MongoAuthController {
 
 
             if (user == null) {
-                System.out.println("No user found for projects request");
+                log.debug("No user resolved for projects request");
                 return ResponseEntity.ok(new ArrayList<>());
             }
 
 
-            List<Map<String, Object>> projects = user.getProjects();
+            List<Project> projects = user.getProjects();
             if (projects == null) {
                 return ResponseEntity.ok(new ArrayList<>());
             }
@@ -391,7 +471,7 @@ public class MongoAuthController {
             // Filter by teamId if provided
             if (teamId != null && !teamId.isEmpty()) {
                 projects = projects.stream()
-                    .filter(project -> teamId.equals(project.get("teamId")))
+                    .filter(project -> teamId.equals(project.getTeamId()))
                     .collect(java.util.stream.Collectors.toList());
             }
 
@@ -412,7 +492,7 @@ public class MongoAuthController {
             }
 
 
-            List<Map<String, Object>> teams = user.getTeams();
+            List<Team> teams = user.getTeams();
             return ResponseEntity.ok(teams != null ? teams : new ArrayList<>());
         } catch (Exception e) {
             return ResponseEntity.ok(new ArrayList<>());
@@ -438,15 +518,15 @@ public class MongoAuthController {
             }
 
 
-            List<Map<String, Object>> projects = user.getProjects();
+            List<Project> projects = user.getProjects();
             if (projects == null) {
                 return ResponseEntity.ok(new ArrayList<>());
             }
 
 
             // Filter projects by teamId
-            List<Map<String, Object>> teamProjects = projects.stream()
-                .filter(project -> teamId.equals(project.get("teamId")))
+            List<Project> teamProjects = projects.stream()
+                .filter(project -> teamId.equals(project.getTeamId()))
                 .collect(java.util.stream.Collectors.toList());
 
 
@@ -473,37 +553,41 @@ public class MongoAuthController {
             }
 
 
-            // Update userdata
-            if (updateData.containsKey("userdata")) {
-                user.setUserdata((Map<String, Object>) updateData.get("userdata"));
-            }
-
-
-            // Update password if provided
-            if (updateData.containsKey("currentPassword") && updateData.containsKey("newPassword")) {
-                String currentPassword = (String) updateData.get("currentPassword");
-                String newPassword = (String) updateData.get("newPassword");
-
+            return userWriteQueue.write(userId, ctx -> {
+                User current = ctx.user();
+                if (current == null || !sessionToken.equals(current.getSessionToken())) {
+                    return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+                }
 
-                if (!currentPassword.equals(user.getPassword())) {
+                // Check the password before changing anything, so a rejected request leaves the user as it was
+                boolean changePassword = updateData.containsKey("currentPassword") && updateData.containsKey("newPassword");
+                if (changePassword && !((String) updateData.get("currentPassword")).equals(current.getPassword())) {
                     return ResponseEntity.status(400).body(Map.of("error", "Current password is incorrect"));
                 }
 
+                // Update userdata
+                if (updateData.containsKey("userdata")) {
+                    current.setUserdata((Map<String, Object>) updateData.get("userdata"));
+                }
 
-                user.setPassword(newPassword);
-            }
 
+                // Update password if provided
+                if (changePassword) {
+                    current.setPassword((String) updateData.get("newPassword"));
+                }
 
-            user.setUpdatedAt(LocalDateTime.now().toString());
-            userRepository.save(user);
 
+                current.setUpdatedAt(LocalDateTime.now().toString());
+                ctx.changed();
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "User updated successfully");
-            response.put("userdata", user.getUserdata());
 
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "User updated successfully");
+                response.put("userdata", current.getUserdata());
 
-            return ResponseEntity.ok(response);
+
+                return ResponseEntity.ok(response);
+            });
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to update user: " + e.getMessage()));
         }
@@ -0,0 +1,29 @@
+package com.taskmaster.controller;
+
+import com.taskmaster.monitoring.UserDocumentSizeMonitor;
+import com.taskmaster.service.TaskOverflowService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/monitoring")
+@CrossOrigin(origins = "*")
+public class MonitoringController {
+
+    @Autowired
+    private UserDocumentSizeMonitor userDocumentSizeMonitor;
+
+    @Autowired
+    private TaskOverflowService taskOverflowService;
+
+    @GetMapping("/document-sizes")
+    public ResponseEntity<?> getDocumentSizes() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("spillThresholdBytes", taskOverflowService.getSpillThresholdBytes());
+        response.put("largest", userDocumentSizeMonitor.topOffenders());
+        return ResponseEntity.ok(response);
+    }
+}
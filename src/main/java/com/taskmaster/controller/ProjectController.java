@@ -1,11 +1,33 @@
 package com.taskmaster.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.TaskStatus;
+import com.taskmaster.model.Team;
 import com.taskmaster.model.User;
 import com.taskmaster.repository.UserRepository;
+import com.taskmaster.service.ActivityRollupService;
+import com.taskmaster.service.BoardOrder;
+import com.taskmaster.service.ProjectProgressService;
+import com.taskmaster.service.RawUserDocumentService;
+import com.taskmaster.service.ReminderService;
+import com.taskmaster.service.SearchIndexService;
+import com.taskmaster.service.TaskDependencyService;
+import com.taskmaster.service.TaskOverflowService;
+import com.taskmaster.service.UserService;
+import com.taskmaster.service.UserWriteQueue;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
 
 @RestController
@@ -13,76 +35,169 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class ProjectController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProjectController.class);
+
+    private static final String SUMMARY_VIEW = "summary";
+
+    private static final int MAX_BOARD_PAGE_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskOverflowService taskOverflowService;
+
+    @Autowired
+    private UserWriteQueue userWriteQueue;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RawUserDocumentService rawUserDocumentService;
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private TaskDependencyService taskDependencyService;
+
+    @Autowired
+    private ProjectProgressService projectProgressService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    /**
+     * Lists the user's projects. With {@code view=summary} each project comes
+     * without its tasks, carrying {@code taskCounts} instead; the full task
+     * list stays on {@code /projects/{projectId}}.
+     */
     @GetMapping("/projects")
-    public ResponseEntity<?> getProjects(@RequestParam(required = false) String userId) {
+    public ResponseEntity<?> getProjects(@RequestParam(required = false) String userId,
+                                         @RequestParam(required = false) String fields,
+                                         @RequestParam(required = false) String view) {
         try {
             if (userId == null || userId.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
-            User user = userRepository.findByUserId(userId);
+            // Read-only: stream the stored projects straight from BSON
+            RawBsonDocument user = SUMMARY_VIEW.equals(view)
+                ? rawUserDocumentService.findProjectSummaries(userId, null, LocalDate.now(ZoneOffset.UTC))
+                : rawUserDocumentService.find(userId, "teams", "projects");
             if (user == null) {
                 return ResponseEntity.notFound().build();
             }
+            return streamProjects(user, RawUserDocumentService.fields(fields));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to fetch projects: " + e.getMessage()));
+        }
+    }
 
-            // Get projects for the user
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
-                projects = new ArrayList<>();
-            }
-
-            // Get teams for team name resolution
-            List<Map<String, Object>> teams = user.getTeams();
-            Map<String, String> teamNameMap = new HashMap<>();
-            if (teams != null) {
-                for (Map<String, Object> team : teams) {
-                    String teamId = (String) team.get("_id");
-                    String teamName = (String) team.get("name");
-                    if (teamId != null && teamName != null) {
-                        teamNameMap.put(teamId, teamName);
-                    }
+    private ResponseEntity<?> streamProjects(RawBsonDocument user, Set<String> projectFields) {
+        // Get teams for team name resolution
+        Map<String, String> teamNameMap = new HashMap<>();
+        BsonValue teams = user.get("teams");
+        if (teams != null && teams.isArray()) {
+            for (BsonValue team : teams.asArray()) {
+                if (!team.isDocument()) {
+                    continue;
+                }
+                RawBsonDocument teamDocument = (RawBsonDocument) team.asDocument();
+                String teamId = RawUserDocumentService.stringField(teamDocument, "_id");
+                if (teamId == null) {
+                    teamId = RawUserDocumentService.stringField(teamDocument, "id");
+                }
+                String teamName = RawUserDocumentService.stringField(teamDocument, "name");
+                if (teamId != null && teamName != null) {
+                    teamNameMap.put(teamId, teamName);
                 }
             }
+        }
+
+        return rawUserDocumentService.stream(json -> rawUserDocumentService.copyEntities(
+            RawUserDocumentService.BsonSource.at(user, "projects"), json, projectFields,
+            () -> new TeamNameOverride(teamNameMap, projectFields)));
+    }
+
+    /**
+     * Ensures all projects have correct team names: the stored teamName is
+     * held back and replaced by the team's current name once teamId is known.
+     */
+    private static class TeamNameOverride implements RawUserDocumentService.FieldOverride {
+        private final Map<String, String> teamNameMap;
+        private final Set<String> fields;
+        private String teamId;
+        private String storedName;
+
+        TeamNameOverride(Map<String, String> teamNameMap, Set<String> fields) {
+            this.teamNameMap = teamNameMap;
+            this.fields = fields;
+        }
 
-            // Ensure all projects have correct team names
-            for (Map<String, Object> project : projects) {
-                String teamId = (String) project.get("teamId");
-                if (teamId != null && teamNameMap.containsKey(teamId)) {
-                    project.put("teamName", teamNameMap.get(teamId));
-                } else if (teamId != null) {
-                    project.put("teamName", "Unknown Team");
+        @Override
+        public boolean write(String name, RawUserDocumentService.BsonSource value, JsonGenerator json)
+                throws IOException {
+            if (name.equals("teamId") && value.isString()) {
+                teamId = value.stringValue();
+                if (fields == null || fields.contains("teamId")) {
+                    json.writeStringField("teamId", teamId);
                 }
+                return true;
             }
+            if (name.equals("teamName")) {
+                storedName = value.isString() ? value.stringValue() : null;
+                return true;
+            }
+            return false;
+        }
 
-            return ResponseEntity.ok(projects);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                .body(Map.of("error", "Failed to fetch projects: " + e.getMessage()));
+        @Override
+        public void finish(JsonGenerator json) throws IOException {
+            String teamName = storedName;
+            if (teamId != null) {
+                teamName = teamNameMap.getOrDefault(teamId, "Unknown Team");
+            }
+            if ((fields == null || fields.contains("teamName")) && teamName != null) {
+                json.writeStringField("teamName", teamName);
+            }
         }
     }
 
     @GetMapping("/projects/team/{teamId}")
-    public ResponseEntity<?> getProjectsByTeam(@PathVariable String teamId, @RequestParam(required = false) String userId) {
+    public ResponseEntity<?> getProjectsByTeam(@PathVariable String teamId, @RequestParam(required = false) String userId,
+                                               @RequestParam(required = false) String view) {
         try {
             if (userId == null || userId.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
+            if (SUMMARY_VIEW.equals(view)) {
+                RawBsonDocument summaries = rawUserDocumentService.findProjectSummaries(
+                    userId, teamId, LocalDate.now(ZoneOffset.UTC));
+                if (summaries == null) {
+                    return ResponseEntity.notFound().build();
+                }
+                return streamProjects(summaries, null);
+            }
+
             User user = userRepository.findByUserId(userId);
             if (user == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Map<String, Object>> projects = user.getProjects();
+            List<Project> projects = user.getProjects();
             if (projects == null) {
                 return ResponseEntity.ok(new ArrayList<>());
             }
 
-            List<Map<String, Object>> teamProjects = projects.stream()
-                .filter(project -> teamId.equals(project.get("teamId")))
+            List<Project> teamProjects = projects.stream()
+                .filter(project -> teamId.equals(project.getTeamId()))
                 .collect(ArrayList::new, (list, item) -> list.add(item), ArrayList::addAll);
 
             return ResponseEntity.ok(teamProjects);
@@ -100,54 +215,63 @@ public class ProjectController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            // Get team name from teamId
             String teamId = (String) projectData.get("teamId");
-            String teamName = "Unknown Team";
 
-            if (teamId != null) {
-                List<Map<String, Object>> teams = user.getTeams();
-                if (teams != null) {
-                    Optional<Map<String, Object>> team = teams.stream()
-                        .filter(t -> teamId.equals(t.get("_id")))
-                        .findFirst();
-                    if (team.isPresent()) {
-                        teamName = (String) team.get().get("name");
+            Project newProject = userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return null;
+                }
+
+                // Get team name from teamId
+                String teamName = "Unknown Team";
+
+                if (teamId != null) {
+                    Team team = user.findTeam(teamId);
+                    if (team != null) {
+                        teamName = team.getName();
                     }
                 }
-            }
 
-            // Create new project
-            Map<String, Object> newProject = new HashMap<>();
-            newProject.put("_id", UUID.randomUUID().toString());
-            newProject.put("name", projectData.get("name"));
-            newProject.put("description", projectData.get("description"));
-            newProject.put("status", projectData.getOrDefault("status", "Planning"));
-            newProject.put("priority", projectData.getOrDefault("priority", "Medium"));
-            newProject.put("progress", projectData.getOrDefault("progress", 0));
-            newProject.put("teamId", teamId);
-            newProject.put("teamName", teamName);
-            newProject.put("createdBy", userId);
-            newProject.put("createdAt", new Date());
-            newProject.put("dueDate", projectData.get("dueDate"));
-            newProject.put("tasks", new ArrayList<>());
-
-            // Add project to user's projects list
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
-                projects = new ArrayList<>();
+                // Create new project
+                Project project = new Project();
+                project.setId(UUID.randomUUID().toString());
+                project.setName(text(projectData.get("name")));
+                project.setDescription(text(projectData.get("description")));
+                project.setStatusLabel(text(projectData.getOrDefault("status", "Planning")));
+                project.setPriorityLabel(text(projectData.getOrDefault("priority", "Medium")));
+                // Progress follows the project's tasks; any client value is ignored
+                projectProgressService.start(project);
+                project.setTeamId(teamId);
+                project.setTeamName(teamName);
+                project.setCreatedBy(userId);
+                project.setCreatedAt(new Date());
+                project.setDueDate(text(projectData.get("dueDate")));
+                project.setTasks(new ArrayList<>());
+
+                // Add project to user's projects list
+                List<Project> projects = user.getProjects();
+                if (projects == null) {
+                    projects = new ArrayList<>();
+                }
+                ctx.stamp(project);
+                projects.add(project);
+                user.setProjects(projects);
+                ctx.changed();
+
+                return project.copy();
+            });
+
+            if (newProject == null) {
+                return ResponseEntity.notFound().build();
             }
-            projects.add(newProject);
-            user.setProjects(projects);
-            userRepository.save(user);
+            searchIndexService.indexProject(userId, newProject);
+            activityRollupService.record(new ActivityRollupService.Tally()
+                .add(userId, teamId, ActivityRollupService.PROJECTS_CREATED));
 
             // If this project belongs to a team, sync it with all team members
             if (teamId != null && !teamId.isEmpty()) {
-                syncProjectWithTeamMembers(teamId, newProject);
+                syncProjectWithTeamMembers(teamId, newProject, userId);
             }
 
             return ResponseEntity.ok(newProject);
@@ -157,41 +281,42 @@ public class ProjectController {
         }
     }
 
-    private void syncProjectWithTeamMembers(String teamId, Map<String, Object> project) {
+    private void syncProjectWithTeamMembers(String teamId, Project project, String creatorId) {
         try {
-            // Find all users who are members of this team
-            List<User> allUsers = userRepository.findAll();
-            
-            for (User user : allUsers) {
-                List<Map<String, Object>> userTeams = user.getTeams();
-                if (userTeams != null) {
-                    boolean isMember = userTeams.stream()
-                        .anyMatch(team -> teamId.equals(team.get("_id")) || teamId.equals(team.get("id")));
-                    
-                    if (isMember) {
-                        List<Map<String, Object>> userProjects = user.getProjects();
-                        if (userProjects == null) {
-                            userProjects = new ArrayList<>();
-                        }
-                        
-                        // Check if project already exists
-                        String projectId = (String) project.get("_id");
-                        boolean projectExists = userProjects.stream()
-                            .anyMatch(p -> projectId.equals(p.get("_id")));
-                        
-                        if (!projectExists) {
-                            Map<String, Object> projectCopy = new HashMap<>();
-                            projectCopy.putAll(project);
-                            userProjects.add(projectCopy);
-                            user.setProjects(userProjects);
-                            userRepository.save(user);
-                        }
-                    }
+            for (String memberId : userService.findTeamMemberIds(teamId)) {
+                if (memberId.equals(creatorId)) {
+                    continue;
                 }
+
+                // Re-check against the member's latest document inside their write lane
+                userWriteQueue.submit(memberId, ctx -> {
+                    User user = ctx.user();
+                    if (user == null) {
+                        return null;
+                    }
+                    List<Project> userProjects = user.getProjects();
+                    if (userProjects == null) {
+                        userProjects = new ArrayList<>();
+                    }
+
+                    // Check if project already exists
+                    if (user.findProject(project.getId()) == null) {
+                        Project copy = project.copy();
+                        ctx.stampWithTasks(copy);
+                        userProjects.add(copy);
+                        user.setProjects(userProjects);
+                        ctx.changed();
+                    }
+                    return null;
+                }).thenRun(() -> searchIndexService.invalidate(memberId))
+                .exceptionally(e -> {
+                    log.warn("Failed to sync project with team member {}: {}", memberId, e.getMessage());
+                    return null;
+                });
             }
         } catch (Exception e) {
             // Log error but don't fail the main operation
-            System.err.println("Error syncing project with team members: " + e.getMessage());
+            log.warn("Failed to sync project with team members: {}", e.getMessage());
         }
     }
 
@@ -203,23 +328,107 @@ public class ProjectController {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
+            Project project = user.findProject(projectId);
+            if (project != null) {
+                return ResponseEntity.ok(project);
+            } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to fetch project: " + e.getMessage()));
+        }
+    }
 
-            Optional<Map<String, Object>> project = projects.stream()
-                .filter(p -> projectId.equals(p.get("_id")) || projectId.equals(p.get("id")))
-                .findFirst();
+    /**
+     * The project as a board: one column per task status with its task
+     * count and one page of its tasks in rank order. {@code status} limits
+     * the response to one column, for loading further pages of it. Counts
+     * cover the live tasks; spilled ones are in {@code archivedTaskCount}.
+     */
+    @GetMapping("/projects/{projectId}/board")
+    public ResponseEntity<?> getBoard(@PathVariable String projectId,
+                                      @RequestParam String userId,
+                                      @RequestParam(required = false) String status,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "50") int size) {
+        try {
+            if (page < 0 || size < 1 || size > MAX_BOARD_PAGE_SIZE) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Page must be at least 0 and size between 1 and " + MAX_BOARD_PAGE_SIZE));
+            }
+            List<TaskStatus> columns = List.of(TaskStatus.values());
+            if (status != null) {
+                TaskStatus column = TaskStatus.parse(status);
+                if (column == null) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Unknown status: " + status));
+                }
+                columns = List.of(column);
+            }
 
-            if (project.isPresent()) {
-                return ResponseEntity.ok(project.get());
-            } else {
+            User user = userRepository.findByUserId(userId);
+            Project project = user != null ? user.findProject(projectId) : null;
+            if (project == null) {
                 return ResponseEntity.notFound().build();
             }
+
+            List<Map<String, Object>> board = new ArrayList<>();
+            for (TaskStatus column : columns) {
+                List<EmbeddedTask> tasks = BoardOrder.tasks(project, column);
+                int from = (int) Math.min((long) page * size, tasks.size());
+                int to = Math.min(from + size, tasks.size());
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("status", column.label());
+                entry.put("count", tasks.size());
+                entry.put("tasks", tasks.subList(from, to));
+                entry.put("hasMore", to < tasks.size());
+                board.add(entry);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("projectId", project.getId());
+            response.put("page", page);
+            response.put("size", size);
+            response.put("total", project.getTasks() != null ? project.getTasks().size() : 0);
+            response.put("archivedTaskCount", project.getArchivedTaskCount());
+            response.put("columns", board);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
-                .body(Map.of("error", "Failed to fetch project: " + e.getMessage()));
+                .body(Map.of("error", "Failed to fetch board: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The chain of task dependencies that sets the project's latest
+     * projected finish, and the open tasks a later-due prerequisite makes
+     * late. Tasks are projected to finish on their due date or, when later,
+     * when their open prerequisites do.
+     */
+    @GetMapping("/projects/{projectId}/critical-path")
+    public ResponseEntity<?> getCriticalPath(@PathVariable String projectId, @RequestParam String userId) {
+        try {
+            Map<String, Object> criticalPath = taskDependencyService.criticalPath(userId, projectId);
+            if (criticalPath == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(criticalPath);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to compute critical path: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/projects/{projectId}/archived-tasks")
+    public ResponseEntity<?> getArchivedTasks(@PathVariable String projectId,
+                                              @RequestParam String userId,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(taskOverflowService.loadArchivedTasks(userId, projectId, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to fetch archived tasks: " + e.getMessage()));
         }
     }
 
@@ -231,59 +440,48 @@ public class ProjectController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
+            ResponseEntity<?> response = userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
-                return ResponseEntity.notFound().build();
-            }
+                Project project = user.findProject(projectId);
+                if (project == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            Map<String, Object> updatedProject = null;
-            for (Map<String, Object> project : projects) {
-                if (projectId.equals(project.get("_id")) || projectId.equals(project.get("id"))) {
-                    project.put("name", projectData.get("name"));
-                    project.put("description", projectData.get("description"));
-                    project.put("status", projectData.get("status"));
-                    project.put("priority", projectData.get("priority"));
-                    project.put("progress", projectData.get("progress"));
-
-                    // Handle team assignment
-                    String teamId = (String) projectData.get("teamId");
-                    project.put("teamId", teamId);
-
-                    // Get correct team name
-                    String teamName = "Unknown Team";
-                    if (teamId != null) {
-                        List<Map<String, Object>> teams = user.getTeams();
-                        if (teams != null) {
-                            Optional<Map<String, Object>> team = teams.stream()
-                                .filter(t -> teamId.equals(t.get("_id")))
-                                .findFirst();
-                            if (team.isPresent()) {
-                                teamName = (String) team.get().get("name");
-                            }
-                        }
+                project.setName(text(projectData.get("name")));
+                project.setDescription(text(projectData.get("description")));
+                project.setStatusLabel(text(projectData.get("status")));
+                project.setPriorityLabel(text(projectData.get("priority")));
+                projectProgressService.ensureCounted(userId, project);
+
+                // Handle team assignment
+                String teamId = (String) projectData.get("teamId");
+                project.setTeamId(teamId);
+
+                // Get correct team name
+                String teamName = "Unknown Team";
+                if (teamId != null) {
+                    Team team = user.findTeam(teamId);
+                    if (team != null) {
+                        teamName = team.getName();
                     }
-                    project.put("teamName", teamName);
-
-                    project.put("dueDate", projectData.get("dueDate"));
-                    project.put("updatedAt", new Date());
-                    updatedProject = project;
-                    break;
                 }
-            }
+                project.setTeamName(teamName);
 
-            if (updatedProject != null) {
-                user.setProjects(projects);
-                userRepository.save(user);
+                project.setDueDate(text(projectData.get("dueDate")));
+                project.setUpdatedAt(new Date());
+                ctx.stamp(project);
+                ctx.changed();
 
-                return ResponseEntity.ok(updatedProject);
-            } else {
-                return ResponseEntity.notFound().build();
+                return ResponseEntity.ok(project.copy());
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                searchIndexService.indexProject(userId, (Project) response.getBody());
             }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                 .body(Map.of("error", "Failed to update project: " + e.getMessage()));
@@ -293,29 +491,41 @@ public class ProjectController {
     @DeleteMapping("/projects/{projectId}")
     public ResponseEntity<?> deleteProject(@PathVariable String projectId, @RequestParam String userId) {
         try {
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
+            ResponseEntity<?> response = userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
-                return ResponseEntity.notFound().build();
-            }
+                List<Project> projects = user.getProjects();
+                if (projects == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            boolean removed = projects.removeIf(project -> 
-                projectId.equals(project.get("_id")) || projectId.equals(project.get("id")));
+                boolean removed = projects.removeIf(project -> projectId.equals(project.getId()));
 
-            if (removed) {
-                user.setProjects(projects);
-                userRepository.save(user);
-                return ResponseEntity.ok(Map.of("message", "Project deleted successfully"));
-            } else {
-                return ResponseEntity.notFound().build();
+                if (removed) {
+                    ctx.tombstone("project", projectId, null);
+                    ctx.changed();
+                    return ResponseEntity.ok(Map.of("message", "Project deleted successfully"));
+                } else {
+                    return ResponseEntity.notFound().build();
+                }
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                // Only once the project is saved as gone; it has no tasks left to spill into new buckets
+                taskOverflowService.deleteProject(userId, projectId);
+                searchIndexService.removeProject(userId, projectId);
+                reminderService.cancelProject(userId, projectId);
             }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                 .body(Map.of("error", "Failed to delete project: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
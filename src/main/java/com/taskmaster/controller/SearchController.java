@@ -0,0 +1,61 @@
+package com.taskmaster.controller;
+
+import com.taskmaster.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(required = false) String q,
+                                    @RequestParam(required = false) String userId,
+                                    @RequestParam(required = false) String type,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (userId == null || userId.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
+            }
+            if (q == null || q.isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Query is required"));
+            }
+
+            long start = System.nanoTime();
+            SearchIndexService.Result result = searchIndexService.search(userId, q, type, page, size);
+
+            List<Map<String, Object>> hits = new ArrayList<>();
+            for (SearchIndexService.Hit hit : result.hits) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("type", hit.type);
+                item.put("id", hit.id);
+                item.put("title", hit.title);
+                item.put("snippet", hit.snippet);
+                item.put("projectId", hit.projectId);
+                item.put("projectName", hit.projectName);
+                item.put("score", hit.score);
+                hits.add(item);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("query", q);
+            response.put("total", result.total);
+            response.put("page", page);
+            response.put("size", size);
+            response.put("results", hits);
+            response.put("tookMs", (System.nanoTime() - start) / 1_000_000.0);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Search failed: " + e.getMessage()));
+        }
+    }
+}
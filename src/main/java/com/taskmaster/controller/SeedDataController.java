@@ -1,11 +1,19 @@
 
 package com.taskmaster.controller;
 
+import com.taskmaster.service.SyntheticDataGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 
@@ -14,9 +22,32 @@ import java.time.ZonedDateTime;
 @CrossOrigin(origins = "*")
 public class SeedDataController {
 
+    private static final Logger log = LoggerFactory.getLogger(SeedDataController.class);
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private SyntheticDataGenerator syntheticDataGenerator;
+
+    // Generation runs are long-lived; keep them off the servlet threads
+    private final ExecutorService generationExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "synthetic-generation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void stop() {
+        // Interrupts running generations, which then shut their writer pools down
+        generationExecutor.shutdownNow();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> badGenerationRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
     @PostMapping("/create-dummy-data")
     public ResponseEntity<?> createDummyData(@RequestParam String userId) {
         try {
@@ -40,7 +71,7 @@ public class SeedDataController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to create dummy data", e);
             return ResponseEntity.badRequest().body("Error creating dummy data: " + e.getMessage());
         }
     }
@@ -221,6 +252,75 @@ public class SeedDataController {
         return tasks;
     }
     
+    @PostMapping("/generate")
+    public SseEmitter generate(@RequestParam(defaultValue = "1000") int users,
+                               @RequestParam(defaultValue = "2") int teamsPerUser,
+                               @RequestParam(defaultValue = "5") int membersPerTeam,
+                               @RequestParam(defaultValue = "5") int projectsPerUser,
+                               @RequestParam(defaultValue = "100000") long tasks,
+                               @RequestParam(defaultValue = "1.0") double skew,
+                               @RequestParam(defaultValue = "20000") int maxTasksPerUser,
+                               @RequestParam(defaultValue = "embedded") String shape,
+                               @RequestParam(defaultValue = "1000") int batchSize,
+                               @RequestParam(defaultValue = "0") int parallelism,
+                               @RequestParam(defaultValue = "42") long seed) {
+        SyntheticDataGenerator.Spec spec = new SyntheticDataGenerator.Spec();
+        spec.users = users;
+        spec.teamsPerUser = teamsPerUser;
+        spec.membersPerTeam = membersPerTeam;
+        spec.projectsPerUser = projectsPerUser;
+        spec.tasks = tasks;
+        spec.skew = skew;
+        spec.maxTasksPerUser = maxTasksPerUser;
+        spec.shape = parseShape(shape);
+        spec.batchSize = batchSize;
+        if (parallelism != 0) {
+            spec.parallelism = parallelism;
+        }
+        spec.seed = seed;
+        spec.validate();
+
+        String runId = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        SseEmitter emitter = new SseEmitter(0L);
+
+        generationExecutor.execute(() -> {
+            try {
+                syntheticDataGenerator.generate(runId, spec, progress -> {
+                    try {
+                        emitter.send(SseEmitter.event().name(progress.done ? "done" : "progress").data(progress));
+                    } catch (IOException e) {
+                        // Client went away; keep generating so the run is not left half-written
+                    }
+                });
+                emitter.complete();
+            } catch (Exception e) {
+                log.error("Synthetic data generation failed", e);
+                emitter.completeWithError(e);
+            }
+        });
+
+        return emitter;
+    }
+
+    private static SyntheticDataGenerator.Shape parseShape(String shape) {
+        for (SyntheticDataGenerator.Shape candidate : SyntheticDataGenerator.Shape.values()) {
+            if (candidate.name().equalsIgnoreCase(shape)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("shape must be one of embedded, flat");
+    }
+
+    @DeleteMapping("/generate/{runId}")
+    public ResponseEntity<?> clearGenerated(@PathVariable String runId) {
+        try {
+            syntheticDataGenerator.clear(runId);
+            return ResponseEntity.ok(Map.of("message", "Synthetic run " + runId + " cleared"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error clearing synthetic data: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/clear-all-data")
     public ResponseEntity<?> clearAllData(@RequestParam String userId) {
         try {
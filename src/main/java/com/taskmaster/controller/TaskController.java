@@ -3,11 +3,17 @@ package com.taskmaster.controller;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,17 +26,58 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.TaskStatus;
 import com.taskmaster.model.User;
 import com.taskmaster.repository.UserRepository;
+import com.taskmaster.service.ActivityRollupService;
+import com.taskmaster.service.BoardOrder;
+import com.taskmaster.service.FractionalRank;
+import com.taskmaster.service.ProjectProgressService;
+import com.taskmaster.service.ReminderService;
+import com.taskmaster.service.SearchIndexService;
+import com.taskmaster.service.TaskDependencyService;
+import com.taskmaster.service.TeamAnalyticsService;
+import com.taskmaster.service.UserService;
+import com.taskmaster.service.UserWriteQueue;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class TaskController {
 
+    private static final Logger log = LoggerFactory.getLogger(TaskController.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserWriteQueue userWriteQueue;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private TeamAnalyticsService teamAnalyticsService;
+
+    @Autowired
+    private TaskDependencyService taskDependencyService;
+
+    @Autowired
+    private ProjectProgressService projectProgressService;
+
+    private static final int MAX_BATCH_OPERATIONS = 1000;
+
     @GetMapping("/tasks")
     public ResponseEntity<?> getTasks(@RequestParam(required = false) String userId) {
         try {
@@ -44,16 +91,15 @@ public class TaskController {
             }
 
             // Get tasks from all user projects
-            List<Map<String, Object>> projects = user.getProjects();
-            List<Map<String, Object>> allTasks = new ArrayList<>();
+            List<Project> projects = user.getProjects();
+            List<EmbeddedTask> allTasks = new ArrayList<>();
 
             if (projects != null) {
-                for (Map<String, Object> project : projects) {
-                    List<Map<String, Object>> projectTasks = (List<Map<String, Object>>) project.get("tasks");
-                    if (projectTasks != null) {
-                        for (Map<String, Object> task : projectTasks) {
-                            task.put("projectName", project.get("name"));
-                            task.put("projectId", project.get("_id"));
+                for (Project project : projects) {
+                    if (project.getTasks() != null) {
+                        for (EmbeddedTask task : project.getTasks()) {
+                            task.putExtra("projectName", project.getName());
+                            task.putExtra("projectId", project.getId());
                             allTasks.add(task);
                         }
                     }
@@ -81,207 +127,659 @@ public class TaskController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Project ID is required"));
             }
 
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
+            TaskResult result = userWriteQueue.write(userId, ctx -> ctx.user() == null
+                    ? TaskResult.notFound()
+                    : applyCreate(ctx, new TaskLookup(ctx.user()), userId, taskData));
+            afterWrite(userId, List.of(result));
+            return result.toResponse();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to create task: " + e.getMessage()));
+        }
+    }
+
+    @PutMapping("/tasks/{taskId}")
+    public ResponseEntity<?> updateTask(@PathVariable String taskId, @RequestBody Map<String, Object> taskData) {
+        try {
+            String userId = (String) taskData.get("userId");
+            if (userId == null || userId.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
-            // Find the project and add task to it
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "No projects found"));
-            }
-
-            Map<String, Object> targetProject = null;
-            String teamId = null;
-
-            for (Map<String, Object> project : projects) {
-                if (projectId.equals(project.get("_id"))) {
-                    // Create new task
-                    Map<String, Object> newTask = new HashMap<>();
-                    newTask.put("_id", UUID.randomUUID().toString());
-                    newTask.put("title", taskData.get("title"));
-                    newTask.put("description", taskData.get("description"));
-                    newTask.put("priority", taskData.getOrDefault("priority", "medium"));
-                    newTask.put("status", taskData.getOrDefault("status", "todo"));
-                    newTask.put("assignedTo", taskData.get("assignedTo"));
-                    newTask.put("createdBy", userId);
-                    newTask.put("createdAt", new Date());
-                    newTask.put("dueDate", taskData.get("dueDate"));
-
-                    // Add task to project
-                    List<Map<String, Object>> tasks = (List<Map<String, Object>>) project.get("tasks");
-                    if (tasks == null) {
-                        tasks = new ArrayList<>();
-                        project.put("tasks", tasks);
-                    }
-                    tasks.add(newTask);
+            TaskResult result = userWriteQueue.write(userId, ctx -> ctx.user() == null
+                    ? TaskResult.notFound()
+                    : applyUpdate(ctx, new TaskLookup(ctx.user()), taskId, taskData));
+            afterWrite(userId, List.of(result));
+            return result.toResponse();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to update task: " + e.getMessage()));
+        }
+    }
 
-                    targetProject = project;
-                    teamId = (String) project.get("teamId");
+    @DeleteMapping("/tasks/{taskId}")
+    public ResponseEntity<?> deleteTask(@PathVariable String taskId, @RequestParam String userId) {
+        try {
+            TaskResult result = userWriteQueue.write(userId, ctx -> ctx.user() == null
+                    ? TaskResult.notFound()
+                    : applyDelete(ctx, new TaskLookup(ctx.user()), taskId));
+            afterWrite(userId, List.of(result));
+            return result.toResponse();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to delete task: " + e.getMessage()));
+        }
+    }
 
-                    user.setProjects(projects);
-                    userRepository.save(user);
+    /**
+     * Moves a task on the project board: into the column for {@code status}
+     * (default: its current one), between {@code afterTaskId} (the task that
+     * ends up above it) and {@code beforeTaskId} (below it). Giving one of
+     * them is enough; giving neither puts it at the bottom of the column.
+     * Only the moved task gets a new rank, so the write is the same size
+     * however long the column is.
+     *
+     * Body: {@code {"userId": ..., "status": "review", "afterTaskId": ..., "beforeTaskId": ...}}
+     */
+    @PostMapping("/tasks/{taskId}/move")
+    public ResponseEntity<?> moveTask(@PathVariable String taskId, @RequestBody Map<String, Object> moveData) {
+        try {
+            String userId = (String) moveData.get("userId");
+            if (userId == null || userId.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
+            }
 
-                    // Sync task with team members if project belongs to a team
-                    if (teamId != null && !teamId.isEmpty()) {
-                        syncTaskWithTeamMembers(teamId, projectId, newTask);
-                    }
+            TaskResult result = userWriteQueue.write(userId, ctx -> ctx.user() == null
+                    ? TaskResult.notFound()
+                    : applyMove(ctx, new TaskLookup(ctx.user()), taskId, moveData));
+            afterWrite(userId, List.of(result));
+            return result.toResponse();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to move task: " + e.getMessage()));
+        }
+    }
 
-                    // Add project info to task for response
-                    newTask.put("projectName", project.get("name"));
-                    newTask.put("projectId", projectId);
+    /**
+     * Makes a task depend on another task of the same project. Rejected with
+     * 409 and the existing chain of tasks when the dependency would close a
+     * cycle.
+     *
+     * Body: {@code {"userId": ..., "dependsOn": <taskId>}}
+     */
+    @PostMapping("/tasks/{taskId}/dependencies")
+    public ResponseEntity<?> addDependency(@PathVariable String taskId, @RequestBody Map<String, Object> dependencyData) {
+        try {
+            String userId = (String) dependencyData.get("userId");
+            String dependsOn = text(dependencyData.get("dependsOn"));
+            if (userId == null || userId.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
+            }
+            if (dependsOn == null || dependsOn.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "dependsOn is required"));
+            }
 
-                    return ResponseEntity.ok(newTask);
+            return userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
+                }
+                TaskLookup lookup = new TaskLookup(user);
+                Project project = lookup.projectByTaskId.get(taskId);
+                EmbeddedTask task = project != null ? project.findTask(taskId) : null;
+                if (task == null) {
+                    return ResponseEntity.notFound().build();
+                }
+                EmbeddedTask prerequisite = project.findTask(dependsOn);
+                if (prerequisite == null) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("error", "Dependencies must be on another task of the same project"));
                 }
-            }
 
-            return ResponseEntity.badRequest().body(Map.of("error", "Project not found"));
+                long revisionBefore = TaskDependencyService.revision(user);
+                TaskDependencyService.EdgeResult result =
+                        taskDependencyService.addDependency(user, revisionBefore, project, task, prerequisite);
+                if (result.cycle != null) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                            "error", "Dependency would create a cycle",
+                            "cycle", result.cycle));
+                }
+                task.setUpdatedAt(new Date());
+                ctx.stamp(task);
+                ctx.changed();
+                taskDependencyService.written(user);
+                return ResponseEntity.ok(task.copy());
+            });
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to create task: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to add dependency: " + e.getMessage()));
         }
     }
 
-    private void syncTaskWithTeamMembers(String teamId, String projectId, Map<String, Object> task) {
+    @DeleteMapping("/tasks/{taskId}/dependencies/{dependsOn}")
+    public ResponseEntity<?> removeDependency(@PathVariable String taskId, @PathVariable String dependsOn,
+                                              @RequestParam String userId) {
         try {
-            // Find all users who are members of this team
-            List<User> allUsers = userRepository.findAll();
-
-            for (User user : allUsers) {
-                List<Map<String, Object>> userTeams = user.getTeams();
-                if (userTeams != null) {
-                    boolean isMember = userTeams.stream()
-                            .anyMatch(team -> teamId.equals(team.get("_id")) || teamId.equals(team.get("id")));
-
-                    if (isMember) {
-                        List<Map<String, Object>> userProjects = user.getProjects();
-                        if (userProjects != null) {
-                            for (Map<String, Object> project : userProjects) {
-                                if (projectId.equals(project.get("_id"))) {
-                                    @SuppressWarnings("unchecked")
-                                    List<Map<String, Object>> tasks = (List<Map<String, Object>>) project.get("tasks");
-                                    if (tasks == null) {
-                                        tasks = new ArrayList<>();
-                                        project.put("tasks", tasks);
-                                    }
-
-                                    // Check if task already exists
-                                    String taskId = (String) task.get("_id");
-                                    boolean taskExists = tasks.stream()
-                                            .anyMatch(t -> taskId.equals(t.get("_id")));
-
-                                    if (!taskExists) {
-                                        Map<String, Object> taskCopy = new HashMap<>();
-                                        taskCopy.putAll(task);
-                                        tasks.add(taskCopy);
-                                        user.setProjects(userProjects);
-                                        userRepository.save(user);
-                                    }
-                                    break;
-                                }
-                            }
-                        }
-                    }
+            return userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
                 }
-            }
+                Project project = new TaskLookup(user).projectByTaskId.get(taskId);
+                EmbeddedTask task = project != null ? project.findTask(taskId) : null;
+                if (task == null) {
+                    return ResponseEntity.notFound().build();
+                }
+
+                long revisionBefore = TaskDependencyService.revision(user);
+                if (!taskDependencyService.removeDependency(user, revisionBefore, project, task, dependsOn)) {
+                    return ResponseEntity.notFound().build();
+                }
+                task.setUpdatedAt(new Date());
+                ctx.stamp(task);
+                ctx.changed();
+                taskDependencyService.written(user);
+                return ResponseEntity.ok(task.copy());
+            });
         } catch (Exception e) {
-            // Log error but don't fail the main operation
-            System.err.println("Error syncing task with team members: " + e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to remove dependency: " + e.getMessage()));
         }
     }
 
-    @PutMapping("/tasks/{taskId}")
-    public ResponseEntity<?> updateTask(@PathVariable String taskId, @RequestBody Map<String, Object> taskData) {
+    /**
+     * Applies a list of create, update and delete operations for one user in
+     * a single load and save of their document. Operations run in order and
+     * independently: a failing item is reported in its result and does not
+     * undo the others.
+     *
+     * Body: {@code {"userId": ..., "operations": [{"op": "create", "projectId": ..., "title": ...},
+     * {"op": "update", "taskId": ..., "status": "done"}, {"op": "delete", "taskId": ...}]}}
+     */
+    @PostMapping("/tasks/batch")
+    public ResponseEntity<?> batchTasks(@RequestBody Map<String, Object> batchData) {
         try {
-            String userId = (String) taskData.get("userId");
+            String userId = (String) batchData.get("userId");
             if (userId == null || userId.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
+            Object operationList = batchData.get("operations");
+            if (!(operationList instanceof List) || ((List<?>) operationList).isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Operations are required"));
+            }
+            List<?> operations = (List<?>) operationList;
+            if (operations.size() > MAX_BATCH_OPERATIONS) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "At most " + MAX_BATCH_OPERATIONS + " operations per batch"));
             }
 
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects == null) {
+            List<TaskResult> results = userWriteQueue.write(userId, ctx -> {
+                if (ctx.user() == null) {
+                    return null;
+                }
+                TaskLookup lookup = new TaskLookup(ctx.user());
+                List<TaskResult> applied = new ArrayList<>();
+                for (Object operation : operations) {
+                    applied.add(applyOperation(ctx, lookup, userId, operation));
+                }
+                return applied;
+            });
+            if (results == null) {
                 return ResponseEntity.notFound().build();
             }
+            afterWrite(userId, results);
+
+            List<Map<String, Object>> items = new ArrayList<>();
+            int succeeded = 0;
+            for (int i = 0; i < results.size(); i++) {
+                TaskResult result = results.get(i);
+                Map<String, Object> item = new HashMap<>();
+                item.put("index", i);
+                item.put("op", result.op);
+                item.put("status", result.status.value());
+                item.put("taskId", result.taskId);
+                if (result.task != null) {
+                    item.put("task", result.task);
+                }
+                if (result.error != null) {
+                    item.put("error", result.error);
+                }
+                if (result.status.is2xxSuccessful()) {
+                    succeeded++;
+                }
+                items.add(item);
+            }
 
-            // Find task in projects and update it
-            for (Map<String, Object> project : projects) {
-                List<Map<String, Object>> tasks = (List<Map<String, Object>>) project.get("tasks");
-                if (tasks != null) {
-                    for (Map<String, Object> task : tasks) {
-                        if (taskId.equals(task.get("_id"))) {
-                            // Only update fields that are provided, preserve existing ones
-                            if (taskData.containsKey("title")) {
-                                task.put("title", taskData.get("title"));
-                            }
-                            if (taskData.containsKey("description")) {
-                                task.put("description", taskData.get("description"));
-                            }
-                            if (taskData.containsKey("priority")) {
-                                task.put("priority", taskData.get("priority"));
-                            }
-                            if (taskData.containsKey("status")) {
-                                task.put("status", taskData.get("status"));
-                            }
-                            if (taskData.containsKey("assignedTo")) {
-                                task.put("assignedTo", taskData.get("assignedTo"));
-                            }
-                            if (taskData.containsKey("dueDate")) {
-                                task.put("dueDate", taskData.get("dueDate"));
-                            }
-                            task.put("updatedAt", new Date());
+            Map<String, Object> response = new HashMap<>();
+            response.put("succeeded", succeeded);
+            response.put("failed", results.size() - succeeded);
+            response.put("results", items);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to apply task batch: " + e.getMessage()));
+        }
+    }
 
-                            user.setProjects(projects);
-                            userRepository.save(user);
+    private TaskResult applyOperation(UserWriteQueue.UserWriteContext ctx, TaskLookup lookup, String userId, Object operation) {
+        if (!(operation instanceof Map)) {
+            return TaskResult.error(null, null, HttpStatus.BAD_REQUEST, "Operation must be an object");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) operation;
+        String op = data.get("op") != null ? data.get("op").toString() : null;
+        String taskId = (String) data.get("taskId");
+        try {
+            if ("create".equals(op)) {
+                String projectId = (String) data.get("projectId");
+                if (projectId == null || projectId.isEmpty()) {
+                    return TaskResult.error(op, null, HttpStatus.BAD_REQUEST, "Project ID is required");
+                }
+                return applyCreate(ctx, lookup, userId, data);
+            }
+            if (!"update".equals(op) && !"delete".equals(op)) {
+                return TaskResult.error(op, taskId, HttpStatus.BAD_REQUEST, "Unknown operation: " + op);
+            }
+            if (taskId == null || taskId.isEmpty()) {
+                return TaskResult.error(op, null, HttpStatus.BAD_REQUEST, "Task ID is required");
+            }
+            return "update".equals(op) ? applyUpdate(ctx, lookup, taskId, data) : applyDelete(ctx, lookup, taskId);
+        } catch (Exception e) {
+            return TaskResult.error(op, taskId, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
 
-                            return ResponseEntity.ok(task);
-                        }
-                    }
+    private TaskResult applyCreate(UserWriteQueue.UserWriteContext ctx, TaskLookup lookup, String userId, Map<String, Object> taskData) {
+        if (!lookup.hasProjects) {
+            return TaskResult.error("create", null, HttpStatus.BAD_REQUEST, "No projects found");
+        }
+        Project project = lookup.projectsById.get((String) taskData.get("projectId"));
+        if (project == null) {
+            return TaskResult.error("create", null, HttpStatus.BAD_REQUEST, "Project not found");
+        }
+
+        long revisionBefore = TaskDependencyService.revision(ctx.user());
+
+        // Create new task
+        EmbeddedTask newTask = new EmbeddedTask();
+        newTask.setId(UUID.randomUUID().toString());
+        newTask.setTitle(text(taskData.get("title")));
+        newTask.setDescription(text(taskData.get("description")));
+        newTask.setPriorityLabel(text(taskData.getOrDefault("priority", "medium")));
+        newTask.setStatusLabel(text(taskData.getOrDefault("status", "todo")));
+        newTask.setAssignedTo(text(taskData.get("assignedTo")));
+        newTask.setCreatedBy(userId);
+        newTask.setCreatedAt(new Date());
+        newTask.setDueDate(text(taskData.get("dueDate")));
+        newTask.setRank(BoardOrder.rankAtEnd(project, BoardOrder.column(newTask), null));
+
+        // Add task to project
+        if (project.getTasks() == null) {
+            project.setTasks(new ArrayList<>());
+        }
+        ctx.stamp(newTask);
+        project.getTasks().add(newTask);
+        lookup.projectByTaskId.put(newTask.getId(), project);
+        projectProgressService.taskChanged(ctx, project, null, newTask);
+        ctx.changed();
+        taskDependencyService.taskChanged(ctx.user(), revisionBefore, project, newTask);
+
+        // Add project info to task for response
+        EmbeddedTask responseTask = newTask.copy();
+        responseTask.putExtra("projectName", project.getName());
+        responseTask.putExtra("projectId", project.getId());
+
+        TaskResult result = TaskResult.ok("create", newTask.getId(), responseTask);
+        result.created = newTask.copy();
+        result.project = project;
+        result.dueChanged = newTask.getDueDate() != null;
+        result.completed = newTask.getStatus() != null && newTask.getStatus().isDone();
+        return result;
+    }
+
+    private TaskResult applyUpdate(UserWriteQueue.UserWriteContext ctx, TaskLookup lookup, String taskId, Map<String, Object> taskData) {
+        Project project = lookup.projectByTaskId.get(taskId);
+        EmbeddedTask task = project != null ? project.findTask(taskId) : null;
+        if (task == null) {
+            return TaskResult.error("update", taskId, HttpStatus.NOT_FOUND, null);
+        }
+
+        long revisionBefore = TaskDependencyService.revision(ctx.user());
+        boolean wasDone = task.getStatus() != null && task.getStatus().isDone();
+        Date lastUpdated = task.getUpdatedAt();
+        ProjectProgressService.Contribution before = ProjectProgressService.contribution(task);
+
+        // Only update fields that are provided, preserve existing ones
+        if (taskData.containsKey("title")) {
+            task.setTitle(text(taskData.get("title")));
+        }
+        if (taskData.containsKey("description")) {
+            task.setDescription(text(taskData.get("description")));
+        }
+        if (taskData.containsKey("priority")) {
+            task.setPriorityLabel(text(taskData.get("priority")));
+        }
+        if (taskData.containsKey("status")) {
+            TaskStatus column = BoardOrder.column(task);
+            task.setStatusLabel(text(taskData.get("status")));
+            // A task that changes column joins the bottom of its new one
+            if (BoardOrder.column(task) != column) {
+                task.setRank(BoardOrder.rankAtEnd(project, BoardOrder.column(task), task));
+            }
+        }
+        if (taskData.containsKey("assignedTo")) {
+            task.setAssignedTo(text(taskData.get("assignedTo")));
+        }
+        if (taskData.containsKey("dueDate")) {
+            task.setDueDate(text(taskData.get("dueDate")));
+        }
+        task.setUpdatedAt(new Date());
+        ctx.stamp(task);
+        projectProgressService.taskChanged(ctx, project, before, task);
+        ctx.changed();
+        taskDependencyService.taskChanged(ctx.user(), revisionBefore, project, task);
+
+        TaskResult result = TaskResult.ok("update", taskId, task.copy());
+        result.project = project;
+        result.dueChanged = taskData.containsKey("dueDate") || taskData.containsKey("status");
+        result.completed = !wasDone && task.getStatus() != null && task.getStatus().isDone();
+        result.reopened = wasDone && !result.completed && (task.getStatus() == null || !task.getStatus().isDone());
+        result.completedAt = wasDone ? lastUpdated : null;
+        return result;
+    }
+
+    private TaskResult applyMove(UserWriteQueue.UserWriteContext ctx, TaskLookup lookup, String taskId, Map<String, Object> moveData) {
+        Project project = lookup.projectByTaskId.get(taskId);
+        EmbeddedTask task = project != null ? project.findTask(taskId) : null;
+        if (task == null) {
+            return TaskResult.error("move", taskId, HttpStatus.NOT_FOUND, null);
+        }
+
+        TaskStatus column = BoardOrder.column(task);
+        if (moveData.get("status") != null) {
+            column = TaskStatus.parse(text(moveData.get("status")));
+            if (column == null) {
+                return TaskResult.error("move", taskId, HttpStatus.BAD_REQUEST, "Unknown status: " + moveData.get("status"));
+            }
+        }
+
+        String afterTaskId = text(moveData.get("afterTaskId"));
+        String beforeTaskId = text(moveData.get("beforeTaskId"));
+        EmbeddedTask above = afterTaskId != null ? project.findTask(afterTaskId) : null;
+        EmbeddedTask below = beforeTaskId != null ? project.findTask(beforeTaskId) : null;
+        if ((afterTaskId != null && !isNeighbour(above, task, column))
+                || (beforeTaskId != null && !isNeighbour(below, task, column))) {
+            return TaskResult.error("move", taskId, HttpStatus.BAD_REQUEST,
+                    "Neighbouring tasks must be other tasks in the target column of the same project");
+        }
+        if (above != null && below == null) {
+            below = BoardOrder.adjacent(project, column, above, task, true);
+        } else if (below != null && above == null) {
+            above = BoardOrder.adjacent(project, column, below, task, false);
+        }
+
+        long revisionBefore = TaskDependencyService.revision(ctx.user());
+        String rank;
+        if (above == null && below == null) {
+            rank = BoardOrder.rankAtEnd(project, column, task);
+        } else {
+            if ((above != null && above.getRank() == null) || (below != null && below.getRank() == null)) {
+                // Tasks from before the board kept an order are ranked once, on first use
+                for (EmbeddedTask ranked : BoardOrder.rankUnranked(project, column)) {
+                    ctx.stamp(ranked);
                 }
             }
+            try {
+                rank = above == null ? FractionalRank.before(below.getRank())
+                        : below == null ? FractionalRank.after(above.getRank())
+                        : FractionalRank.between(above.getRank(), below.getRank());
+            } catch (IllegalArgumentException e) {
+                return TaskResult.error("move", taskId, HttpStatus.CONFLICT,
+                        "The board has changed since it was loaded; reload it and try again");
+            }
+        }
 
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to update task: " + e.getMessage()));
+        boolean wasDone = task.getStatus() != null && task.getStatus().isDone();
+        Date lastUpdated = task.getUpdatedAt();
+        ProjectProgressService.Contribution before = ProjectProgressService.contribution(task);
+        boolean columnChanged = column != BoardOrder.column(task);
+        if (columnChanged) {
+            task.setStatus(column);
         }
+        task.setRank(rank);
+        task.setUpdatedAt(new Date());
+        ctx.stamp(task);
+        projectProgressService.taskChanged(ctx, project, before, task);
+        ctx.changed();
+        taskDependencyService.taskChanged(ctx.user(), revisionBefore, project, task);
+
+        TaskResult result = TaskResult.ok("move", taskId, task.copy());
+        result.project = project;
+        result.dueChanged = columnChanged;
+        result.completed = !wasDone && column.isDone();
+        result.reopened = wasDone && !column.isDone();
+        result.completedAt = wasDone ? lastUpdated : null;
+        return result;
     }
 
-    @DeleteMapping("/tasks/{taskId}")
-    public ResponseEntity<?> deleteTask(@PathVariable String taskId, @RequestParam String userId) {
+    private static boolean isNeighbour(EmbeddedTask neighbour, EmbeddedTask task, TaskStatus column) {
+        return neighbour != null && neighbour != task && BoardOrder.column(neighbour) == column;
+    }
+
+    private TaskResult applyDelete(UserWriteQueue.UserWriteContext ctx, TaskLookup lookup, String taskId) {
+        Project project = lookup.projectByTaskId.remove(taskId);
+        if (project == null) {
+            return TaskResult.error("delete", taskId, HttpStatus.NOT_FOUND, null);
+        }
+
+        long revisionBefore = TaskDependencyService.revision(ctx.user());
+
+        // Find and remove task from its project
+        EmbeddedTask removed = project.findTask(taskId);
+        project.getTasks().removeIf(task -> taskId.equals(task.getId()));
+        if (removed != null) {
+            projectProgressService.taskChanged(ctx, project, ProjectProgressService.contribution(removed), null);
+        }
+        ctx.tombstone("task", taskId, project.getId());
+        // Tasks that depended on it no longer do
+        for (EmbeddedTask task : project.getTasks()) {
+            if (task.getDependsOn() != null && task.getDependsOn().remove(taskId)) {
+                if (task.getDependsOn().isEmpty()) {
+                    task.setDependsOn(null);
+                }
+                ctx.stamp(task);
+            }
+        }
+        ctx.changed();
+        taskDependencyService.taskRemoved(ctx.user(), revisionBefore, project, taskId);
+
+        TaskResult result = TaskResult.ok("delete", taskId, null);
+        result.message = "Task deleted successfully";
+        return result;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Follow-up work once a write has been saved: keep the search index,
+     * due-date reminders, activity counters and team analytics in step and
+     * copy new team-project tasks to the other members, one pass per team
+     * however many tasks the write created.
+     */
+    private void afterWrite(String userId, List<TaskResult> results) {
+        Map<String, Map<String, List<EmbeddedTask>>> createdByTeam = new LinkedHashMap<>();
+        ActivityRollupService.Tally activity = new ActivityRollupService.Tally();
+        TeamAnalyticsService.Events teamEvents = new TeamAnalyticsService.Events();
+        for (TaskResult result : results) {
+            if (!result.status.is2xxSuccessful()) {
+                continue;
+            }
+            String teamId = result.project != null ? result.project.getTeamId() : null;
+            if ("create".equals(result.op)) {
+                activity.add(userId, teamId, ActivityRollupService.TASKS_CREATED);
+                teamEvents.created(teamId, result.task);
+            }
+            if (result.completed) {
+                activity.add(userId, teamId, ActivityRollupService.TASKS_COMPLETED);
+                teamEvents.completed(teamId, result.task);
+            }
+            if (result.reopened) {
+                teamEvents.reopened(teamId, result.task, result.completedAt);
+            }
+            if ("delete".equals(result.op)) {
+                searchIndexService.removeTask(userId, result.taskId);
+                reminderService.cancel(userId, result.taskId);
+            } else {
+                searchIndexService.indexTask(userId, result.task, result.project);
+                if (result.dueChanged) {
+                    reminderService.track(userId, result.project.getId(), result.task);
+                }
+            }
+            if (result.created != null && teamId != null && !teamId.isEmpty()) {
+                createdByTeam.computeIfAbsent(teamId, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(result.project.getId(), k -> new ArrayList<>())
+                        .add(result.created);
+            }
+        }
+        activityRollupService.record(activity);
+        teamAnalyticsService.record(teamEvents);
+        createdByTeam.forEach((teamId, tasksByProject) -> syncTasksWithTeamMembers(teamId, tasksByProject, userId));
+    }
+
+    private void syncTasksWithTeamMembers(String teamId, Map<String, List<EmbeddedTask>> tasksByProject, String creatorId) {
         try {
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
+            for (String memberId : userService.findTeamMemberIds(teamId)) {
+                if (memberId.equals(creatorId)) {
+                    continue;
+                }
+
+                // Re-check against the member's latest document inside their write lane
+                userWriteQueue.submit(memberId, ctx -> {
+                    User user = ctx.user();
+                    List<Project> userProjects = user != null ? user.getProjects() : null;
+                    if (userProjects == null) {
+                        return null;
+                    }
+                    for (Project project : userProjects) {
+                        List<EmbeddedTask> newTasks = tasksByProject.get(project.getId());
+                        if (newTasks == null) {
+                            continue;
+                        }
+                        if (project.getTasks() == null) {
+                            project.setTasks(new ArrayList<>());
+                        }
+
+                        // Skip tasks the member already has
+                        Set<String> existing = new HashSet<>();
+                        for (EmbeddedTask task : project.getTasks()) {
+                            existing.add(task.getId());
+                        }
+                        for (EmbeddedTask task : newTasks) {
+                            if (!existing.contains(task.getId())) {
+                                EmbeddedTask copy = task.copy();
+                                ctx.stamp(copy);
+                                project.getTasks().add(copy);
+                                projectProgressService.taskChanged(ctx, project, null, copy);
+                                ctx.changed();
+                            }
+                        }
+                    }
+                    return null;
+                }).thenRun(() -> searchIndexService.invalidate(memberId))
+                .exceptionally(e -> {
+                    log.warn("Failed to sync task with team member {}: {}", memberId, e.getMessage());
+                    return null;
+                });
             }
+        } catch (Exception e) {
+            // Log error but don't fail the main operation
+            log.warn("Failed to sync task with team members: {}", e.getMessage());
+        }
+    }
 
-            List<Map<String, Object>> projects = user.getProjects();
+    /**
+     * Projects and tasks of one user document keyed by id, built once per
+     * write so a batch doesn't rescan every project for every operation.
+     */
+    private static class TaskLookup {
+        final boolean hasProjects;
+        final Map<String, Project> projectsById = new HashMap<>();
+        final Map<String, Project> projectByTaskId = new HashMap<>();
+
+        TaskLookup(User user) {
+            List<Project> projects = user.getProjects();
+            hasProjects = projects != null;
             if (projects == null) {
-                return ResponseEntity.notFound().build();
+                return;
             }
-
-            // Find and remove task from projects
-            for (Map<String, Object> project : projects) {
-                List<Map<String, Object>> tasks = (List<Map<String, Object>>) project.get("tasks");
-                if (tasks != null) {
-                    boolean removed = tasks.removeIf(task -> taskId.equals(task.get("_id")));
-                    if (removed) {
-                        user.setProjects(projects);
-                        userRepository.save(user);
-                        return ResponseEntity.ok(Map.of("message", "Task deleted successfully"));
+            for (Project project : projects) {
+                if (project.getId() != null) {
+                    projectsById.putIfAbsent(project.getId(), project);
+                }
+                if (project.getTasks() != null) {
+                    for (EmbeddedTask task : project.getTasks()) {
+                        if (task.getId() != null) {
+                            projectByTaskId.putIfAbsent(task.getId(), project);
+                        }
                     }
                 }
             }
+        }
+    }
 
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to delete task: " + e.getMessage()));
+    /**
+     * Outcome of one task operation, carrying what the follow-up work after
+     * the save needs.
+     */
+    private static class TaskResult {
+        final String op;
+        final String taskId;
+        final HttpStatus status;
+        final EmbeddedTask task;
+        final String error;
+        String message;
+        EmbeddedTask created;
+        Project project;
+        boolean dueChanged;
+        boolean completed;
+        boolean reopened;
+        // When a reopened task had been completed, as far as its last update tells
+        Date completedAt;
+
+        private TaskResult(String op, String taskId, HttpStatus status, EmbeddedTask task, String error) {
+            this.op = op;
+            this.taskId = taskId;
+            this.status = status;
+            this.task = task;
+            this.error = error;
+        }
+
+        static TaskResult ok(String op, String taskId, EmbeddedTask task) {
+            return new TaskResult(op, taskId, HttpStatus.OK, task, null);
+        }
+
+        static TaskResult error(String op, String taskId, HttpStatus status, String error) {
+            return new TaskResult(op, taskId, status, null, error);
+        }
+
+        static TaskResult notFound() {
+            return error(null, null, HttpStatus.NOT_FOUND, null);
+        }
+
+        ResponseEntity<?> toResponse() {
+            if (task != null) {
+                return ResponseEntity.status(status).body(task);
+            }
+            if (message != null) {
+                return ResponseEntity.status(status).body(Map.of("message", message));
+            }
+            if (error != null) {
+                return ResponseEntity.status(status).body(Map.of("error", error));
+            }
+            return ResponseEntity.status(status).build();
         }
     }
 }
@@ -8,10 +8,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import org.bson.RawBsonDocument;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,8 +31,17 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.taskmaster.config.MongoConfig;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Member;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.Team;
 import com.taskmaster.model.User;
 import com.taskmaster.repository.UserRepository;
+import com.taskmaster.service.RawUserDocumentService;
+import com.taskmaster.service.SearchIndexService;
+import com.taskmaster.service.UserService;
+import com.taskmaster.service.UserWriteQueue;
 
 @RestController
 @RequestMapping("/api")
@@ -35,6 +51,22 @@ public class TeamController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserWriteQueue userWriteQueue;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RawUserDocumentService rawUserDocumentService;
+
+    @Autowired
+    @Qualifier(MongoConfig.SECONDARY_READS)
+    private MongoTemplate secondaryMongoTemplate;
+
     @GetMapping("/teams")
     public ResponseEntity<?> getTeams(@RequestParam(required = false) String userId) {
         try {
@@ -43,18 +75,18 @@ public class TeamController {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Map<String, Object>> teams = user.getTeams();
+            List<Team> teams = user.getTeams();
             if (teams == null) {
                 return ResponseEntity.ok(Collections.emptyList());
             }
 
             // For each team, attach the owner info
-            List<Map<String, Object>> teamsWithOwner = new ArrayList<>();
-            for (Map<String, Object> team : teams) {
-                Map<String, Object> teamCopy = new HashMap<>(team);
+            List<Team> teamsWithOwner = new ArrayList<>();
+            for (Team team : teams) {
+                Team teamCopy = team.copy();
 
                 // Find the owner user by ownerId
-                String ownerId = (String) team.get("ownerId");
+                String ownerId = (String) team.getExtras().get("ownerId");
                 if (ownerId == null) {
                     // fallback: use the current user as owner
                     ownerId = user.getUserId();
@@ -66,10 +98,10 @@ public class TeamController {
                     ownerInfo.put("firstName", ownerUserdata != null ? ownerUserdata.getOrDefault("firstName", "") : "");
                     ownerInfo.put("lastName", ownerUserdata != null ? ownerUserdata.getOrDefault("lastName", "") : "");
                     ownerInfo.put("email", owner.getEmail());
-                    teamCopy.put("owner", ownerInfo);
+                    teamCopy.putExtra("owner", ownerInfo);
                 } else {
                     // fallback: just put ownerId
-                    teamCopy.put("owner", Map.of("firstName", "", "lastName", "", "email", "", "ownerId", ownerId));
+                    teamCopy.putExtra("owner", Map.of("firstName", "", "lastName", "", "email", "", "ownerId", ownerId));
                 }
 
                 teamsWithOwner.add(teamCopy);
@@ -90,35 +122,37 @@ public class TeamController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
+            ResponseEntity<?> response = userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            // Create new team
-            Map<String, Object> newTeam = new HashMap<>();
-            newTeam.put("_id", UUID.randomUUID().toString());
-            newTeam.put("name", teamData.get("name"));
-            newTeam.put("description", teamData.get("description"));
-            newTeam.put("createdBy", userId);
-            newTeam.put("createdAt", new Date());
-            newTeam.put("members", Arrays.asList(Map.of(
-                    "userId", userId,
-                    "role", "owner",
-                    "joinedAt", new Date()
-            )));
-
-            // Add team to user's teams list
-            List<Map<String, Object>> teams = user.getTeams();
-            if (teams == null) {
-                teams = new ArrayList<>();
-            }
-            teams.add(newTeam);
-            user.setTeams(teams);
+                // Create new team
+                Team newTeam = new Team();
+                newTeam.setId(UUID.randomUUID().toString());
+                newTeam.setName(text(teamData.get("name")));
+                newTeam.setDescription(text(teamData.get("description")));
+                newTeam.setCreatedBy(userId);
+                newTeam.setCreatedAt(new Date());
+                newTeam.setMembers(new ArrayList<>(List.of(new Member(userId, "owner", new Date()))));
 
-            userRepository.save(user);
+                // Add team to user's teams list
+                List<Team> teams = user.getTeams();
+                if (teams == null) {
+                    teams = new ArrayList<>();
+                }
+                ctx.stamp(newTeam);
+                teams.add(newTeam);
+                user.setTeams(teams);
+                ctx.changed();
 
-            return ResponseEntity.ok(newTeam);
+                return ResponseEntity.ok(newTeam.copy());
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                searchIndexService.indexTeam(userId, (Team) response.getBody());
+            }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to create team: " + e.getMessage()));
@@ -126,24 +160,20 @@ public class TeamController {
     }
 
     @GetMapping("/teams/{teamId}")
-    public ResponseEntity<?> getTeam(@PathVariable String teamId, @RequestParam String userId) {
+    public ResponseEntity<?> getTeam(@PathVariable String teamId, @RequestParam String userId,
+                                     @RequestParam(required = false) String fields) {
         try {
-            User user = userRepository.findByUserId(userId);
+            // Read-only: stream the stored team straight from BSON
+            RawBsonDocument user = rawUserDocumentService.find(userId, "teams");
             if (user == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Map<String, Object>> teams = user.getTeams();
-            if (teams == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Optional<Map<String, Object>> team = teams.stream()
-                    .filter(t -> teamId.equals(t.get("_id")))
-                    .findFirst();
-
-            if (team.isPresent()) {
-                return ResponseEntity.ok(team.get());
+            RawBsonDocument team = RawUserDocumentService.findEntity(user, "teams", teamId);
+            if (team != null) {
+                Set<String> teamFields = RawUserDocumentService.fields(fields);
+                return rawUserDocumentService.stream(json -> rawUserDocumentService.copyEntity(
+                        RawUserDocumentService.BsonSource.of(team), json, teamFields, null));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -161,69 +191,51 @@ public class TeamController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
             }
 
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            List<Map<String, Object>> teams = user.getTeams();
-            if (teams == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Map<String, Object> updatedTeam = null;
-            for (Map<String, Object> team : teams) {
-                if (teamId.equals(team.get("_id")) || teamId.equals(team.get("id"))) {
-                    team.put("name", teamData.get("name"));
-                    team.put("description", teamData.get("description"));
-                    team.put("updatedAt", new Date());
-                    updatedTeam = team;
-                    break;
+            ResponseEntity<?> response = userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
                 }
-            }
-
-            if (updatedTeam == null) {
-                return ResponseEntity.notFound().build();
-            }
 
-            // Update all projects that reference this team
-            List<Map<String, Object>> projects = user.getProjects();
-            if (projects != null) {
-                boolean projectsUpdated = false;
-                for (Map<String, Object> project : projects) {
-                    String projectTeamId = (String) project.get("teamId");
-                    if (teamId.equals(projectTeamId)) {
-                        project.put("teamName", teamData.get("name"));
-                        project.put("updatedAt", new Date());
-                        projectsUpdated = true;
-                    }
+                Team updatedTeam = user.findTeam(teamId);
+                if (updatedTeam == null) {
+                    return ResponseEntity.notFound().build();
                 }
-                if (projectsUpdated) {
-                    user.setProjects(projects);
+                updatedTeam.setName(text(teamData.get("name")));
+                updatedTeam.setDescription(text(teamData.get("description")));
+                updatedTeam.setUpdatedAt(new Date());
+                ctx.stamp(updatedTeam);
+
+                // Update all projects that reference this team
+                List<Project> projects = user.getProjects();
+                if (projects != null) {
+                    for (Project project : projects) {
+                        if (teamId.equals(project.getTeamId())) {
+                            project.setTeamName(text(teamData.get("name")));
+                            project.setUpdatedAt(new Date());
+                            ctx.stamp(project);
+                        }
+                    }
                 }
-            }
 
-            // Also update tasks that might reference this team through projects
-            List<Map<String, Object>> tasks = user.getTasks();
-            if (tasks != null) {
-                boolean tasksUpdated = false;
-                for (Map<String, Object> task : tasks) {
-                    String taskTeamId = (String) task.get("teamId");
-                    if (teamId.equals(taskTeamId)) {
-                        task.put("teamName", teamData.get("name"));
-                        task.put("updatedAt", new Date());
-                        tasksUpdated = true;
+                // Also update tasks that might reference this team through projects
+                List<EmbeddedTask> tasks = user.getTasks();
+                if (tasks != null) {
+                    for (EmbeddedTask task : tasks) {
+                        if (teamId.equals(task.getExtras().get("teamId"))) {
+                            task.putExtra("teamName", teamData.get("name"));
+                            task.setUpdatedAt(new Date());
+                        }
                     }
                 }
-                if (tasksUpdated) {
-                    user.setTasks(tasks);
-                }
-            }
-
-            user.setTeams(teams);
-            userRepository.save(user);
 
-            return ResponseEntity.ok(updatedTeam);
+                ctx.changed();
+                return ResponseEntity.ok(updatedTeam.copy());
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                searchIndexService.indexTeam(userId, (Team) response.getBody());
+            }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to update team: " + e.getMessage()));
@@ -233,26 +245,31 @@ public class TeamController {
     @DeleteMapping("/teams/{teamId}")
     public ResponseEntity<?> deleteTeam(@PathVariable String teamId, @RequestParam String userId) {
         try {
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
+            ResponseEntity<?> response = userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            List<Map<String, Object>> teams = user.getTeams();
-            if (teams == null) {
-                return ResponseEntity.notFound().build();
-            }
+                List<Team> teams = user.getTeams();
+                if (teams == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            boolean removed = teams.removeIf(team
-                    -> teamId.equals(team.get("_id")) || teamId.equals(team.get("id")));
+                boolean removed = teams.removeIf(team -> teamId.equals(team.getId()));
 
-            if (removed) {
-                user.setTeams(teams);
-                userRepository.save(user);
-                return ResponseEntity.ok(Map.of("message", "Team deleted successfully"));
-            } else {
-                return ResponseEntity.notFound().build();
+                if (removed) {
+                    ctx.tombstone("team", teamId, null);
+                    ctx.changed();
+                    return ResponseEntity.ok(Map.of("message", "Team deleted successfully"));
+                } else {
+                    return ResponseEntity.notFound().build();
+                }
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                searchIndexService.removeTeam(userId, teamId);
             }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to delete team: " + e.getMessage()));
@@ -282,20 +299,13 @@ public class TeamController {
             }
 
             // Find the team to get team details
-            User teamOwner = userRepository.findAll().stream()
-                    .filter(user -> user.getTeams() != null && user.getTeams().stream()
-                    .anyMatch(team -> teamId.equals(team.get("_id")) || teamId.equals(team.get("id"))))
-                    .findFirst()
-                    .orElse(null);
+            User teamOwner = userService.findTeamHolder(teamId);
 
             if (teamOwner == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            Map<String, Object> team = teamOwner.getTeams().stream()
-                    .filter(t -> teamId.equals(t.get("_id")) || teamId.equals(t.get("id")))
-                    .findFirst()
-                    .orElse(null);
+            Team team = teamOwner.findTeam(teamId);
 
             if (team == null) {
                 return ResponseEntity.notFound().build();
@@ -306,31 +316,37 @@ public class TeamController {
             invitation.put("id", UUID.randomUUID().toString());
             invitation.put("type", "team_invitation");
             invitation.put("teamId", teamId);
-            invitation.put("teamName", team.get("name"));
+            invitation.put("teamName", team.getName());
             invitation.put("role", role);
             invitation.put("invitedBy", teamOwner.getUserId());
             invitation.put("invitedByEmail", teamOwner.getUserEmail());
             invitation.put("invitedAt", new Date());
             invitation.put("status", "pending");
-            invitation.put("message", "You have been invited to join the team: " + team.get("name"));
+            invitation.put("message", "You have been invited to join the team: " + team.getName());
 
             // Add invitation to user's notifications
-            Map<String, Object> userdata = invitedUser.getUserdata();
-            if (userdata == null) {
-                userdata = new HashMap<>();
-            }
-
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
-            if (notifications == null) {
-                notifications = new ArrayList<>();
-            }
+            userWriteQueue.write(invitedUser.getUserId(), ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return null;
+                }
+                Map<String, Object> userdata = user.getUserdata();
+                if (userdata == null) {
+                    userdata = new HashMap<>();
+                }
 
-            notifications.add(invitation);
-            userdata.put("notifications", notifications);
-            invitedUser.setUserdata(userdata);
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
+                if (notifications == null) {
+                    notifications = new ArrayList<>();
+                }
 
-            userRepository.save(invitedUser);
+                notifications.add(invitation);
+                userdata.put("notifications", notifications);
+                user.setUserdata(userdata);
+                ctx.changed();
+                return null;
+            });
 
             return ResponseEntity.ok(Map.of(
                     "message", "Invitation sent successfully",
@@ -348,34 +364,28 @@ public class TeamController {
             @PathVariable String userId,
             @RequestParam String removedBy) {
         try {
-            User user = userRepository.findByUserId(removedBy);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            List<Map<String, Object>> teams = user.getTeams();
-            if (teams == null) {
-                return ResponseEntity.notFound().build();
-            }
+            return userWriteQueue.write(removedBy, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            // Find the team and remove the member
-            for (Map<String, Object> team : teams) {
-                if (teamId.equals(team.get("_id")) || teamId.equals(team.get("id"))) {
-                    @SuppressWarnings("unchecked")
-                    List<Map<String, Object>> members = (List<Map<String, Object>>) team.get("members");
-                    if (members != null) {
-                        members.removeIf(member -> userId.equals(member.get("userId")));
-                        team.put("members", members);
-                        team.put("updatedAt", new Date());
-                    }
-                    break;
+                List<Team> teams = user.getTeams();
+                if (teams == null) {
+                    return ResponseEntity.notFound().build();
                 }
-            }
 
-            user.setTeams(teams);
-            userRepository.save(user);
+                // Find the team and remove the member
+                Team team = user.findTeam(teamId);
+                if (team != null && team.getMembers() != null) {
+                    team.getMembers().removeIf(member -> userId.equals(member.getUserId()));
+                    team.setUpdatedAt(new Date());
+                    ctx.stamp(team);
+                    ctx.changed();
+                }
 
-            return ResponseEntity.ok(Map.of("message", "Member removed successfully"));
+                return ResponseEntity.ok(Map.of("message", "Member removed successfully"));
+            });
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to remove member: " + e.getMessage()));
@@ -418,24 +428,24 @@ public class TeamController {
             @PathVariable String invitationId,
             @RequestParam String userId) {
         try {
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
+            User invitee = userRepository.findByUserId(userId);
+            if (invitee == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            Map<String, Object> userdata = user.getUserdata();
-            if (userdata == null) {
+            Map<String, Object> inviteeData = invitee.getUserdata();
+            if (inviteeData == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "No invitations found"));
             }
 
             @SuppressWarnings("unchecked")
-            List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
-            if (notifications == null) {
+            List<Map<String, Object>> inviteeNotifications = (List<Map<String, Object>>) inviteeData.get("notifications");
+            if (inviteeNotifications == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "No invitations found"));
             }
 
             // Find the invitation
-            Map<String, Object> invitation = notifications.stream()
+            Map<String, Object> invitation = inviteeNotifications.stream()
                     .filter(notif -> invitationId.equals(notif.get("id")))
                     .findFirst()
                     .orElse(null);
@@ -448,109 +458,107 @@ public class TeamController {
             String role = (String) invitation.get("role");
 
             // Find team owner and add user to team
-            User teamOwner = userRepository.findAll().stream()
-                    .filter(u -> u.getTeams() != null && u.getTeams().stream()
-                    .anyMatch(team -> teamId.equals(team.get("_id")) || teamId.equals(team.get("id"))))
-                    .findFirst()
-                    .orElse(null);
+            User teamOwner = userService.findTeamHolder(teamId);
+
+            AtomicReference<Team> targetTeamRef = new AtomicReference<>();
+            List<Project> teamProjects = new ArrayList<>();
 
             if (teamOwner != null) {
-                List<Map<String, Object>> teams = teamOwner.getTeams();
-                Map<String, Object> targetTeam = null;
-
-                for (Map<String, Object> team : teams) {
-                    if (teamId.equals(team.get("_id")) || teamId.equals(team.get("id"))) {
-                        @SuppressWarnings("unchecked")
-                        List<Map<String, Object>> members = (List<Map<String, Object>>) team.get("members");
-                        if (members == null) {
-                            members = new ArrayList<>();
-                        }
+                userWriteQueue.write(teamOwner.getUserId(), ctx -> {
+                    User owner = ctx.user();
+                    if (owner == null || owner.getTeams() == null) {
+                        return null;
+                    }
 
+                    Team team = owner.findTeam(teamId);
+                    if (team != null) {
                         // Check if user is already a member
-                        boolean alreadyMember = members.stream()
-                                .anyMatch(member -> userId.equals(member.get("userId")));
-
-                        if (!alreadyMember) {
-                            Map<String, Object> newMember = new HashMap<>();
-                            newMember.put("userId", userId);
-                            newMember.put("role", role);
-                            newMember.put("joinedAt", new Date());
-                            members.add(newMember);
-                            team.put("members", members);
+                        if (!team.hasMember(userId)) {
+                            List<Member> members = team.getMembers() != null
+                                    ? new ArrayList<>(team.getMembers()) : new ArrayList<>();
+                            members.add(new Member(userId, role, new Date()));
+                            team.setMembers(members);
+                            ctx.stamp(team);
+                            ctx.changed();
+                        }
+                        targetTeamRef.set(team.copy());
+                    }
+
+                    // Snapshot the team's projects so they can be copied to the new member
+                    if (owner.getProjects() != null) {
+                        for (Project project : owner.getProjects()) {
+                            if (teamId.equals(project.getTeamId())) {
+                                teamProjects.add(project.copy());
+                            }
                         }
-                        targetTeam = team;
-                        break;
                     }
+                    return null;
+                });
+            }
+
+            ResponseEntity<?> response = userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
                 }
-                userRepository.save(teamOwner);
 
-                // Add team to user's teams list
-                List<Map<String, Object>> userTeams = user.getTeams();
-                if (userTeams == null) {
-                    userTeams = new ArrayList<>();
+                Map<String, Object> userdata = user.getUserdata();
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> notifications = userdata != null
+                        ? (List<Map<String, Object>>) userdata.get("notifications") : null;
+                Map<String, Object> pending = notifications == null ? null : notifications.stream()
+                        .filter(notif -> invitationId.equals(notif.get("id")))
+                        .findFirst()
+                        .orElse(null);
+                if (pending == null) {
+                    return ResponseEntity.notFound().build();
                 }
 
-                // Check if team is already in user's list
-                boolean teamExists = userTeams.stream()
-                        .anyMatch(team -> teamId.equals(team.get("_id")) || teamId.equals(team.get("id")));
+                Team targetTeam = targetTeamRef.get();
+                if (targetTeam != null) {
+                    // Add team to user's teams list
+                    List<Team> userTeams = user.getTeams();
+                    if (userTeams == null) {
+                        userTeams = new ArrayList<>();
+                    }
 
-                if (!teamExists && targetTeam != null) {
-                    Map<String, Object> teamCopy = new HashMap<>();
-                    teamCopy.putAll(targetTeam);
-                    teamCopy.put("role", role); // User's role in this team
-                    userTeams.add(teamCopy);
-                    user.setTeams(userTeams);
-                }
+                    // Check if team is already in user's list
+                    if (user.findTeam(teamId) == null) {
+                        targetTeam.setRole(role); // User's role in this team
+                        ctx.stamp(targetTeam);
+                        userTeams.add(targetTeam);
+                        user.setTeams(userTeams);
+                    }
 
-                // Copy team projects to the new member
-                List<Map<String, Object>> teamOwnerProjects = teamOwner.getProjects();
-                if (teamOwnerProjects != null) {
-                    List<Map<String, Object>> userProjects = user.getProjects();
+                    // Copy team projects (with their embedded tasks) to the new member
+                    List<Project> userProjects = user.getProjects();
                     if (userProjects == null) {
                         userProjects = new ArrayList<>();
                     }
-
-                    // Filter projects that belong to this team
-                    final List<Map<String, Object>> finalUserProjects = userProjects;
-                    List<Map<String, Object>> teamProjects = teamOwnerProjects.stream()
-                            .filter(project -> teamId.equals(project.get("teamId")))
-                            .collect(ArrayList::new, (list, item) -> {
-                                // Check if project already exists in user's projects
-                                String projectId = (String) item.get("_id");
-                                boolean projectExists = finalUserProjects.stream()
-                                        .anyMatch(p -> projectId.equals(p.get("_id")));
-
-                                if (!projectExists) {
-                                    Map<String, Object> projectCopy = new HashMap<>();
-                                    projectCopy.putAll(item);
-                                    list.add(projectCopy);
-                                }
-                            }, ArrayList::addAll);
-
-                    userProjects.addAll(teamProjects);
-                    user.setProjects(userProjects);
-
-                    // Copy tasks from team projects
-                    for (Map<String, Object> project : teamProjects) {
-                        @SuppressWarnings("unchecked")
-                        List<Map<String, Object>> projectTasks = (List<Map<String, Object>>) project.get("tasks");
-                        if (projectTasks != null && !projectTasks.isEmpty()) {
-                            // Tasks are already included in the project object, no separate action needed
-                            // as we copied the entire project structure above
+                    for (Project project : teamProjects) {
+                        String projectId = project.getId();
+                        boolean projectExists = userProjects.stream()
+                                .anyMatch(p -> projectId.equals(p.getId()));
+                        if (!projectExists) {
+                            ctx.stampWithTasks(project);
+                            userProjects.add(project);
                         }
                     }
+                    user.setProjects(userProjects);
                 }
-            }
-
-            // Update invitation status
-            invitation.put("status", "accepted");
-            invitation.put("acceptedAt", new Date());
-            userdata.put("notifications", notifications);
-            user.setUserdata(userdata);
 
-            userRepository.save(user);
+                // Update invitation status
+                pending.put("status", "accepted");
+                pending.put("acceptedAt", new Date());
+                ctx.changed();
 
-            return ResponseEntity.ok(Map.of("message", "Invitation accepted successfully"));
+                return ResponseEntity.ok(Map.of("message", "Invitation accepted successfully"));
+            });
+            if (response.getStatusCode().is2xxSuccessful()) {
+                // The team and its projects were copied in wholesale; rebuild on next search
+                searchIndexService.invalidate(userId);
+            }
+            return response;
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to accept invitation: " + e.getMessage()));
@@ -562,30 +570,29 @@ public class TeamController {
             @PathVariable String invitationId,
             @RequestParam String userId) {
         try {
-            User user = userRepository.findByUserId(userId);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Map<String, Object> userdata = user.getUserdata();
-            if (userdata == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "No invitations found"));
-            }
+            return userWriteQueue.write(userId, ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
-            if (notifications == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "No invitations found"));
-            }
+                Map<String, Object> userdata = user.getUserdata();
+                if (userdata == null) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "No invitations found"));
+                }
 
-            // Find and remove the invitation
-            notifications.removeIf(notif -> invitationId.equals(notif.get("id")));
-            userdata.put("notifications", notifications);
-            user.setUserdata(userdata);
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
+                if (notifications == null) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "No invitations found"));
+                }
 
-            userRepository.save(user);
+                // Find and remove the invitation
+                notifications.removeIf(notif -> invitationId.equals(notif.get("id")));
+                ctx.changed();
 
-            return ResponseEntity.ok(Map.of("message", "Invitation declined"));
+                return ResponseEntity.ok(Map.of("message", "Invitation declined"));
+            });
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to decline invitation: " + e.getMessage()));
@@ -597,11 +604,15 @@ public class TeamController {
             @PathVariable String teamId,
             @RequestParam String userId) {
         try {
-            // Find all users and check their notifications for pending invitations to this team
-            List<User> allUsers = userRepository.findAll();
+            // Find the users holding a pending invitation to this team; a
+            // listing for the inviting side, so it may lag behind on a secondary
+            Query query = new Query(Criteria.where("userdata.notifications").elemMatch(
+                    Criteria.where("type").is("team_invitation").and("teamId").is(teamId).and("status").is("pending")));
+            query.fields().include("email").include("userdata.notifications");
+            List<User> invitedUsers = secondaryMongoTemplate.find(query, User.class);
             List<Map<String, Object>> pendingInvitations = new ArrayList<>();
 
-            for (User user : allUsers) {
+            for (User user : invitedUsers) {
                 Map<String, Object> userdata = user.getUserdata();
                 if (userdata != null) {
                     @SuppressWarnings("unchecked")
@@ -646,29 +657,36 @@ public class TeamController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            Map<String, Object> userdata = invitedUser.getUserdata();
-            if (userdata == null) {
-                userdata = new HashMap<>();
-            }
+            userWriteQueue.write(invitedUser.getUserId(), ctx -> {
+                User user = ctx.user();
+                if (user == null) {
+                    return null;
+                }
+                Map<String, Object> userdata = user.getUserdata();
+                if (userdata == null) {
+                    userdata = new HashMap<>();
+                }
 
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
-            if (notifications == null) {
-                notifications = new ArrayList<>();
-            }
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
+                if (notifications == null) {
+                    notifications = new ArrayList<>();
+                }
 
-            // Update the existing invitation with new timestamp
-            for (Map<String, Object> notif : notifications) {
-                if (invitationId.equals(notif.get("id"))) {
-                    notif.put("invitedAt", new Date());
-                    notif.put("status", "pending");
-                    break;
+                // Update the existing invitation with new timestamp
+                for (Map<String, Object> notif : notifications) {
+                    if (invitationId.equals(notif.get("id"))) {
+                        notif.put("invitedAt", new Date());
+                        notif.put("status", "pending");
+                        break;
+                    }
                 }
-            }
 
-            userdata.put("notifications", notifications);
-            invitedUser.setUserdata(userdata);
-            userRepository.save(invitedUser);
+                userdata.put("notifications", notifications);
+                user.setUserdata(userdata);
+                ctx.changed();
+                return null;
+            });
 
             return ResponseEntity.ok(Map.of("message", "Invitation resent successfully"));
         } catch (Exception e) {
@@ -687,24 +705,25 @@ public class TeamController {
                 return ResponseEntity.notFound().build();
             }
 
-            Map<String, Object> userdata = invitedUser.getUserdata();
-            if (userdata == null) {
-                return ResponseEntity.notFound().build();
-            }
+            return userWriteQueue.write(invitedUser.getUserId(), ctx -> {
+                User user = ctx.user();
+                Map<String, Object> userdata = user != null ? user.getUserdata() : null;
+                if (userdata == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
-            if (notifications == null) {
-                return ResponseEntity.notFound().build();
-            }
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
+                if (notifications == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            // Remove the invitation
-            notifications.removeIf(notif -> invitationId.equals(notif.get("id")));
-            userdata.put("notifications", notifications);
-            invitedUser.setUserdata(userdata);
-            userRepository.save(invitedUser);
+                // Remove the invitation
+                notifications.removeIf(notif -> invitationId.equals(notif.get("id")));
+                ctx.changed();
 
-            return ResponseEntity.ok(Map.of("message", "Invitation cancelled successfully"));
+                return ResponseEntity.ok(Map.of("message", "Invitation cancelled successfully"));
+            });
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to cancel invitation: " + e.getMessage()));
@@ -719,21 +738,18 @@ public class TeamController {
                 return "Unknown Team";
             }
 
-            List<Map<String, Object>> teams = user.getTeams();
-            if (teams == null) {
-                return "Unknown Team";
-            }
-
-            Optional<Map<String, Object>> team = teams.stream()
-                    .filter(t -> teamId.equals(t.get("_id")) || teamId.equals(t.get("id")))
-                    .findFirst();
-
-            if (team.isPresent()) {
-                return (String) team.get().get("name");
+            Team team = user.findTeam(teamId);
+            if (team != null) {
+                return team.getName();
             }
             return "Unknown Team";
         } catch (Exception e) {
             return "Unknown Team";
         }
     }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
 }
@@ -0,0 +1,60 @@
+package com.taskmaster.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Common part of the teams, projects and tasks embedded in a user document.
+ *
+ * The id is stored as {@code _id}; older entries used {@code id}, so JSON
+ * carries both. Fields the typed model doesn't know about are kept in
+ * {@link #getExtras()} and written back unchanged, so nothing a client or an
+ * older version stored is lost on the next save.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.NONE,
+    isGetterVisibility = JsonAutoDetect.Visibility.NONE,
+    setterVisibility = JsonAutoDetect.Visibility.NONE,
+    fieldVisibility = JsonAutoDetect.Visibility.NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public abstract class EmbeddedEntity {
+    private String id;
+    private Long rev;
+    private Map<String, Object> extras = new LinkedHashMap<>();
+
+    protected EmbeddedEntity() {}
+
+    protected EmbeddedEntity(EmbeddedEntity other) {
+        this.id = other.id;
+        this.rev = other.rev;
+        this.extras = new LinkedHashMap<>(other.extras);
+    }
+
+    @JsonProperty("_id")
+    public String getId() { return id; }
+    @JsonProperty("_id")
+    public void setId(String id) { this.id = id; }
+
+    @JsonProperty("id")
+    public String getLegacyId() { return id; }
+    @JsonProperty("id")
+    public void setLegacyId(String id) {
+        if (this.id == null) {
+            this.id = id;
+        }
+    }
+
+    @JsonProperty("rev")
+    public Long getRev() { return rev; }
+    public void setRev(Long rev) { this.rev = rev; }
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtras() { return extras; }
+    @JsonAnySetter
+    public void putExtra(String key, Object value) { extras.put(key, value); }
+}
@@ -0,0 +1,119 @@
+package com.taskmaster.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A task embedded in a project of a user document. Not to be confused with
+ * {@link Task}, which maps the standalone {@code tasks} collection.
+ */
+public class EmbeddedTask extends EmbeddedEntity {
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private String statusLabel;
+    private Priority priority;
+    private String priorityLabel;
+    private String assignedTo;
+    private String createdBy;
+    private Date createdAt;
+    private Date updatedAt;
+    private String dueDate;
+    private String rank;
+    private List<String> dependsOn;
+
+    public EmbeddedTask() {}
+
+    private EmbeddedTask(EmbeddedTask other) {
+        super(other);
+        this.title = other.title;
+        this.description = other.description;
+        this.status = other.status;
+        this.statusLabel = other.statusLabel;
+        this.priority = other.priority;
+        this.priorityLabel = other.priorityLabel;
+        this.assignedTo = other.assignedTo;
+        this.createdBy = other.createdBy;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.dueDate = other.dueDate;
+        this.rank = other.rank;
+        this.dependsOn = other.dependsOn != null ? new ArrayList<>(other.dependsOn) : null;
+    }
+
+    public EmbeddedTask copy() {
+        return new EmbeddedTask(this);
+    }
+
+    @JsonProperty("title")
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    @JsonProperty("description")
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public TaskStatus getStatus() { return status; }
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+        this.statusLabel = status != null ? status.label() : null;
+    }
+
+    /**
+     * The status as the client wrote it; unrecognised labels are kept as-is
+     * with a {@code null} {@link #getStatus()}.
+     */
+    @JsonProperty("status")
+    public String getStatusLabel() { return statusLabel; }
+    public void setStatusLabel(String label) {
+        this.statusLabel = label;
+        this.status = TaskStatus.parse(label);
+    }
+
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+        this.priorityLabel = priority != null ? priority.label() : null;
+    }
+
+    @JsonProperty("priority")
+    public String getPriorityLabel() { return priorityLabel; }
+    public void setPriorityLabel(String label) {
+        this.priorityLabel = label;
+        this.priority = Priority.parse(label);
+    }
+
+    @JsonProperty("assignedTo")
+    public String getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
+
+    @JsonProperty("createdBy")
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    @JsonProperty("createdAt")
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    @JsonProperty("updatedAt")
+    public Date getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+
+    // Kept as the client's string; dates, datetimes and blanks all occur
+    @JsonProperty("dueDate")
+    public String getDueDate() { return dueDate; }
+    public void setDueDate(String dueDate) { this.dueDate = dueDate; }
+
+    // Fractional key ordering the task within its board column; null on older tasks
+    @JsonProperty("rank")
+    public String getRank() { return rank; }
+    public void setRank(String rank) { this.rank = rank; }
+
+    // Ids of tasks in the same project that must be finished before this one
+    @JsonProperty("dependsOn")
+    public List<String> getDependsOn() { return dependsOn; }
+    public void setDependsOn(List<String> dependsOn) { this.dependsOn = dependsOn; }
+}
@@ -0,0 +1,13 @@
+package com.taskmaster.model;
+
+import java.util.Locale;
+
+final class EnumLabels {
+
+    private EnumLabels() {}
+
+    // "In Progress", "in_progress" and "IN-PROGRESS" all become "in-progress"
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replace(' ', '-').replace('_', '-');
+    }
+}
@@ -0,0 +1,54 @@
+package com.taskmaster.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.NONE,
+    isGetterVisibility = JsonAutoDetect.Visibility.NONE,
+    setterVisibility = JsonAutoDetect.Visibility.NONE,
+    fieldVisibility = JsonAutoDetect.Visibility.NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Member {
+    private String userId;
+    private String role;
+    private Date joinedAt;
+    private Map<String, Object> extras = new LinkedHashMap<>();
+
+    public Member() {}
+
+    public Member(String userId, String role, Date joinedAt) {
+        this.userId = userId;
+        this.role = role;
+        this.joinedAt = joinedAt;
+    }
+
+    public Member copy() {
+        Member copy = new Member(userId, role, joinedAt);
+        copy.extras = new LinkedHashMap<>(extras);
+        return copy;
+    }
+
+    @JsonProperty("userId")
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    @JsonProperty("role")
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    @JsonProperty("joinedAt")
+    public Date getJoinedAt() { return joinedAt; }
+    public void setJoinedAt(Date joinedAt) { this.joinedAt = joinedAt; }
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtras() { return extras; }
+    @JsonAnySetter
+    public void putExtra(String key, Object value) { extras.put(key, value); }
+}
@@ -0,0 +1,50 @@
+package com.taskmaster.model;
+
+/**
+ * Priority of a task or project, stored as its label plus a
+ * {@code priorityCode}. Codes grow with urgency so they sort naturally.
+ */
+public enum Priority {
+    LOW(0, "low"),
+    MEDIUM(1, "medium"),
+    HIGH(2, "high"),
+    URGENT(3, "urgent");
+
+    private final int code;
+    private final String label;
+
+    Priority(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int code() { return code; }
+    public String label() { return label; }
+
+    public static Priority parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (EnumLabels.normalize(value)) {
+            case "low": case "minor":
+                return LOW;
+            case "medium": case "normal":
+                return MEDIUM;
+            case "high": case "major":
+                return HIGH;
+            case "urgent": case "critical":
+                return URGENT;
+            default:
+                return null;
+        }
+    }
+
+    public static Priority fromCode(int code) {
+        for (Priority priority : values()) {
+            if (priority.code == code) {
+                return priority;
+            }
+        }
+        return null;
+    }
+}
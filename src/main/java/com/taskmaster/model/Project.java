@@ -0,0 +1,167 @@
+package com.taskmaster.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class Project extends EmbeddedEntity {
+    private String name;
+    private String description;
+    private ProjectStatus status;
+    private String statusLabel;
+    private Priority priority;
+    private String priorityLabel;
+    private Integer progress;
+    private String teamId;
+    private String teamName;
+    private String createdBy;
+    private Date createdAt;
+    private Date updatedAt;
+    private String dueDate;
+    private List<EmbeddedTask> tasks;
+    private Integer archivedTaskCount;
+    // Running totals over every task, archived ones included, that progress is derived from
+    private Integer taskCount;
+    private Integer completedTaskCount;
+    private Integer taskWeight;
+    private Integer completedTaskWeight;
+
+    public Project() {}
+
+    private Project(Project other, boolean withTasks) {
+        super(other);
+        this.name = other.name;
+        this.description = other.description;
+        this.status = other.status;
+        this.statusLabel = other.statusLabel;
+        this.priority = other.priority;
+        this.priorityLabel = other.priorityLabel;
+        this.progress = other.progress;
+        this.teamId = other.teamId;
+        this.teamName = other.teamName;
+        this.createdBy = other.createdBy;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.dueDate = other.dueDate;
+        this.archivedTaskCount = other.archivedTaskCount;
+        this.taskCount = other.taskCount;
+        this.completedTaskCount = other.completedTaskCount;
+        this.taskWeight = other.taskWeight;
+        this.completedTaskWeight = other.completedTaskWeight;
+        if (withTasks && other.tasks != null) {
+            this.tasks = new ArrayList<>(other.tasks.size());
+            for (EmbeddedTask task : other.tasks) {
+                this.tasks.add(task.copy());
+            }
+        }
+    }
+
+    public Project copy() {
+        return new Project(this, true);
+    }
+
+    // For payloads that send tasks separately
+    public Project copyWithoutTasks() {
+        return new Project(this, false);
+    }
+
+    public EmbeddedTask findTask(String taskId) {
+        if (tasks == null || taskId == null) {
+            return null;
+        }
+        for (EmbeddedTask task : tasks) {
+            if (taskId.equals(task.getId())) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    @JsonProperty("name")
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    @JsonProperty("description")
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public ProjectStatus getStatus() { return status; }
+    public void setStatus(ProjectStatus status) {
+        this.status = status;
+        this.statusLabel = status != null ? status.label() : null;
+    }
+
+    @JsonProperty("status")
+    public String getStatusLabel() { return statusLabel; }
+    public void setStatusLabel(String label) {
+        this.statusLabel = label;
+        this.status = ProjectStatus.parse(label);
+    }
+
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+        this.priorityLabel = priority != null ? priority.label() : null;
+    }
+
+    @JsonProperty("priority")
+    public String getPriorityLabel() { return priorityLabel; }
+    public void setPriorityLabel(String label) {
+        this.priorityLabel = label;
+        this.priority = Priority.parse(label);
+    }
+
+    @JsonProperty("progress")
+    public Integer getProgress() { return progress; }
+    public void setProgress(Integer progress) { this.progress = progress; }
+
+    @JsonProperty("teamId")
+    public String getTeamId() { return teamId; }
+    public void setTeamId(String teamId) { this.teamId = teamId; }
+
+    @JsonProperty("teamName")
+    public String getTeamName() { return teamName; }
+    public void setTeamName(String teamName) { this.teamName = teamName; }
+
+    @JsonProperty("createdBy")
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    @JsonProperty("createdAt")
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    @JsonProperty("updatedAt")
+    public Date getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+
+    @JsonProperty("dueDate")
+    public String getDueDate() { return dueDate; }
+    public void setDueDate(String dueDate) { this.dueDate = dueDate; }
+
+    @JsonProperty("tasks")
+    public List<EmbeddedTask> getTasks() { return tasks; }
+    public void setTasks(List<EmbeddedTask> tasks) { this.tasks = tasks; }
+
+    @JsonProperty("archivedTaskCount")
+    public Integer getArchivedTaskCount() { return archivedTaskCount; }
+    public void setArchivedTaskCount(Integer archivedTaskCount) { this.archivedTaskCount = archivedTaskCount; }
+
+    @JsonProperty("taskCount")
+    public Integer getTaskCount() { return taskCount; }
+    public void setTaskCount(Integer taskCount) { this.taskCount = taskCount; }
+
+    @JsonProperty("completedTaskCount")
+    public Integer getCompletedTaskCount() { return completedTaskCount; }
+    public void setCompletedTaskCount(Integer completedTaskCount) { this.completedTaskCount = completedTaskCount; }
+
+    @JsonProperty("taskWeight")
+    public Integer getTaskWeight() { return taskWeight; }
+    public void setTaskWeight(Integer taskWeight) { this.taskWeight = taskWeight; }
+
+    @JsonProperty("completedTaskWeight")
+    public Integer getCompletedTaskWeight() { return completedTaskWeight; }
+    public void setCompletedTaskWeight(Integer completedTaskWeight) { this.completedTaskWeight = completedTaskWeight; }
+}
@@ -0,0 +1,50 @@
+package com.taskmaster.model;
+
+/**
+ * Lifecycle state of an embedded project, stored as its label plus a
+ * {@code statusCode}.
+ */
+public enum ProjectStatus {
+    PLANNING(0, "Planning"),
+    IN_PROGRESS(1, "In Progress"),
+    COMPLETED(2, "Completed"),
+    ON_HOLD(3, "On Hold");
+
+    private final int code;
+    private final String label;
+
+    ProjectStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int code() { return code; }
+    public String label() { return label; }
+
+    public static ProjectStatus parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (EnumLabels.normalize(value)) {
+            case "planning": case "planned":
+                return PLANNING;
+            case "in-progress": case "inprogress": case "active":
+                return IN_PROGRESS;
+            case "completed": case "complete": case "done":
+                return COMPLETED;
+            case "on-hold": case "onhold": case "paused":
+                return ON_HOLD;
+            default:
+                return null;
+        }
+    }
+
+    public static ProjectStatus fromCode(int code) {
+        for (ProjectStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskmaster.model;
+
+/**
+ * Workflow state of an embedded task. The numeric code is what gets stored
+ * alongside the label as {@code statusCode}, so queries and aggregations can
+ * match on it without caring how a client spelled the label.
+ */
+public enum TaskStatus {
+    TODO(0, "todo"),
+    IN_PROGRESS(1, "in-progress"),
+    REVIEW(2, "review"),
+    DONE(3, "done");
+
+    private final int code;
+    private final String label;
+
+    TaskStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int code() { return code; }
+    public String label() { return label; }
+
+    public boolean isDone() { return this == DONE; }
+
+    /**
+     * Lenient parse of whatever label a client or an older document used;
+     * {@code null} when it isn't recognised.
+     */
+    public static TaskStatus parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (EnumLabels.normalize(value)) {
+            case "todo": case "to-do": case "open": case "backlog":
+                return TODO;
+            case "in-progress": case "inprogress": case "doing": case "active":
+                return IN_PROGRESS;
+            case "review": case "in-review": case "testing":
+                return REVIEW;
+            case "done": case "completed": case "complete": case "closed":
+                return DONE;
+            default:
+                return null;
+        }
+    }
+
+    public static TaskStatus fromCode(int code) {
+        for (TaskStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.taskmaster.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class Team extends EmbeddedEntity {
+    private String name;
+    private String description;
+    private String createdBy;
+    private Date createdAt;
+    private Date updatedAt;
+    private List<Member> members;
+    // The owning user's role in this team, set on copies held by members
+    private String role;
+
+    public Team() {}
+
+    private Team(Team other) {
+        super(other);
+        this.name = other.name;
+        this.description = other.description;
+        this.createdBy = other.createdBy;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.role = other.role;
+        if (other.members != null) {
+            this.members = new ArrayList<>(other.members.size());
+            for (Member member : other.members) {
+                this.members.add(member.copy());
+            }
+        }
+    }
+
+    public Team copy() {
+        return new Team(this);
+    }
+
+    public boolean hasMember(String userId) {
+        if (members == null) {
+            return false;
+        }
+        for (Member member : members) {
+            if (userId.equals(member.getUserId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @JsonProperty("name")
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    @JsonProperty("description")
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    @JsonProperty("createdBy")
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    @JsonProperty("createdAt")
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    @JsonProperty("updatedAt")
+    public Date getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+
+    @JsonProperty("members")
+    public List<Member> getMembers() { return members; }
+    public void setMembers(List<Member> members) { this.members = members; }
+
+    @JsonProperty("role")
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+}
@@ -1,7 +1,9 @@
 package com.taskmaster.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +17,14 @@ public class User {
     private String createdAt;
     private String updatedAt;
     private Map<String, Object> userdata;
-    private List<Map<String, Object>> teams;
-    private List<Map<String, Object>> projects;
-    private List<Map<String, Object>> tasks;
+    private List<Team> teams;
+    private List<Project> projects;
+    private List<EmbeddedTask> tasks;
+    private Long revision;
+    private Long changesFloor;
+    private List<Map<String, Object>> tombstones;
+    // Top-level fields the model doesn't know (e.g. synthRunId), written back unchanged
+    private Map<String, Object> extras = new LinkedHashMap<>();
 
     // Constructors
     public User() {}
@@ -53,12 +60,49 @@ public class User {
     public Map<String, Object> getUserdata() { return userdata; }
     public void setUserdata(Map<String, Object> userdata) { this.userdata = userdata; }
 
-    public List<Map<String, Object>> getTeams() { return teams; }
-    public void setTeams(List<Map<String, Object>> teams) { this.teams = teams; }
+    public List<Team> getTeams() { return teams; }
+    public void setTeams(List<Team> teams) { this.teams = teams; }
 
-    public List<Map<String, Object>> getProjects() { return projects; }
-    public void setProjects(List<Map<String, Object>> projects) { this.projects = projects; }
+    public List<Project> getProjects() { return projects; }
+    public void setProjects(List<Project> projects) { this.projects = projects; }
 
-    public List<Map<String, Object>> getTasks() { return tasks; }
-    public void setTasks(List<Map<String, Object>> tasks) { this.tasks = tasks; }
-}
\ No newline at end of file
+    public List<EmbeddedTask> getTasks() { return tasks; }
+    public void setTasks(List<EmbeddedTask> tasks) { this.tasks = tasks; }
+
+    public Team findTeam(String teamId) {
+        if (teams == null || teamId == null) {
+            return null;
+        }
+        for (Team team : teams) {
+            if (teamId.equals(team.getId())) {
+                return team;
+            }
+        }
+        return null;
+    }
+
+    public Project findProject(String projectId) {
+        if (projects == null || projectId == null) {
+            return null;
+        }
+        for (Project project : projects) {
+            if (projectId.equals(project.getId())) {
+                return project;
+            }
+        }
+        return null;
+    }
+
+    public Long getRevision() { return revision; }
+    public void setRevision(Long revision) { this.revision = revision; }
+
+    public Long getChangesFloor() { return changesFloor; }
+    public void setChangesFloor(Long changesFloor) { this.changesFloor = changesFloor; }
+
+    public List<Map<String, Object>> getTombstones() { return tombstones; }
+    public void setTombstones(List<Map<String, Object>> tombstones) { this.tombstones = tombstones; }
+
+    @JsonIgnore
+    public Map<String, Object> getExtras() { return extras; }
+    public void putExtra(String key, Object value) { extras.put(key, value); }
+}
@@ -0,0 +1,172 @@
+package com.taskmaster.monitoring;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver-level listener that attributes every Mongo command to the HTTP
+ * request being served on the current thread.
+ *
+ * The synchronous driver fires command events on the thread that issued the
+ * command, so a thread-local opened by {@link MongoRequestStatsFilter} is
+ * enough to correlate commands with requests. Work handed to another thread
+ * on a request's behalf, such as user writes, is attributed with
+ * {@link #onBehalfOf}. Commands issued outside a request (startup,
+ * background jobs) are ignored except for slow-command logging.
+ */
+@Component
+public class MongoCommandTracker implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoCommandTracker.class);
+
+    private static final ThreadLocal<RequestMongoStats> CURRENT = new ThreadLocal<>();
+
+    // Requests the current thread is issuing commands for, besides its own
+    private static final ThreadLocal<Collection<RequestMongoStats>> ON_BEHALF = new ThreadLocal<>();
+
+    // Collection names by request id of in-flight commands on this thread
+    private static final ThreadLocal<Map<Integer, String>> IN_FLIGHT = ThreadLocal.withInitial(HashMap::new);
+
+    @Value("${taskmaster.mongo.tracking.slow-command-ms:100}")
+    private long slowCommandMs;
+
+    public static void begin(RequestMongoStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static RequestMongoStats current() {
+        return CURRENT.get();
+    }
+
+    public static RequestMongoStats end() {
+        RequestMongoStats stats = CURRENT.get();
+        CURRENT.remove();
+        IN_FLIGHT.remove();
+        return stats;
+    }
+
+    /**
+     * Runs {@code work} with the commands it issues on this thread recorded
+     * against {@code requests} too. Requests may be shared by several
+     * threads this way, so recording into them is synchronized.
+     */
+    public static <T> T onBehalfOf(Collection<RequestMongoStats> requests, Callable<T> work) throws Exception {
+        Collection<RequestMongoStats> previous = ON_BEHALF.get();
+        ON_BEHALF.set(requests);
+        try {
+            return work.call();
+        } finally {
+            ON_BEHALF.set(previous);
+        }
+    }
+
+    private static void record(String commandName, String collection, long nanos, int documents, int bytes,
+                               boolean failed) {
+        RequestMongoStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(commandName, collection, nanos, documents, bytes, failed);
+        }
+        Collection<RequestMongoStats> requests = ON_BEHALF.get();
+        if (requests != null) {
+            for (RequestMongoStats request : requests) {
+                if (request != stats) {
+                    request.record(commandName, collection, nanos, documents, bytes, failed);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        String collection = target != null && target.isString() ? target.asString().getValue() : "-";
+        IN_FLIGHT.get().put(event.getRequestId(), collection);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = IN_FLIGHT.get().remove(event.getRequestId());
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        BsonDocument response = event.getResponse();
+        int documents = documentsReturned(response);
+        int bytes = response != null ? sizeInBytes(response) : RequestMongoStats.UNMEASURED;
+
+        record(event.getCommandName(), collection != null ? collection : "-", nanos, documents, bytes, false);
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(slowCommandMs)) {
+            log.warn("Slow Mongo command {} on {} took {}ms (docs={}, bytes={}, request={})",
+                event.getCommandName(), collection, TimeUnit.NANOSECONDS.toMillis(nanos), documents,
+                bytes != RequestMongoStats.UNMEASURED ? bytes : "?",
+                requestsOf(CURRENT.get(), ON_BEHALF.get()));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        String collection = IN_FLIGHT.get().remove(event.getRequestId());
+        record(event.getCommandName(), collection != null ? collection : "-",
+            event.getElapsedTime(TimeUnit.NANOSECONDS), 0, 0, true);
+    }
+
+    private static String requestsOf(RequestMongoStats stats, Collection<RequestMongoStats> requests) {
+        StringJoiner joined = new StringJoiner(", ");
+        if (stats != null) {
+            joined.add(stats.getMethod() + " " + stats.getUri());
+        }
+        if (requests != null) {
+            for (RequestMongoStats request : requests) {
+                if (request != stats) {
+                    joined.add(request.getMethod() + " " + request.getUri());
+                }
+            }
+        }
+        return joined.length() > 0 ? joined.toString() : "none";
+    }
+
+    private static int documentsReturned(BsonDocument response) {
+        if (response == null) {
+            return 0;
+        }
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonDocument cursorDocument = cursor.asDocument();
+            BsonValue batch = cursorDocument.containsKey("firstBatch")
+                ? cursorDocument.get("firstBatch") : cursorDocument.get("nextBatch");
+            return batch instanceof BsonArray ? ((BsonArray) batch).size() : 0;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().intValue() : 0;
+    }
+
+    /**
+     * Exact size of a reply the driver still holds as raw BSON, read from
+     * its length prefix; {@link RequestMongoStats#UNMEASURED} for one it has
+     * already decoded, since re-encoding it only to measure it would cost
+     * more than the command.
+     */
+    private static int sizeInBytes(BsonDocument document) {
+        if (document instanceof RawBsonDocument) {
+            ByteBuffer buffer = ((RawBsonDocument) document).getByteBuffer().asNIO();
+            return buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(buffer.position());
+        }
+        return RequestMongoStats.UNMEASURED;
+    }
+}
@@ -0,0 +1,121 @@
+package com.taskmaster.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link RequestMongoStats} scope around each request and, once the
+ * request completes, publishes its Mongo command count and time as metrics
+ * and logs requests that cross the configured budgets together with their
+ * command list. The request id is also put in the logging MDC for the
+ * duration of the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class MongoRequestStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoRequestStatsFilter.class);
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskmaster.mongo.tracking.max-commands-per-request:25}")
+    private int maxCommandsPerRequest;
+
+    @Value("${taskmaster.mongo.tracking.max-time-per-request-ms:250}")
+    private long maxTimePerRequestMs;
+
+    @Value("${taskmaster.mongo.tracking.repeated-command-threshold:10}")
+    private int repeatedCommandThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isEmpty()) {
+            requestId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        MongoCommandTracker.begin(new RequestMongoStats(requestId, request.getMethod(), request.getRequestURI()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestMongoStats stats = MongoCommandTracker.end();
+            if (stats != null && stats.getCommandCount() > 0) {
+                publish(request, stats);
+            }
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    private void publish(HttpServletRequest request, RequestMongoStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("taskmaster.request.mongo.commands")
+            .description("Mongo commands issued per HTTP request")
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(stats.getCommandCount());
+        Timer.builder("taskmaster.request.mongo.time")
+            .description("Total Mongo time per HTTP request")
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos());
+        Map<String, Integer> repeated = stats.repeatedShapes(repeatedCommandThreshold);
+        boolean overCount = stats.getCommandCount() > maxCommandsPerRequest;
+        boolean overTime = totalMs > maxTimePerRequestMs;
+
+        if (!repeated.isEmpty()) {
+            flagged(uri, "repeated");
+            log.warn("Possible N+1 in {} {} [{}]: repeated commands {}",
+                stats.getMethod(), stats.getUri(), stats.getRequestId(), repeated);
+        }
+        if (overCount || overTime) {
+            flagged(uri, overCount ? "count" : "time");
+            log.warn("Mongo budget exceeded by {} {} [{}]: {} commands, {}ms, {} bytes ({} replies unmeasured); commands={}",
+                stats.getMethod(), stats.getUri(), stats.getRequestId(), stats.getCommandCount(), totalMs,
+                stats.getTotalBytes(), stats.getUnmeasuredCount(), stats.getCommands());
+        }
+    }
+
+    private void flagged(String uri, String reason) {
+        Counter.builder("taskmaster.request.mongo.flagged")
+            .description("Requests flagged for excessive Mongo usage")
+            .tag("uri", uri)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -0,0 +1,41 @@
+package com.taskmaster.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the per-request Mongo command count and time as response headers.
+ * Runs just before the body is written, after the handler has issued all of
+ * its queries but while headers can still be set.
+ */
+@ControllerAdvice
+public class MongoStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT_HEADER = "X-Mongo-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Mongo-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestMongoStats stats = MongoCommandTracker.current();
+        if (stats != null) {
+            response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(stats.getCommandCount()));
+            response.getHeaders().set(QUERY_TIME_HEADER,
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos())));
+        }
+        return body;
+    }
+}
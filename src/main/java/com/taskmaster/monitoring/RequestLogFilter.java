@@ -0,0 +1,91 @@
+package com.taskmaster.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one structured access line per request: method, uri, status,
+ * latency and the Mongo commands it issued, with requestId and userId in the
+ * MDC so every other line logged while serving the request carries them too.
+ *
+ * The userId comes from the query string when present. Write endpoints take
+ * it in the JSON body instead, which a filter can't read without buffering
+ * it, so it is set by {@link #identify} once the user write queue sees it;
+ * lines logged before that point go out without it.
+ *
+ * Successful fast requests are high-volume and only sampled; errors and
+ * requests slower than the threshold are always logged. Lines go to the
+ * {@code taskmaster.access} category, so access logging can be switched off
+ * or turned up at runtime through the actuator loggers endpoint.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("taskmaster.access");
+
+    public static final String USER_ID_MDC_KEY = "userId";
+
+    @Value("${taskmaster.logging.access.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${taskmaster.logging.access.slow-ms:500}")
+    private long slowMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = request.getParameter("userId");
+        if (userId != null && !userId.isEmpty()) {
+            MDC.put(USER_ID_MDC_KEY, userId);
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            int status = response.getStatus();
+            boolean always = status >= 400 || latencyMs >= slowMs;
+            if (accessLog.isInfoEnabled() && (always || sampled())) {
+                RequestMongoStats stats = MongoCommandTracker.current();
+                accessLog.info("method={} uri={} status={} latencyMs={} mongoCommands={} mongoMs={} sampled={}",
+                    request.getMethod(), request.getRequestURI(), status, latencyMs,
+                    stats != null ? stats.getCommandCount() : 0,
+                    stats != null ? TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()) : 0,
+                    !always);
+            }
+            MDC.remove(USER_ID_MDC_KEY);
+        }
+    }
+
+    /**
+     * Sets the userId of the request being served on this thread, unless it
+     * already has one. Does nothing outside a request, where nothing would
+     * clear it again.
+     */
+    public static void identify(String userId) {
+        if (userId != null && MDC.get(MongoRequestStatsFilter.REQUEST_ID_MDC_KEY) != null
+                && MDC.get(USER_ID_MDC_KEY) == null) {
+            MDC.put(USER_ID_MDC_KEY, userId);
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
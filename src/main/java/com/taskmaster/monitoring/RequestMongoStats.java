@@ -0,0 +1,100 @@
+package com.taskmaster.monitoring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mongo commands issued while serving a single HTTP request. Besides the
+ * request thread, user-writer threads record into it while they work for
+ * the request, so access is synchronized.
+ */
+public class RequestMongoStats {
+
+    // Keep the detailed list bounded; a findAll-and-save loop can issue thousands of commands
+    private static final int MAX_RECORDED_COMMANDS = 200;
+
+    // Reply size of a command whose reply wasn't measured
+    public static final int UNMEASURED = -1;
+
+    public static class CommandRecord {
+        public final String commandName;
+        public final String collection;
+        public final long durationMicros;
+        public final int documents;
+        public final int bytes;
+        public final boolean failed;
+
+        CommandRecord(String commandName, String collection, long durationMicros, int documents, int bytes, boolean failed) {
+            this.commandName = commandName;
+            this.collection = collection;
+            this.durationMicros = durationMicros;
+            this.documents = documents;
+            this.bytes = bytes;
+            this.failed = failed;
+        }
+
+        @Override
+        public String toString() {
+            return commandName + " " + collection + " " + (durationMicros / 1000.0) + "ms docs=" + documents
+                + " bytes=" + (bytes != UNMEASURED ? String.valueOf(bytes) : "?") + (failed ? " FAILED" : "");
+        }
+    }
+
+    private final String requestId;
+    private final String method;
+    private final String uri;
+    private final List<CommandRecord> commands = new ArrayList<>();
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+    private int commandCount;
+    private long totalNanos;
+    private long totalBytes;
+    private int unmeasuredCount;
+
+    public RequestMongoStats(String requestId, String method, String uri) {
+        this.requestId = requestId;
+        this.method = method;
+        this.uri = uri;
+    }
+
+    synchronized void record(String commandName, String collection, long nanos, int documents, int bytes, boolean failed) {
+        commandCount++;
+        totalNanos += nanos;
+        if (bytes == UNMEASURED) {
+            unmeasuredCount++;
+        } else {
+            totalBytes += bytes;
+        }
+        shapeCounts.merge(commandName + " " + collection, 1, Integer::sum);
+        if (commands.size() < MAX_RECORDED_COMMANDS) {
+            commands.add(new CommandRecord(commandName, collection, nanos / 1000, documents, bytes, failed));
+        }
+    }
+
+    public String getRequestId() { return requestId; }
+    public String getMethod() { return method; }
+    public String getUri() { return uri; }
+    public synchronized int getCommandCount() { return commandCount; }
+    public synchronized long getTotalNanos() { return totalNanos; }
+    /** Exact reply bytes of the measured commands; see {@link #getUnmeasuredCount()}. */
+    public synchronized long getTotalBytes() { return totalBytes; }
+    /** Commands whose reply size is left out of {@link #getTotalBytes()}. */
+    public synchronized int getUnmeasuredCount() { return unmeasuredCount; }
+    public synchronized List<CommandRecord> getCommands() { return new ArrayList<>(commands); }
+
+    /**
+     * Command shapes ("find users", "update users", ...) issued at least
+     * {@code threshold} times in this request, which is the signature of an
+     * N+1 access pattern.
+     */
+    public synchronized Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new HashMap<>();
+        shapeCounts.forEach((shape, count) -> {
+            if (count >= threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+}
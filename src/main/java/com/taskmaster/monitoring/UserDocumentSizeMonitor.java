@@ -0,0 +1,119 @@
+package com.taskmaster.monitoring;
+
+import com.taskmaster.model.User;
+import com.taskmaster.service.TaskOverflowService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Measures every {@link User} document on its way to Mongo, keeps the
+ * largest ones for inspection, and hands documents over the spill threshold
+ * to {@link TaskOverflowService} before they approach the 16 MB limit.
+ */
+@Component
+public class UserDocumentSizeMonitor extends AbstractMongoEventListener<User> {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDocumentSizeMonitor.class);
+
+    private static final long MONGO_MAX_DOCUMENT_BYTES = 16L * 1024 * 1024;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskOverflowService taskOverflowService;
+
+    @Value("${taskmaster.user.document.top-n:20}")
+    private int topN;
+
+    private DistributionSummary sizeSummary;
+    private Counter spillCounter;
+
+    // userId -> last measured size for the current top-N; guarded by itself
+    private final Map<String, Long> largest = new HashMap<>();
+
+    @PostConstruct
+    void registerMeters() {
+        sizeSummary = DistributionSummary.builder("taskmaster.user.document.size")
+            .description("Size of users documents on save")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .serviceLevelObjectives(1 << 20, 4 << 20, 8 << 20, 12 << 20, 16 << 20)
+            .register(meterRegistry);
+        spillCounter = Counter.builder("taskmaster.user.document.spills")
+            .description("Saves that spilled tasks to overflow buckets")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<User> event) {
+        Document document = event.getDocument();
+        User user = event.getSource();
+        if (document == null) {
+            return;
+        }
+        long size = TaskOverflowService.sizeOf(document);
+        if (size > taskOverflowService.getSpillThresholdBytes()) {
+            long spilledSize = taskOverflowService.spill(user.getUserId(), document, user.getProjects(), size);
+            if (spilledSize < size && user.getRevision() != null) {
+                // Spilled tasks vanish from the document without tombstones; delta-sync clients must resync
+                user.setChangesFloor(user.getRevision());
+                document.put("changesFloor", user.getRevision());
+            }
+            size = spilledSize;
+            spillCounter.increment();
+        }
+        if (size > MONGO_MAX_DOCUMENT_BYTES) {
+            log.error("User document {} is ~{} bytes, above Mongo's 16 MB limit after spilling", user.getUserId(), size);
+        }
+        sizeSummary.record(size);
+        track(user.getUserId(), size);
+    }
+
+    private void track(String userId, long size) {
+        synchronized (largest) {
+            if (largest.containsKey(userId) || largest.size() < topN) {
+                largest.put(userId, size);
+                return;
+            }
+            Map.Entry<String, Long> smallest = null;
+            for (Map.Entry<String, Long> entry : largest.entrySet()) {
+                if (smallest == null || entry.getValue() < smallest.getValue()) {
+                    smallest = entry;
+                }
+            }
+            if (smallest != null && size > smallest.getValue()) {
+                largest.remove(smallest.getKey());
+                largest.put(userId, size);
+            }
+        }
+    }
+
+    /**
+     * Largest user documents seen since startup, biggest first.
+     */
+    public List<Map<String, Object>> topOffenders() {
+        List<Map.Entry<String, Long>> entries;
+        synchronized (largest) {
+            entries = new ArrayList<>(largest.entrySet());
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            result.add(Map.of("userId", entry.getKey(), "bytes", entry.getValue()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.TextStyle;
+import java.util.*;
+
+/**
+ * Per-day activity counters for users and teams in {@code activity_daily}.
+ *
+ * One document per scope, owner and UTC day, keyed
+ * {@code <scope>:<ownerId>:<yyyy-MM-dd>} so the days of one owner sort
+ * together in the {@code _id} index: reading any range of days is a single
+ * index range scan over at most that many small documents. Writes
+ * {@code $inc} the counters with an upsert, all increments of one request
+ * in one bulk write.
+ */
+@Service
+public class ActivityRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityRollupService.class);
+
+    public static final String COLLECTION = "activity_daily";
+
+    public static final String USER = "user";
+    public static final String TEAM = "team";
+
+    public static final String TASKS_CREATED = "tasksCreated";
+    public static final String TASKS_COMPLETED = "tasksCompleted";
+    public static final String PROJECTS_CREATED = "projectsCreated";
+
+    private static final List<String> COUNTERS = List.of(TASKS_CREATED, TASKS_COMPLETED, PROJECTS_CREATED);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Increments collected over one write, applied with {@link #record}.
+     */
+    public static class Tally {
+        private final Map<String, Map<String, Integer>> counters = new LinkedHashMap<>();
+        private final LocalDate day = LocalDate.now(ZoneOffset.UTC);
+
+        /**
+         * Counts one event for the user and, when {@code teamId} is set, for
+         * the team as well.
+         */
+        public Tally add(String userId, String teamId, String counter) {
+            increment(USER, userId, counter);
+            if (teamId != null && !teamId.isEmpty()) {
+                increment(TEAM, teamId, counter);
+            }
+            return this;
+        }
+
+        private void increment(String scope, String ownerId, String counter) {
+            if (ownerId != null) {
+                counters.computeIfAbsent(scope + ":" + ownerId, k -> new HashMap<>()).merge(counter, 1, Integer::sum);
+            }
+        }
+
+        public boolean isEmpty() {
+            return counters.isEmpty();
+        }
+    }
+
+    public void record(Tally tally) {
+        if (tally.isEmpty()) {
+            return;
+        }
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        Date day = Date.from(tally.day.atStartOfDay(ZoneOffset.UTC).toInstant());
+        tally.counters.forEach((owner, counts) -> {
+            int separator = owner.indexOf(':');
+            List<Bson> changes = new ArrayList<>();
+            changes.add(Updates.setOnInsert("scope", owner.substring(0, separator)));
+            changes.add(Updates.setOnInsert("ownerId", owner.substring(separator + 1)));
+            changes.add(Updates.setOnInsert("day", day));
+            counts.forEach((counter, count) -> changes.add(Updates.inc(counter, count)));
+            updates.add(new UpdateOneModel<>(Filters.eq("_id", owner + ":" + tally.day),
+                Updates.combine(changes), new UpdateOptions().upsert(true)));
+        });
+        try {
+            mongoTemplate.getCollection(COLLECTION).bulkWrite(updates, new BulkWriteOptions().ordered(false));
+        } catch (Exception e) {
+            // Activity counters are best-effort; the write they describe has already been saved
+            log.warn("Failed to record activity for {}: {}", tally.counters.keySet(), e.getMessage());
+        }
+    }
+
+    /**
+     * Counters for the last {@code days} days up to and including today
+     * (UTC), oldest first, with zeros for days without activity.
+     */
+    public List<Map<String, Object>> daily(String scope, String ownerId, int days) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate first = today.minusDays(days - 1L);
+        String prefix = scope + ":" + ownerId + ":";
+
+        Map<String, Document> byDay = new HashMap<>();
+        for (Document document : mongoTemplate.getCollection(COLLECTION)
+                .find(Filters.and(Filters.gte("_id", prefix + first), Filters.lte("_id", prefix + today)))) {
+            byDay.put(document.getString("_id").substring(prefix.length()), document);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(days);
+        for (LocalDate date = first; !date.isAfter(today); date = date.plusDays(1)) {
+            Document document = byDay.get(date.toString());
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", date.toString());
+            entry.put("day", date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.US));
+            for (String counter : COUNTERS) {
+                Object value = document != null ? document.get(counter) : null;
+                entry.put(counter, value instanceof Number ? ((Number) value).intValue() : 0);
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmaster.service;
+
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Board columns of a project: one per {@link TaskStatus}, each ordered by
+ * the tasks' {@link FractionalRank} keys.
+ *
+ * Tasks whose status label is not recognised sit in the to-do column.
+ * Tasks from before ranks existed come after the ranked ones in their
+ * stored order, and get ranks the first time something is moved relative
+ * to them.
+ */
+public final class BoardOrder {
+
+    public static final Comparator<EmbeddedTask> ORDER =
+        Comparator.comparing(EmbeddedTask::getRank, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private BoardOrder() {}
+
+    public static TaskStatus column(EmbeddedTask task) {
+        return task.getStatus() != null ? task.getStatus() : TaskStatus.TODO;
+    }
+
+    /**
+     * The tasks of one column in board order.
+     */
+    public static List<EmbeddedTask> tasks(Project project, TaskStatus column) {
+        List<EmbeddedTask> tasks = new ArrayList<>();
+        if (project.getTasks() != null) {
+            for (EmbeddedTask task : project.getTasks()) {
+                if (column(task) == column) {
+                    tasks.add(task);
+                }
+            }
+        }
+        // Stable, so unranked tasks keep their stored order
+        tasks.sort(ORDER);
+        return tasks;
+    }
+
+    /**
+     * The task directly below ({@code below} true) or above {@code of} in
+     * {@code column}, skipping {@code moving}; {@code null} at the ends.
+     */
+    public static EmbeddedTask adjacent(Project project, TaskStatus column, EmbeddedTask of, EmbeddedTask moving,
+                                        boolean below) {
+        List<EmbeddedTask> tasks = tasks(project, column);
+        tasks.remove(moving);
+        int index = tasks.indexOf(of) + (below ? 1 : -1);
+        return index >= 0 && index < tasks.size() ? tasks.get(index) : null;
+    }
+
+    /**
+     * A rank placing a task at the bottom of {@code column}, below every
+     * ranked task other than {@code moving}.
+     */
+    public static String rankAtEnd(Project project, TaskStatus column, EmbeddedTask moving) {
+        String last = null;
+        if (project.getTasks() != null) {
+            for (EmbeddedTask task : project.getTasks()) {
+                if (task != moving && column(task) == column && task.getRank() != null
+                        && (last == null || task.getRank().compareTo(last) > 0)) {
+                    last = task.getRank();
+                }
+            }
+        }
+        return FractionalRank.after(last);
+    }
+
+    /**
+     * Gives the unranked tasks of {@code column} ranks after the ranked ones,
+     * keeping their current order. Returns the tasks that were changed.
+     */
+    public static List<EmbeddedTask> rankUnranked(Project project, TaskStatus column) {
+        List<EmbeddedTask> unranked = new ArrayList<>();
+        String last = null;
+        for (EmbeddedTask task : tasks(project, column)) {
+            if (task.getRank() == null) {
+                unranked.add(task);
+            } else {
+                last = task.getRank();
+            }
+        }
+        List<String> ranks = FractionalRank.between(last, null, unranked.size());
+        for (int i = 0; i < unranked.size(); i++) {
+            unranked.get(i).setRank(ranks.get(i));
+        }
+        return unranked;
+    }
+}
@@ -0,0 +1,385 @@
+package com.taskmaster.service;
+
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * The dependency edges between the tasks of one project, with a topological
+ * order and each task's projected finish kept current as the graph changes.
+ *
+ * Without durations, a task's due date stands for when it finishes. A task
+ * cannot finish before its open prerequisites, so its projected finish is
+ * the later of its own due date and theirs; done tasks hold nothing up.
+ * The critical path is the chain of prerequisites that sets the latest
+ * projected finish in the project.
+ *
+ * Adding an edge that agrees with the current order costs nothing more;
+ * otherwise only the tasks between its two ends in the order are searched
+ * and renumbered (Pearce-Kelly), which is also where a cycle would be
+ * found. Finishes are then pushed forward in topological order from the
+ * task that changed, stopping wherever a finish stays the same. Not thread
+ * safe; {@link TaskDependencyService} guards it.
+ */
+class DependencyGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyGraph.class);
+
+    static class Node {
+        final String id;
+        int order;
+        boolean done;
+        Long due;
+        Long finish;
+        // The prerequisite that sets finish; null when the task's own due date does
+        Node gate;
+        final Set<Node> prerequisites = new LinkedHashSet<>();
+        final Set<Node> dependents = new LinkedHashSet<>();
+        private int visit;
+
+        Node(String id) {
+            this.id = id;
+        }
+    }
+
+    private final Map<String, Node> nodes = new HashMap<>();
+    private int nextOrder;
+    private int visitEpoch;
+
+    /**
+     * Builds the graph from the stored {@code dependsOn} lists in O(tasks +
+     * edges). References to tasks no longer in the project (deleted or moved
+     * to the overflow collection) are ignored.
+     */
+    static DependencyGraph build(Project project) {
+        DependencyGraph graph = new DependencyGraph();
+        List<EmbeddedTask> tasks = project.getTasks() != null ? project.getTasks() : List.of();
+        for (EmbeddedTask task : tasks) {
+            if (task.getId() != null && !graph.nodes.containsKey(task.getId())) {
+                Node node = new Node(task.getId());
+                graph.describe(node, task);
+                graph.nodes.put(node.id, node);
+            }
+        }
+        for (EmbeddedTask task : tasks) {
+            Node node = graph.nodes.get(task.getId());
+            if (node == null || task.getDependsOn() == null) {
+                continue;
+            }
+            for (String prerequisiteId : task.getDependsOn()) {
+                Node prerequisite = graph.nodes.get(prerequisiteId);
+                if (prerequisite != null && prerequisite != node) {
+                    prerequisite.dependents.add(node);
+                    node.prerequisites.add(prerequisite);
+                }
+            }
+        }
+
+        // Kahn's algorithm, in stored task order among ready tasks
+        Map<Node, Integer> waiting = new HashMap<>();
+        ArrayDeque<Node> ready = new ArrayDeque<>();
+        for (Node node : graph.orderedByInsertion(tasks)) {
+            waiting.put(node, node.prerequisites.size());
+            if (node.prerequisites.isEmpty()) {
+                ready.add(node);
+            }
+        }
+        List<Node> sorted = new ArrayList<>(graph.nodes.size());
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            node.order = graph.nextOrder++;
+            sorted.add(node);
+            for (Node dependent : node.dependents) {
+                if (waiting.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (sorted.size() < graph.nodes.size()) {
+            // Only reachable through hand-edited data: break the cycles by dropping back edges
+            for (Node node : graph.orderedByInsertion(tasks)) {
+                if (waiting.get(node) > 0) {
+                    node.order = graph.nextOrder++;
+                    sorted.add(node);
+                }
+            }
+            int dropped = 0;
+            for (Node node : sorted) {
+                for (Iterator<Node> it = node.prerequisites.iterator(); it.hasNext(); ) {
+                    Node prerequisite = it.next();
+                    if (prerequisite.order > node.order) {
+                        it.remove();
+                        prerequisite.dependents.remove(node);
+                        dropped++;
+                    }
+                }
+            }
+            log.warn("Ignored {} dependency edges closing cycles in project {}", dropped, project.getId());
+        }
+        for (Node node : sorted) {
+            graph.recompute(node);
+        }
+        return graph;
+    }
+
+    private List<Node> orderedByInsertion(List<EmbeddedTask> tasks) {
+        List<Node> ordered = new ArrayList<>(nodes.size());
+        Set<Node> seen = new HashSet<>();
+        for (EmbeddedTask task : tasks) {
+            Node node = nodes.get(task.getId());
+            if (node != null && seen.add(node)) {
+                ordered.add(node);
+            }
+        }
+        return ordered;
+    }
+
+    Node node(String id) {
+        return nodes.get(id);
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Adds a task or takes in a change to its due date or status.
+     */
+    void putTask(EmbeddedTask task) {
+        Node node = nodes.get(task.getId());
+        boolean added = node == null;
+        if (added) {
+            node = new Node(task.getId());
+            node.order = nextOrder++;
+            nodes.put(node.id, node);
+        }
+        Long due = node.due;
+        boolean done = node.done;
+        describe(node, task);
+        if (added || !Objects.equals(due, node.due) || done != node.done) {
+            propagate(List.of(node));
+        }
+    }
+
+    void removeTask(String id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return;
+        }
+        for (Node prerequisite : node.prerequisites) {
+            prerequisite.dependents.remove(node);
+        }
+        List<Node> dependents = new ArrayList<>(node.dependents);
+        for (Node dependent : dependents) {
+            dependent.prerequisites.remove(node);
+        }
+        propagate(dependents);
+    }
+
+    /**
+     * Makes {@code dependentId} depend on {@code prerequisiteId}. Returns
+     * {@code null} when the edge was added (or already existed), otherwise
+     * the ids of the existing path from the dependent back to the
+     * prerequisite that the edge would close into a cycle.
+     */
+    List<String> addEdge(String dependentId, String prerequisiteId) {
+        Node dependent = nodes.get(dependentId);
+        Node prerequisite = nodes.get(prerequisiteId);
+        if (dependent == null || prerequisite == null) {
+            throw new IllegalArgumentException("Unknown task");
+        }
+        if (dependent == prerequisite) {
+            return List.of(dependentId);
+        }
+        if (prerequisite.dependents.contains(dependent)) {
+            return null;
+        }
+        if (prerequisite.order > dependent.order) {
+            List<String> cycle = reorder(prerequisite, dependent);
+            if (cycle != null) {
+                return cycle;
+            }
+        }
+        prerequisite.dependents.add(dependent);
+        dependent.prerequisites.add(prerequisite);
+        propagate(List.of(dependent));
+        return null;
+    }
+
+    void removeEdge(String dependentId, String prerequisiteId) {
+        Node dependent = nodes.get(dependentId);
+        Node prerequisite = nodes.get(prerequisiteId);
+        if (dependent == null || prerequisite == null || !dependent.prerequisites.remove(prerequisite)) {
+            return;
+        }
+        prerequisite.dependents.remove(dependent);
+        propagate(List.of(dependent));
+    }
+
+    /**
+     * Pearce-Kelly: the new edge runs from {@code prerequisite} back to the
+     * earlier {@code dependent}. Collect what the dependent leads to and what
+     * leads to the prerequisite, both within the span between them, and give
+     * those nodes the same order slots with the second group first. Reaching
+     * the prerequisite from the dependent means the edge closes a cycle.
+     */
+    private List<String> reorder(Node prerequisite, Node dependent) {
+        int lower = dependent.order;
+        int upper = prerequisite.order;
+
+        int forwardEpoch = ++visitEpoch;
+        Map<Node, Node> reachedFrom = new HashMap<>();
+        List<Node> forward = new ArrayList<>();
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        dependent.visit = forwardEpoch;
+        stack.push(dependent);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            forward.add(node);
+            for (Node next : node.dependents) {
+                if (next == prerequisite) {
+                    List<String> path = new ArrayList<>();
+                    path.add(prerequisite.id);
+                    for (Node step = node; step != null; step = reachedFrom.get(step)) {
+                        path.add(step.id);
+                    }
+                    Collections.reverse(path);
+                    return path;
+                }
+                if (next.visit != forwardEpoch && next.order < upper) {
+                    next.visit = forwardEpoch;
+                    reachedFrom.put(next, node);
+                    stack.push(next);
+                }
+            }
+        }
+
+        int backwardEpoch = ++visitEpoch;
+        List<Node> backward = new ArrayList<>();
+        prerequisite.visit = backwardEpoch;
+        stack.push(prerequisite);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            backward.add(node);
+            for (Node previous : node.prerequisites) {
+                if (previous.visit != backwardEpoch && previous.order > lower) {
+                    previous.visit = backwardEpoch;
+                    stack.push(previous);
+                }
+            }
+        }
+
+        Comparator<Node> byOrder = Comparator.comparingInt(node -> node.order);
+        forward.sort(byOrder);
+        backward.sort(byOrder);
+        int[] slots = new int[forward.size() + backward.size()];
+        int i = 0;
+        for (Node node : backward) {
+            slots[i++] = node.order;
+        }
+        for (Node node : forward) {
+            slots[i++] = node.order;
+        }
+        Arrays.sort(slots);
+        i = 0;
+        for (Node node : backward) {
+            node.order = slots[i++];
+        }
+        for (Node node : forward) {
+            node.order = slots[i++];
+        }
+        return null;
+    }
+
+    /**
+     * Recomputes the finish of {@code changed} and, in topological order,
+     * of every dependent whose inputs moved; a node whose finish comes out
+     * the same stops the walk along that branch.
+     */
+    private void propagate(Collection<Node> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        int epoch = ++visitEpoch;
+        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt(node -> node.order));
+        for (Node node : changed) {
+            if (node.visit != epoch) {
+                node.visit = epoch;
+                queue.add(node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            Long before = node.finish;
+            recompute(node);
+            if (Objects.equals(before, node.finish)) {
+                continue;
+            }
+            for (Node dependent : node.dependents) {
+                if (dependent.visit != epoch) {
+                    dependent.visit = epoch;
+                    queue.add(dependent);
+                }
+            }
+        }
+    }
+
+    private void recompute(Node node) {
+        node.gate = null;
+        if (node.done) {
+            node.finish = null;
+            return;
+        }
+        Long finish = node.due;
+        for (Node prerequisite : node.prerequisites) {
+            if (prerequisite.finish != null && (finish == null || prerequisite.finish > finish)) {
+                finish = prerequisite.finish;
+                node.gate = prerequisite;
+            }
+        }
+        node.finish = finish;
+    }
+
+    private void describe(Node node, EmbeddedTask task) {
+        node.done = task.getStatus() != null && task.getStatus().isDone();
+        node.due = ReminderService.parseDueDate(task.getDueDate());
+    }
+
+    /**
+     * The chain ending at the open task with the latest projected finish,
+     * first prerequisite first; empty when no open task has a due date.
+     */
+    List<Node> criticalPath() {
+        Node last = null;
+        for (Node node : nodes.values()) {
+            if (node.finish != null && (last == null || node.finish > last.finish
+                    || node.finish.equals(last.finish) && node.order > last.order)) {
+                last = node;
+            }
+        }
+        List<Node> path = new ArrayList<>();
+        for (Node step = last; step != null; step = step.gate) {
+            path.add(step);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Open tasks projected to finish after their own due date because a
+     * prerequisite is due later, in topological order.
+     */
+    List<Node> late() {
+        List<Node> late = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (node.gate != null && node.due != null) {
+                late.add(node);
+            }
+        }
+        late.sort(Comparator.comparingInt(node -> node.order));
+        return late;
+    }
+}
@@ -0,0 +1,160 @@
+package com.taskmaster.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fractional rank keys for ordering tasks within a board column.
+ *
+ * A key is a base-62 fraction written with the digits {@code 0-9A-Za-z},
+ * which sort in the same order as plain string comparison (and so in the
+ * same order in Mongo). There is always a key strictly between any two
+ * keys, so moving an item only ever writes that item's key; its neighbours
+ * keep theirs. Keys never end in {@code 0}, which keeps room below every
+ * key. Inserting repeatedly at the same spot grows the key by one
+ * character per five to six inserts (five when each goes just below the
+ * last); adding at either end does not.
+ */
+public final class FractionalRank {
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    // Appends count up in this many digits, leaving room for 62^3 of them per leading digit
+    private static final int APPEND_WIDTH = 4;
+
+    private FractionalRank() {}
+
+    /**
+     * A key sorting after {@code before} and before {@code after}; either
+     * may be {@code null} for an open end.
+     */
+    public static String between(String before, String after) {
+        String low = before != null ? before : "";
+        if (!isValid(low) || (after != null && !isValid(after))) {
+            throw new IllegalArgumentException("Invalid rank key");
+        }
+        if (after != null && low.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Rank " + before + " is not before " + after);
+        }
+        return midpoint(low, after);
+    }
+
+    /**
+     * A key sorting after {@code before}, for appending at the end. Rather
+     * than halving the space left above, which adds a character every few
+     * appends, this counts up from {@code before} in at least four digits,
+     * so millions of appends stay at four characters.
+     */
+    public static String after(String before) {
+        if (before == null || before.isEmpty()) {
+            return between(null, null);
+        }
+        if (!isValid(before)) {
+            throw new IllegalArgumentException("Invalid rank key");
+        }
+        char[] digits = Arrays.copyOf(before.toCharArray(), Math.max(before.length(), APPEND_WIDTH));
+        Arrays.fill(digits, before.length(), digits.length, DIGITS.charAt(0));
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]);
+            if (digit + 1 < BASE) {
+                // Everything after the incremented digit would be zeros, which keys drop
+                digits[i] = DIGITS.charAt(digit + 1);
+                return new String(digits, 0, i + 1);
+            }
+        }
+        return between(before, null);
+    }
+
+    /**
+     * A key sorting before {@code after}, for inserting at the top; counts
+     * down the same way {@link #after} counts up.
+     */
+    public static String before(String after) {
+        if (after == null || after.isEmpty()) {
+            return between(null, null);
+        }
+        if (!isValid(after)) {
+            throw new IllegalArgumentException("Invalid rank key");
+        }
+        char[] digits = Arrays.copyOf(after.toCharArray(), Math.max(after.length(), APPEND_WIDTH));
+        Arrays.fill(digits, after.length(), digits.length, DIGITS.charAt(0));
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]);
+            if (digit > 0) {
+                digits[i] = DIGITS.charAt(digit - 1);
+                int end = digits.length;
+                while (end > 0 && digits[end - 1] == DIGITS.charAt(0)) {
+                    end--;
+                }
+                if (end > 0) {
+                    return new String(digits, 0, end);
+                }
+                break;
+            }
+            digits[i] = DIGITS.charAt(BASE - 1);
+        }
+        return between(null, after);
+    }
+
+    /**
+     * {@code count} ascending keys between {@code before} and {@code after},
+     * picked by bisection so they stay short: about log62(count) characters
+     * longer than the bounds, rather than growing with every key as
+     * repeated appends would.
+     */
+    public static List<String> between(String before, String after, int count) {
+        List<String> keys = new ArrayList<>(count);
+        spread(before, after, count, keys);
+        return keys;
+    }
+
+    private static void spread(String before, String after, int count, List<String> keys) {
+        if (count <= 0) {
+            return;
+        }
+        String middle = between(before, after);
+        int lower = (count - 1) / 2;
+        spread(before, middle, lower, keys);
+        keys.add(middle);
+        spread(middle, after, count - 1 - lower, keys);
+    }
+
+    public static boolean isValid(String key) {
+        if (key == null) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return key.isEmpty() || key.charAt(key.length() - 1) != DIGITS.charAt(0);
+    }
+
+    private static String midpoint(String low, String high) {
+        if (high != null) {
+            // Shared leading digits (low padded with zeros) carry over unchanged
+            int shared = 0;
+            while (shared < high.length()
+                    && (shared < low.length() ? low.charAt(shared) : DIGITS.charAt(0)) == high.charAt(shared)) {
+                shared++;
+            }
+            if (shared > 0) {
+                return high.substring(0, shared)
+                    + midpoint(low.substring(Math.min(shared, low.length())), high.substring(shared));
+            }
+        }
+        int lowDigit = low.isEmpty() ? 0 : DIGITS.indexOf(low.charAt(0));
+        int highDigit = high != null ? DIGITS.indexOf(high.charAt(0)) : BASE;
+        if (highDigit - lowDigit > 1) {
+            return String.valueOf(DIGITS.charAt((lowDigit + highDigit) / 2));
+        }
+        // Adjacent first digits: the high digit alone fits if high goes on after it
+        if (high != null && high.length() > 1) {
+            return high.substring(0, 1);
+        }
+        return DIGITS.charAt(lowDigit) + midpoint(low.isEmpty() ? "" : low.substring(1), null);
+    }
+}
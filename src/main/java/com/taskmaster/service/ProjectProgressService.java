@@ -0,0 +1,309 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.model.Projections;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Priority;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.TaskStatus;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project progress derived from the project's tasks.
+ *
+ * Each project stores running totals of its tasks and of the completed
+ * ones, both as plain counts and weighted by priority (low 1 up to urgent
+ * 4, unset counting as medium). The task write paths hand each change in
+ * while they modify the project, so the totals and the {@code progress}
+ * percentage computed from them are saved in the same write as the task
+ * and nothing is recounted on read. {@code taskmaster.progress.weighting}
+ * picks which pair of totals {@code progress} follows.
+ *
+ * Tasks spilled to the overflow collection are still part of the project
+ * and stay in the totals. After startup, {@link #backfill} counts every
+ * project saved before the totals existed, including its archived tasks,
+ * and recomputes {@code progress} where it was computed with the other
+ * weighting; a write to such a project before the backfill reaches it
+ * counts it first.
+ */
+@Service
+public class ProjectProgressService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectProgressService.class);
+
+    private static final String WEIGHTING_PRIORITY = "priority";
+
+    @Autowired
+    private TaskOverflowService taskOverflowService;
+
+    @Autowired
+    private UserWriteQueue userWriteQueue;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${taskmaster.progress.weighting:count}")
+    private String weighting;
+
+    @Value("${taskmaster.progress.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    /**
+     * What one task adds to its project's totals. Take it before changing
+     * a task and pass it to {@link #taskChanged} afterwards.
+     */
+    public static class Contribution {
+        final boolean done;
+        final int weight;
+
+        private Contribution(boolean done, int weight) {
+            this.done = done;
+            this.weight = weight;
+        }
+    }
+
+    public static Contribution contribution(EmbeddedTask task) {
+        return new Contribution(task.getStatus() != null && task.getStatus().isDone(), weight(task.getPriority()));
+    }
+
+    /**
+     * Starts the totals of a new project.
+     */
+    public void start(Project project) {
+        project.setTaskCount(0);
+        project.setCompletedTaskCount(0);
+        project.setTaskWeight(0);
+        project.setCompletedTaskWeight(0);
+        project.setProgress(0);
+    }
+
+    /**
+     * Applies a task change to {@code project}'s totals: {@code before} is
+     * the task's contribution before the change ({@code null} for a new
+     * task) and {@code after} the task as it is now ({@code null} once
+     * removed). Stamps the project when its progress moved. Returns whether
+     * it did.
+     */
+    public boolean taskChanged(UserWriteQueue.UserWriteContext ctx, Project project, Contribution before,
+                               EmbeddedTask after) {
+        Integer progress = project.getProgress();
+        if (!isCounted(project)) {
+            // The project's tasks already reflect the change
+            count(ctx.user().getUserId(), project);
+        } else {
+            if (before != null) {
+                add(project, before, -1);
+            }
+            if (after != null) {
+                add(project, contribution(after), 1);
+            }
+            project.setProgress(progress(project));
+        }
+        if (Objects.equals(progress, project.getProgress())) {
+            return false;
+        }
+        ctx.stamp(project);
+        return true;
+    }
+
+    /**
+     * Counts a project saved before the totals existed; does nothing for one
+     * that already has them.
+     */
+    public void ensureCounted(String userId, Project project) {
+        if (!isCounted(project)) {
+            count(userId, project);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void backfillAfterStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                backfill();
+            } catch (Exception e) {
+                log.warn("Project progress backfill stopped: {}", e.getMessage());
+            }
+        }, "progress-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Brings every project's totals and progress in line with its tasks and
+     * the configured weighting. Users are found with a cursor over the
+     * stored totals only; the ones with a project to fix are rewritten
+     * through their write lane, one at a time, so request writes keep
+     * their place. Once done, it only reads.
+     */
+    public Map<String, Object> backfill() throws Exception {
+        long start = System.nanoTime();
+        int users = 0;
+        int updatedUsers = 0;
+        int updatedProjects = 0;
+        for (Document user : mongoTemplate.getCollection("users").find()
+                .projection(Projections.include("projects.taskCount", "projects.completedTaskCount",
+                    "projects.taskWeight", "projects.completedTaskWeight", "projects.progress"))
+                .batchSize(500)) {
+            users++;
+            if (!(user.get("projects") instanceof List<?> projects)
+                    || projects.stream().noneMatch(project -> project instanceof Document document && isStale(document))) {
+                continue;
+            }
+            String userId = user.getString("_id");
+            int updated = userWriteQueue.write(userId, ctx -> {
+                if (ctx.user() == null || ctx.user().getProjects() == null) {
+                    return 0;
+                }
+                int reconciled = 0;
+                for (Project project : ctx.user().getProjects()) {
+                    if (reconcile(userId, project)) {
+                        ctx.stamp(project);
+                        reconciled++;
+                    }
+                }
+                if (reconciled > 0) {
+                    ctx.changed();
+                }
+                return reconciled;
+            });
+            if (updated > 0) {
+                updatedUsers++;
+                updatedProjects += updated;
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("updatedUsers", updatedUsers);
+        result.put("updatedProjects", updatedProjects);
+        result.put("weighting", weightedByPriority() ? WEIGHTING_PRIORITY : "count");
+        result.put("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Project progress backfill: {}", result);
+        return result;
+    }
+
+    /**
+     * Sets the totals and progress on a project document built outside the
+     * write paths, such as generated data, from its embedded tasks.
+     */
+    public void count(Document project) {
+        Project totals = new Project();
+        start(totals);
+        if (project.get("tasks") instanceof List<?> tasks) {
+            for (Object task : tasks) {
+                if (task instanceof Document document) {
+                    add(totals, contribution(document), 1);
+                }
+            }
+        }
+        project.append("taskCount", totals.getTaskCount())
+            .append("completedTaskCount", totals.getCompletedTaskCount())
+            .append("taskWeight", totals.getTaskWeight())
+            .append("completedTaskWeight", totals.getCompletedTaskWeight())
+            .append("progress", progress(totals));
+    }
+
+    /**
+     * The percentage of {@code completed} out of {@code total}, rounded to
+     * the nearest whole number; 0 for no tasks.
+     */
+    public static int percent(long completed, long total) {
+        return total > 0 ? (int) Math.round(completed * 100.0 / total) : 0;
+    }
+
+    public boolean weightedByPriority() {
+        return WEIGHTING_PRIORITY.equalsIgnoreCase(weighting);
+    }
+
+    private int progress(Project project) {
+        return weightedByPriority()
+            ? percent(project.getCompletedTaskWeight(), project.getTaskWeight())
+            : percent(project.getCompletedTaskCount(), project.getTaskCount());
+    }
+
+    // Counts an uncounted project, or recomputes progress under the current weighting
+    private boolean reconcile(String userId, Project project) {
+        Integer progress = project.getProgress();
+        if (!isCounted(project)) {
+            count(userId, project);
+            return true;
+        }
+        project.setProgress(progress(project));
+        return !Objects.equals(progress, project.getProgress());
+    }
+
+    // A stored project the backfill has to reconcile
+    private boolean isStale(Document project) {
+        if (!(project.get("taskCount") instanceof Number taskCount)
+                || !(project.get("completedTaskCount") instanceof Number completedTaskCount)
+                || !(project.get("taskWeight") instanceof Number taskWeight)
+                || !(project.get("completedTaskWeight") instanceof Number completedTaskWeight)) {
+            return true;
+        }
+        int expected = weightedByPriority()
+            ? percent(completedTaskWeight.longValue(), taskWeight.longValue())
+            : percent(completedTaskCount.longValue(), taskCount.longValue());
+        return !(project.get("progress") instanceof Number progress) || progress.intValue() != expected;
+    }
+
+    private static boolean isCounted(Project project) {
+        return project.getTaskCount() != null && project.getCompletedTaskCount() != null
+            && project.getTaskWeight() != null && project.getCompletedTaskWeight() != null;
+    }
+
+    private void count(String userId, Project project) {
+        start(project);
+        if (project.getTasks() != null) {
+            for (EmbeddedTask task : project.getTasks()) {
+                add(project, contribution(task), 1);
+            }
+        }
+        if (project.getArchivedTaskCount() != null && project.getArchivedTaskCount() > 0) {
+            taskOverflowService.forEachArchivedTask(userId, project.getId(), task -> add(project, contribution(task), 1),
+                "statusCode", "status", "priorityCode", "priority");
+        }
+        project.setProgress(progress(project));
+    }
+
+    private static void add(Project project, Contribution contribution, int sign) {
+        project.setTaskCount(Math.max(0, project.getTaskCount() + sign));
+        project.setTaskWeight(Math.max(0, project.getTaskWeight() + sign * contribution.weight));
+        if (contribution.done) {
+            project.setCompletedTaskCount(Math.max(0, project.getCompletedTaskCount() + sign));
+            project.setCompletedTaskWeight(Math.max(0, project.getCompletedTaskWeight() + sign * contribution.weight));
+        }
+    }
+
+    // Tasks read straight from BSON, such as archived ones
+    private static Contribution contribution(Document task) {
+        Object statusCode = task.get("statusCode");
+        TaskStatus status = statusCode instanceof Number number
+            ? TaskStatus.fromCode(number.intValue())
+            : TaskStatus.parse(Objects.toString(task.get("status"), null));
+        Object priorityCode = task.get("priorityCode");
+        Priority priority = priorityCode instanceof Number number
+            ? Priority.fromCode(number.intValue())
+            : Priority.parse(Objects.toString(task.get("priority"), null));
+        return new Contribution(status != null && status.isDone(), weight(priority));
+    }
+
+    private static int weight(Priority priority) {
+        return (priority != null ? priority : Priority.MEDIUM).code() + 1;
+    }
+}
@@ -0,0 +1,527 @@
+package com.taskmaster.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+import com.taskmaster.model.TaskStatus;
+import org.bson.BsonValue;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonArray;
+import org.bson.RawBsonDocument;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Read-only pass-through from stored users documents to JSON.
+ *
+ * The busiest list endpoints only ever re-encode what they read, so instead
+ * of mapping the document onto the typed model and letting Jackson walk it
+ * again, they fetch the projected document as {@link RawBsonDocument} and
+ * walk its bytes straight into the response: string values go out as the
+ * stored UTF-8, field names come from a small cache, and dates and ids are
+ * formatted into a scratch buffer, so copying allocates next to nothing.
+ *
+ * The JSON matches what the typed model renders: embedded entities get both
+ * {@code _id} and {@code id}, nulls inside entities are dropped, dates use
+ * Jackson's default ISO format, and the stored status/priority codes stay
+ * internal.
+ */
+@Service
+public class RawUserDocumentService {
+
+    private static final String COLLECTION = "users";
+
+    // Stored alongside the labels for the typed model; never part of the API
+    private static final Set<String> INTERNAL_FIELDS = Set.of("statusCode", "priorityCode");
+
+    private static final byte STRING = 0x02;
+    private static final byte DOCUMENT = 0x03;
+    private static final byte ARRAY = 0x04;
+    private static final byte NULL = 0x0A;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final long GREGORIAN_CUTOVER_MILLIS = -12_219_292_800_000L;
+
+    // Users documents use a few dozen distinct field names; collisions just replace
+    private static final int NAME_CACHE_SIZE = 1024;
+    private final FieldName[] names = new FieldName[NAME_CACHE_SIZE];
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Writes one field of an embedded entity in place of the stored value.
+     * Sees every stored field before {@code fields} filtering is applied;
+     * returns false to let the field be copied (or filtered) as usual.
+     */
+    public interface FieldOverride {
+        boolean write(String name, BsonSource value, JsonGenerator json) throws IOException;
+
+        /** Called once the stored fields are written, to append anything held back. */
+        default void finish(JsonGenerator json) throws IOException {}
+    }
+
+    public interface FieldVisitor {
+        void visit(String name, BsonSource value) throws IOException;
+    }
+
+    /** A response body that writes itself to the response's JSON generator. */
+    public interface JsonBody {
+        void write(JsonGenerator json) throws IOException;
+    }
+
+    /**
+     * One BSON value inside a raw document's bytes. Sources handed to
+     * visitors and overrides are reused for each field, so they must not
+     * be kept past the call.
+     */
+    public static final class BsonSource {
+        private final byte[] bytes;
+        private final char[] scratch;
+        private byte type;
+        private int offset;
+
+        private BsonSource(byte[] bytes, char[] scratch) {
+            this.bytes = bytes;
+            this.scratch = scratch;
+        }
+
+        private BsonSource child() {
+            return new BsonSource(bytes, scratch);
+        }
+
+        private BsonSource set(byte type, int offset) {
+            this.type = type;
+            this.offset = offset;
+            return this;
+        }
+
+        /** The document itself, as a value. */
+        public static BsonSource of(RawBsonDocument document) {
+            ByteBuf buffer = document.getByteBuffer();
+            return new BsonSource(buffer.array(), new char[32]).set(DOCUMENT, buffer.position());
+        }
+
+        /** The value of a top-level field, or null if it is absent. */
+        public static BsonSource at(RawBsonDocument document, String field) {
+            BsonSource root = of(document);
+            byte[] name = field.getBytes(StandardCharsets.UTF_8);
+            int position = root.offset + 4;
+            while (root.bytes[position] != 0) {
+                byte type = root.bytes[position];
+                int nameStart = position + 1;
+                int nameEnd = cstringEnd(root.bytes, nameStart);
+                int value = nameEnd + 1;
+                if (Arrays.equals(root.bytes, nameStart, nameEnd, name, 0, name.length)) {
+                    return root.set(type, value);
+                }
+                position = value + valueLength(type, root.bytes, value);
+            }
+            return null;
+        }
+
+        public boolean isString() {
+            return type == STRING;
+        }
+
+        public String stringValue() {
+            int length = int32(bytes, offset);
+            return new String(bytes, offset + 4, length - 1, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class FieldName {
+        final byte[] utf8;
+        final String name;
+        final SerializedString json;
+
+        FieldName(byte[] bytes, int start, int end) {
+            this.utf8 = Arrays.copyOfRange(bytes, start, end);
+            this.name = new String(utf8, StandardCharsets.UTF_8);
+            this.json = new SerializedString(name);
+        }
+
+        boolean matches(byte[] bytes, int start, int end) {
+            return Arrays.equals(utf8, 0, utf8.length, bytes, start, end);
+        }
+    }
+
+    /** Loads only the given top-level fields of a user, undecoded. */
+    public RawBsonDocument find(String userId, String... fields) {
+        Document projection = new Document();
+        for (String field : fields) {
+            projection.put(field, 1);
+        }
+        return mongoTemplate.getCollection(COLLECTION)
+            .withDocumentClass(RawBsonDocument.class)
+            .find(new Document("_id", userId))
+            .projection(projection)
+            .first();
+    }
+
+    /**
+     * Loads a user's teams (id and name only) and projects without their
+     * task arrays, undecoded. Each project instead carries
+     * {@code taskCounts} (total, per status and overdue, with overdue meaning
+     * not done and due before {@code today}). The counts are computed by an
+     * aggregation, so the tasks never leave the server; the stored
+     * {@code progress} comes along as it is. Tasks spilled to the overflow
+     * collection are not counted; {@code archivedTaskCount} still reports how
+     * many there are. With {@code teamId}, only that team's projects are
+     * returned.
+     */
+    public RawBsonDocument findProjectSummaries(String userId, String teamId, LocalDate today) {
+        Object projects = new Document("$ifNull", List.of("$projects", List.of()));
+        if (teamId != null) {
+            projects = new Document("$filter", new Document("input", projects).append("as", "project")
+                .append("cond", new Document("$eq", List.of("$$project.teamId", teamId))));
+        }
+
+        Document tasks = new Document("$ifNull", List.of("$$project.tasks", List.of()));
+        Document counts = new Document("total", new Document("$size", tasks));
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.append(countName(status), count(tasks, new Document("$eq", List.of("$$task.statusCode", status.code()))));
+        }
+        counts.append("overdue", count(tasks, new Document("$and", List.of(
+            new Document("$ne", List.of("$$task.statusCode", TaskStatus.DONE.code())),
+            new Document("$gt", List.of("$$task.dueDate", "")),
+            new Document("$lt", List.of(new Document("$substrCP", List.of("$$task.dueDate", 0, 10)), today.toString()))))));
+
+        List<Document> pipeline = List.of(
+            new Document("$match", new Document("_id", userId)),
+            new Document("$project", new Document("_id", 1)
+                .append("teams", mapEach(new Document("$ifNull", List.of("$teams", List.of())), "team",
+                    new Document("_id", "$$team._id").append("name", "$$team.name")))
+                .append("projects", mapEach(projects, "project",
+                    new Document("$mergeObjects", List.of("$$project", new Document("taskCounts", counts)))))),
+            new Document("$project", new Document("projects.tasks", 0)));
+        return mongoTemplate.getCollection(COLLECTION)
+            .withDocumentClass(RawBsonDocument.class)
+            .aggregate(pipeline)
+            .first();
+    }
+
+    private static String countName(TaskStatus status) {
+        return switch (status) {
+            case TODO -> "todo";
+            case IN_PROGRESS -> "inProgress";
+            case REVIEW -> "review";
+            case DONE -> "done";
+        };
+    }
+
+    private static Document count(Document tasks, Document condition) {
+        return new Document("$size", new Document("$filter",
+            new Document("input", tasks).append("as", "task").append("cond", condition)));
+    }
+
+    private static Document mapEach(Object input, String as, Object in) {
+        return new Document("$map", new Document("input", input).append("as", as).append("in", in));
+    }
+
+    /** Finds an embedded entity by id (or legacy {@code id}) without decoding its siblings. */
+    public static RawBsonDocument findEntity(RawBsonDocument user, String field, String id) {
+        BsonValue array = user.get(field);
+        if (array == null || !array.isArray()) {
+            return null;
+        }
+        for (BsonValue element : (RawBsonArray) array.asArray()) {
+            if (!element.isDocument()) {
+                continue;
+            }
+            RawBsonDocument entity = (RawBsonDocument) element.asDocument();
+            if (id.equals(stringField(entity, "_id")) || id.equals(stringField(entity, "id"))) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    public static String stringField(RawBsonDocument document, String field) {
+        BsonValue value = document.get(field);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    /** Parses a comma-separated {@code fields} parameter; null means all fields. */
+    public static Set<String> fields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                result.add(field.trim());
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Wraps a transcoding body as a response. The body is run by
+     * {@link com.taskmaster.config.JsonBodyMessageConverter} when the
+     * response is written (as JSON, CBOR or Smile, whichever was
+     * negotiated), so all Mongo reads must happen before this.
+     */
+    public ResponseEntity<JsonBody> stream(JsonBody body) {
+        return ResponseEntity.ok(body);
+    }
+
+    /** Visits the fields of the document value in stored order. */
+    public void forEachField(BsonSource document, FieldVisitor visitor) throws IOException {
+        byte[] bytes = document.bytes;
+        BsonSource value = document.child();
+        int position = document.offset + 4;
+        while (bytes[position] != 0) {
+            byte type = bytes[position];
+            int nameEnd = cstringEnd(bytes, position + 1);
+            FieldName name = name(bytes, position + 1, nameEnd);
+            int valueOffset = nameEnd + 1;
+            visitor.visit(name.name, value.set(type, valueOffset));
+            position = valueOffset + valueLength(type, bytes, valueOffset);
+        }
+    }
+
+    /** Copies an array of embedded entities, or writes [] if the source is null or not an array. */
+    public void copyEntities(BsonSource array, JsonGenerator json, Set<String> fields,
+                             Supplier<FieldOverride> overrides) throws IOException {
+        json.writeStartArray();
+        if (array != null && array.type == ARRAY) {
+            byte[] bytes = array.bytes;
+            BsonSource element = array.child();
+            int position = array.offset + 4;
+            while (bytes[position] != 0) {
+                byte type = bytes[position];
+                int value = cstringEnd(bytes, position + 1) + 1;
+                if (type == DOCUMENT) {
+                    copyEntity(element.set(type, value), json, fields, overrides != null ? overrides.get() : null);
+                }
+                position = value + valueLength(type, bytes, value);
+            }
+        }
+        json.writeEndArray();
+    }
+
+    /**
+     * Copies an embedded entity document. {@code fields} limits the entity's
+     * own fields (ids are always kept); nested task arrays are copied as
+     * entities in full.
+     */
+    public void copyEntity(BsonSource document, JsonGenerator json, Set<String> fields,
+                           FieldOverride override) throws IOException {
+        byte[] bytes = document.bytes;
+        BsonSource value = document.child();
+        json.writeStartObject();
+        boolean idWritten = false;
+        int position = document.offset + 4;
+        while (bytes[position] != 0) {
+            byte type = bytes[position];
+            int nameEnd = cstringEnd(bytes, position + 1);
+            FieldName name = name(bytes, position + 1, nameEnd);
+            int valueOffset = nameEnd + 1;
+            position = valueOffset + valueLength(type, bytes, valueOffset);
+            value.set(type, valueOffset);
+
+            boolean isId = name.name.equals("_id") || name.name.equals("id");
+            if (type == NULL || INTERNAL_FIELDS.contains(name.name)) {
+                continue;
+            }
+            if (isId) {
+                // _id wins over a legacy id; both are rendered, as the typed model does
+                if (!idWritten && type == STRING) {
+                    int length = int32(bytes, valueOffset);
+                    json.writeFieldName("_id");
+                    json.writeUTF8String(bytes, valueOffset + 4, length - 1);
+                    json.writeFieldName("id");
+                    json.writeUTF8String(bytes, valueOffset + 4, length - 1);
+                    idWritten = true;
+                }
+            } else if (override != null && override.write(name.name, value, json)) {
+                continue;
+            } else if (fields != null && !fields.contains(name.name)) {
+                continue;
+            } else if (name.name.equals("tasks") && type == ARRAY) {
+                json.writeFieldName(name.json);
+                copyEntities(value, json, null, null);
+            } else {
+                json.writeFieldName(name.json);
+                copyValue(value, json);
+            }
+        }
+        if (override != null) {
+            override.finish(json);
+        }
+        json.writeEndObject();
+    }
+
+    /** Copies any BSON value as JSON. */
+    public void copyValue(BsonSource value, JsonGenerator json) throws IOException {
+        byte[] bytes = value.bytes;
+        int offset = value.offset;
+        switch (value.type) {
+            case 0x01 -> json.writeNumber(Double.longBitsToDouble(int64(bytes, offset)));
+            case STRING -> json.writeUTF8String(bytes, offset + 4, int32(bytes, offset) - 1);
+            case DOCUMENT, ARRAY -> {
+                boolean isArray = value.type == ARRAY;
+                if (isArray) {
+                    json.writeStartArray();
+                } else {
+                    json.writeStartObject();
+                }
+                BsonSource element = value.child();
+                int position = offset + 4;
+                while (bytes[position] != 0) {
+                    byte type = bytes[position];
+                    int nameEnd = cstringEnd(bytes, position + 1);
+                    if (!isArray) {
+                        json.writeFieldName(name(bytes, position + 1, nameEnd).json);
+                    }
+                    int valueOffset = nameEnd + 1;
+                    copyValue(element.set(type, valueOffset), json);
+                    position = valueOffset + valueLength(type, bytes, valueOffset);
+                }
+                if (isArray) {
+                    json.writeEndArray();
+                } else {
+                    json.writeEndObject();
+                }
+            }
+            case 0x07 -> {
+                char[] chars = value.scratch;
+                for (int i = 0; i < 12; i++) {
+                    chars[i * 2] = HEX[(bytes[offset + i] >> 4) & 0xf];
+                    chars[i * 2 + 1] = HEX[bytes[offset + i] & 0xf];
+                }
+                json.writeString(chars, 0, 24);
+            }
+            case 0x08 -> json.writeBoolean(bytes[offset] != 0);
+            case 0x09 -> writeDate(int64(bytes, offset), value.scratch, json);
+            case 0x10 -> json.writeNumber(int32(bytes, offset));
+            case 0x12 -> json.writeNumber(int64(bytes, offset));
+            case 0x13 -> json.writeNumber(Decimal128.fromIEEE754BIDEncoding(
+                int64(bytes, offset + 8), int64(bytes, offset)).bigDecimalValue());
+            // Nulls, and binary, regex and the like, which never appear in users documents
+            default -> json.writeNull();
+        }
+    }
+
+    private FieldName name(byte[] bytes, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+        FieldName cached = names[slot];
+        if (cached != null && cached.matches(bytes, start, end)) {
+            return cached;
+        }
+        FieldName created = new FieldName(bytes, start, end);
+        names[slot] = created;
+        return created;
+    }
+
+    // Same output as Jackson's default StdDateFormat for java.util.Date, e.g. 2024-05-01T09:30:00.000+00:00
+    private static void writeDate(long millis, char[] chars, JsonGenerator json) throws IOException {
+        long days = Math.floorDiv(millis, 86_400_000L);
+        int millisOfDay = (int) Math.floorMod(millis, 86_400_000L);
+
+        // Civil date from days since the epoch (proleptic Gregorian)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        // StdDateFormat switches to the Julian calendar before the 1582 cutover
+        if (millis < GREGORIAN_CUTOVER_MILLIS || year > 9999) {
+            json.writeString(new StdDateFormat().format(new Date(millis)));
+            return;
+        }
+
+        digits(chars, 0, (int) year, 4);
+        chars[4] = '-';
+        digits(chars, 5, month, 2);
+        chars[7] = '-';
+        digits(chars, 8, day, 2);
+        chars[10] = 'T';
+        digits(chars, 11, millisOfDay / 3_600_000, 2);
+        chars[13] = ':';
+        digits(chars, 14, millisOfDay / 60_000 % 60, 2);
+        chars[16] = ':';
+        digits(chars, 17, millisOfDay / 1000 % 60, 2);
+        chars[19] = '.';
+        digits(chars, 20, millisOfDay % 1000, 3);
+        "+00:00".getChars(0, 6, chars, 23);
+        json.writeString(chars, 0, 29);
+    }
+
+    private static void digits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int cstringEnd(byte[] bytes, int start) {
+        int end = start;
+        while (bytes[end] != 0) {
+            end++;
+        }
+        return end;
+    }
+
+    private static int int32(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff)
+            | (bytes[offset + 1] & 0xff) << 8
+            | (bytes[offset + 2] & 0xff) << 16
+            | (bytes[offset + 3] & 0xff) << 24;
+    }
+
+    private static long int64(byte[] bytes, int offset) {
+        return (int32(bytes, offset) & 0xffffffffL) | (long) int32(bytes, offset + 4) << 32;
+    }
+
+    // Size of a value in bytes, per the BSON spec, so unused fields are skipped without reading them
+    private static int valueLength(byte type, byte[] bytes, int offset) {
+        switch (type) {
+            case 0x01: case 0x09: case 0x11: case 0x12:
+                return 8;
+            case STRING: case 0x0D: case 0x0E:
+                return 4 + int32(bytes, offset);
+            case DOCUMENT: case ARRAY: case 0x0F:
+                return int32(bytes, offset);
+            case 0x05:
+                return 5 + int32(bytes, offset);
+            case 0x07:
+                return 12;
+            case 0x08:
+                return 1;
+            case 0x0B: {
+                int patternEnd = cstringEnd(bytes, offset);
+                return cstringEnd(bytes, patternEnd + 1) + 1 - offset;
+            }
+            case 0x0C:
+                return 4 + int32(bytes, offset) + 12;
+            case 0x10:
+                return 4;
+            case 0x13:
+                return 16;
+            default:
+                // Null, undefined, min key and max key carry no value
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Updates;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends "due soon" and "overdue" notifications for tasks with a due date.
+ *
+ * Each pending reminder is a document in {@code task_reminders} holding the
+ * time its next notification fires. Reminders firing within the horizon are
+ * kept in a {@link TimingWheel}; the rest stay in Mongo and are pulled in by
+ * range queries on the {@code fireAt} index as the horizon moves forward, so
+ * neither startup nor refills scan users or tasks.
+ *
+ * Task writes call {@link #track} and {@link #cancel}. All reminder state,
+ * both the wheel and the collection, is changed on the single reminder thread,
+ * so request threads only enqueue. When a reminder fires, the notification
+ * is appended to the user's {@code userdata.notifications} inside their
+ * write lane, after re-checking the task: a task that has been deleted,
+ * completed or given a new due date since is dropped or rescheduled instead.
+ */
+@Service
+public class ReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderService.class);
+
+    public static final String COLLECTION = "task_reminders";
+
+    static final String DUE_SOON = "due_soon";
+    static final String OVERDUE = "overdue";
+    static final String SENT = "sent";
+
+    // Date.toString(), which is how dates written as BSON dates by the seeders read back
+    private static final DateTimeFormatter DATE_TO_STRING =
+        DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserWriteQueue userWriteQueue;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskmaster.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${taskmaster.reminders.due-soon-lead-minutes:1440}")
+    private long dueSoonLeadMinutes;
+
+    @Value("${taskmaster.reminders.horizon-minutes:360}")
+    private long horizonMinutes;
+
+    @Value("${taskmaster.reminders.tick-ms:1000}")
+    private long tickMs;
+
+    private ScheduledExecutorService executor;
+
+    // Only touched on the reminder thread
+    private TimingWheel<String, Reminder> wheel;
+    private long loadedUntil;
+
+    private Counter dueSoonSent;
+    private Counter overdueSent;
+
+    @PostConstruct
+    void start() {
+        try {
+            mongoTemplate.indexOps(COLLECTION).ensureIndex(new Index().on("fireAt", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Could not ensure indexes on {}: {}", COLLECTION, e.getMessage());
+        }
+        if (!enabled) {
+            return;
+        }
+
+        // 64 slots over 4 levels: 2^24 ticks, about 194 days at one-second ticks
+        wheel = new TimingWheel<>(tickMs, 64, 4, System.currentTimeMillis());
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("taskmaster.reminders.scheduled", this, service -> service.wheel.size())
+            .description("Reminders held in the timing wheel")
+            .register(meterRegistry);
+        dueSoonSent = sentCounter(DUE_SOON);
+        overdueSent = sentCounter(OVERDUE);
+
+        executor.execute(() -> refill(System.currentTimeMillis()));
+        executor.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Starts, moves or stops the reminder for a task after its due date or
+     * status may have changed. A reminder whose due date is unchanged keeps
+     * its progress, so editing a task does not repeat notifications already
+     * sent.
+     */
+    public void track(String userId, String projectId, EmbeddedTask task) {
+        if (!enabled || task == null || task.getId() == null) {
+            return;
+        }
+        Long dueAt = parseDueDate(task.getDueDate());
+        if (dueAt == null || (task.getStatus() != null && task.getStatus().isDone())) {
+            cancel(userId, task.getId());
+            return;
+        }
+        String taskId = task.getId();
+        executor.execute(() -> {
+            try {
+                schedule(userId, taskId, projectId, dueAt);
+            } catch (Exception e) {
+                log.warn("Failed to schedule reminder for task {} of {}: {}", taskId, userId, e.getMessage());
+            }
+        });
+    }
+
+    public void cancel(String userId, String taskId) {
+        if (!enabled || taskId == null) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                String key = key(userId, taskId);
+                wheel.cancel(key);
+                mongoTemplate.getCollection(COLLECTION).deleteOne(Filters.eq("_id", key));
+            } catch (Exception e) {
+                log.warn("Failed to cancel reminder for task {} of {}: {}", taskId, userId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Stops the reminders of every task in a project, including archived
+     * ones, once the project is deleted.
+     */
+    public void cancelProject(String userId, String projectId) {
+        if (!enabled || projectId == null) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                Bson filter = Filters.and(Filters.eq("userId", userId), Filters.eq("projectId", projectId));
+                for (Document reminder : mongoTemplate.getCollection(COLLECTION).find(filter)
+                        .projection(Projections.include("_id"))) {
+                    wheel.cancel(reminder.getString("_id"));
+                }
+                mongoTemplate.getCollection(COLLECTION).deleteMany(filter);
+            } catch (Exception e) {
+                log.warn("Failed to cancel reminders for project {} of {}: {}", projectId, userId, e.getMessage());
+            }
+        });
+    }
+
+    private void schedule(String userId, String taskId, String projectId, long dueAt) {
+        String key = key(userId, taskId);
+        if (mongoTemplate.getCollection(COLLECTION).countDocuments(
+                Filters.and(Filters.eq("_id", key), Filters.eq("dueAt", new Date(dueAt)))) > 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long dueSoonAt = dueAt - TimeUnit.MINUTES.toMillis(dueSoonLeadMinutes);
+        Reminder reminder = now < dueAt
+            ? new Reminder(userId, taskId, projectId, dueAt, DUE_SOON, Math.max(dueSoonAt, now))
+            : new Reminder(userId, taskId, projectId, dueAt, OVERDUE, now);
+        mongoTemplate.getCollection(COLLECTION).replaceOne(Filters.eq("_id", key), reminder.toDocument(),
+            new ReplaceOptions().upsert(true));
+        place(reminder);
+    }
+
+    private void place(Reminder reminder) {
+        if (reminder.fireAt < loadedUntil) {
+            wheel.schedule(reminder.key(), reminder.fireAt, reminder);
+        } else {
+            // Picked up by a later refill
+            wheel.cancel(reminder.key());
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (now + TimeUnit.MINUTES.toMillis(horizonMinutes) / 2 >= loadedUntil) {
+                refill(now);
+            }
+            for (Reminder reminder : wheel.advance(now)) {
+                fire(reminder);
+            }
+        } catch (Exception e) {
+            log.warn("Reminder tick failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Extends the loaded window to {@code now + horizon}, loading reminders
+     * due in the new part of the window (or, on the first call, everything
+     * due before its end, including reminders missed while the app was down).
+     */
+    private void refill(long now) {
+        long until = now + TimeUnit.MINUTES.toMillis(horizonMinutes);
+        Bson range = loadedUntil == 0
+            ? Filters.lt("fireAt", new Date(until))
+            : Filters.and(Filters.gte("fireAt", new Date(loadedUntil)), Filters.lt("fireAt", new Date(until)));
+        loadedUntil = until;
+
+        int loaded = 0;
+        for (Document document : mongoTemplate.getCollection(COLLECTION).find(range)
+                .projection(Projections.include("userId", "taskId", "projectId", "dueAt", "stage", "fireAt"))) {
+            Reminder reminder = Reminder.fromDocument(document);
+            if (reminder != null) {
+                wheel.schedule(reminder.key(), reminder.fireAt, reminder);
+                loaded++;
+            }
+        }
+        if (loaded > 0) {
+            log.info("Loaded {} reminders due before {}", loaded, Instant.ofEpochMilli(until));
+        }
+    }
+
+    private void fire(Reminder reminder) {
+        userWriteQueue.submit(reminder.userId, ctx -> {
+            User user = ctx.user();
+            EmbeddedTask task = user != null ? findTask(user, reminder) : null;
+            if (task == null || (task.getStatus() != null && task.getStatus().isDone())) {
+                return FireOutcome.drop();
+            }
+            Long dueAt = parseDueDate(task.getDueDate());
+            if (dueAt == null || dueAt != reminder.dueAt) {
+                return FireOutcome.reschedule(task.copy());
+            }
+            addNotification(user, reminder, task);
+            ctx.changed();
+            return FireOutcome.sent();
+        }).whenCompleteAsync((outcome, error) -> {
+            try {
+                if (error != null) {
+                    log.warn("Failed to deliver reminder for task {} of {}, retrying: {}",
+                        reminder.taskId, reminder.userId, error.getMessage());
+                    wheel.schedule(reminder.key(), System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1), reminder);
+                } else {
+                    afterFire(reminder, outcome);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to record reminder for task {} of {}: {}", reminder.taskId, reminder.userId, e.getMessage());
+            }
+        }, executor);
+    }
+
+    private void afterFire(Reminder reminder, FireOutcome outcome) {
+        // Conditional on the reminder being unchanged; a track() that ran meanwhile wins
+        Bson current = Filters.and(Filters.eq("_id", reminder.key()), Filters.eq("dueAt", new Date(reminder.dueAt)),
+            Filters.eq("stage", reminder.stage));
+        if (outcome.task != null) {
+            mongoTemplate.getCollection(COLLECTION).deleteOne(current);
+            track(reminder.userId, reminder.projectId, outcome.task);
+        } else if (!outcome.sent) {
+            mongoTemplate.getCollection(COLLECTION).deleteOne(current);
+        } else if (DUE_SOON.equals(reminder.stage)) {
+            dueSoonSent.increment();
+            Reminder next = new Reminder(reminder.userId, reminder.taskId, reminder.projectId, reminder.dueAt,
+                OVERDUE, reminder.dueAt);
+            if (mongoTemplate.getCollection(COLLECTION).updateOne(current,
+                    Updates.combine(Updates.set("stage", OVERDUE), Updates.set("fireAt", new Date(next.fireAt))))
+                    .getModifiedCount() > 0) {
+                place(next);
+            }
+        } else {
+            overdueSent.increment();
+            // Kept without fireAt so an unchanged due date is not reminded about again
+            mongoTemplate.getCollection(COLLECTION).updateOne(current,
+                Updates.combine(Updates.set("stage", SENT), Updates.unset("fireAt")));
+        }
+    }
+
+    private static EmbeddedTask findTask(User user, Reminder reminder) {
+        Project project = user.findProject(reminder.projectId);
+        EmbeddedTask task = project != null ? project.findTask(reminder.taskId) : null;
+        if (task != null || user.getProjects() == null) {
+            return task;
+        }
+        for (Project candidate : user.getProjects()) {
+            task = candidate.findTask(reminder.taskId);
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private static void addNotification(User user, Reminder reminder, EmbeddedTask task) {
+        Map<String, Object> userdata = user.getUserdata();
+        if (userdata == null) {
+            userdata = new HashMap<>();
+        }
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> notifications = (List<Map<String, Object>>) userdata.get("notifications");
+        if (notifications == null) {
+            notifications = new ArrayList<>();
+        }
+
+        boolean dueSoon = DUE_SOON.equals(reminder.stage);
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("id", UUID.randomUUID().toString());
+        notification.put("type", dueSoon ? "task_due_soon" : "task_overdue");
+        notification.put("taskId", task.getId());
+        notification.put("projectId", reminder.projectId);
+        notification.put("taskTitle", task.getTitle());
+        notification.put("dueDate", task.getDueDate());
+        notification.put("createdAt", new Date());
+        notification.put("status", "unread");
+        notification.put("message", "Task \"" + task.getTitle() + "\" " + (dueSoon ? "is due soon" : "is overdue"));
+
+        notifications.add(notification);
+        userdata.put("notifications", notifications);
+        user.setUserdata(userdata);
+    }
+
+    private Counter sentCounter(String type) {
+        return Counter.builder("taskmaster.reminders.sent")
+            .description("Task reminder notifications delivered")
+            .tag("type", type)
+            .register(meterRegistry);
+    }
+
+    private static String key(String userId, String taskId) {
+        return userId + ":" + taskId;
+    }
+
+    /**
+     * Epoch millis at which a task becomes overdue, or {@code null} when the
+     * due date is missing or unreadable. A bare date means the end of that
+     * day (UTC); date-times without an offset are taken as UTC.
+     */
+    static Long parseDueDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            if (text.length() == 10) {
+                return LocalDate.parse(text).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            }
+            if (text.endsWith("Z") || text.matches(".*[+-]\\d\\d:?\\d\\d$")) {
+                return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+            }
+            if (text.indexOf('T') > 0) {
+                return LocalDateTime.parse(text).toInstant(ZoneOffset.UTC).toEpochMilli();
+            }
+            return ZonedDateTime.parse(text, DATE_TO_STRING).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static class FireOutcome {
+        final boolean sent;
+        final EmbeddedTask task;
+
+        private FireOutcome(boolean sent, EmbeddedTask task) {
+            this.sent = sent;
+            this.task = task;
+        }
+
+        static FireOutcome sent() {
+            return new FireOutcome(true, null);
+        }
+
+        static FireOutcome drop() {
+            return new FireOutcome(false, null);
+        }
+
+        static FireOutcome reschedule(EmbeddedTask task) {
+            return new FireOutcome(false, task);
+        }
+    }
+
+    private static class Reminder {
+        final String userId;
+        final String taskId;
+        final String projectId;
+        final long dueAt;
+        final String stage;
+        final long fireAt;
+
+        Reminder(String userId, String taskId, String projectId, long dueAt, String stage, long fireAt) {
+            this.userId = userId;
+            this.taskId = taskId;
+            this.projectId = projectId;
+            this.dueAt = dueAt;
+            this.stage = stage;
+            this.fireAt = fireAt;
+        }
+
+        String key() {
+            return ReminderService.key(userId, taskId);
+        }
+
+        Document toDocument() {
+            return new Document("_id", key())
+                .append("userId", userId)
+                .append("taskId", taskId)
+                .append("projectId", projectId)
+                .append("dueAt", new Date(dueAt))
+                .append("stage", stage)
+                .append("fireAt", new Date(fireAt));
+        }
+
+        static Reminder fromDocument(Document document) {
+            Date dueAt = document.getDate("dueAt");
+            Date fireAt = document.getDate("fireAt");
+            if (dueAt == null || fireAt == null) {
+                return null;
+            }
+            return new Reminder(document.getString("userId"), document.getString("taskId"),
+                document.getString("projectId"), dueAt.getTime(), document.getString("stage"), fireAt.getTime());
+        }
+    }
+}
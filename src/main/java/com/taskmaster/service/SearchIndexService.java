@@ -0,0 +1,441 @@
+package com.taskmaster.service;
+
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.Team;
+import com.taskmaster.model.User;
+import com.taskmaster.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the tasks, projects and teams each user can
+ * see.
+ *
+ * Visibility follows the embedded model: a user sees exactly what is in
+ * their own {@code users} document, so every user gets an index of their own,
+ * built lazily from that document on the first search and then kept current
+ * by the write endpoints through the {@code index*}/{@code remove*} methods.
+ * Writes that touch another member's document call {@link #invalidate} so
+ * the member's index is rebuilt on their next search.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float BODY_WEIGHT = 1.0f;
+    private static final float PREFIX_FACTOR = 0.6f;
+    private static final float FUZZY_FACTOR = 0.4f;
+    private static final int SNIPPET_LENGTH = 140;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${taskmaster.search.max-indexed-users:10000}")
+    private int maxIndexedUsers;
+
+    private final ConcurrentHashMap<String, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    public static class Hit {
+        public final String type;
+        public final String id;
+        public final String title;
+        public final String snippet;
+        public final String projectId;
+        public final String projectName;
+        public final float score;
+
+        Hit(Entry entry, float score) {
+            this.type = entry.type;
+            this.id = entry.id;
+            this.title = entry.title;
+            this.snippet = entry.snippet;
+            this.projectId = entry.projectId;
+            this.projectName = entry.projectName;
+            this.score = score;
+        }
+    }
+
+    public static class Result {
+        public final long total;
+        public final List<Hit> hits;
+
+        Result(long total, List<Hit> hits) {
+            this.total = total;
+            this.hits = hits;
+        }
+    }
+
+    public Result search(String userId, String query, String type, int page, int size) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new Result(0, List.of());
+        }
+        UserIndex index = indexFor(userId);
+        if (index == null) {
+            return new Result(0, List.of());
+        }
+        return index.search(terms, type, Math.max(page, 0), Math.max(1, Math.min(size, 100)));
+    }
+
+    /**
+     * Indexes a created or updated task. {@code project} may be {@code null}
+     * on updates, in which case the task keeps the project it was indexed
+     * under.
+     */
+    public void indexTask(String userId, EmbeddedTask task, Project project) {
+        indexes.computeIfPresent(userId, (id, index) -> {
+            index.putTask(task, project);
+            return index;
+        });
+    }
+
+    public void removeTask(String userId, String taskId) {
+        indexes.computeIfPresent(userId, (id, index) -> {
+            index.remove(key("task", taskId));
+            return index;
+        });
+    }
+
+    public void indexProject(String userId, Project project) {
+        indexes.computeIfPresent(userId, (id, index) -> {
+            index.putProject(project);
+            return index;
+        });
+    }
+
+    public void removeProject(String userId, String projectId) {
+        indexes.computeIfPresent(userId, (id, index) -> {
+            index.removeProject(projectId);
+            return index;
+        });
+    }
+
+    public void indexTeam(String userId, Team team) {
+        indexes.computeIfPresent(userId, (id, index) -> {
+            index.putTeam(team);
+            return index;
+        });
+    }
+
+    public void removeTeam(String userId, String teamId) {
+        indexes.computeIfPresent(userId, (id, index) -> {
+            index.remove(key("team", teamId));
+            return index;
+        });
+    }
+
+    public void invalidate(String userId) {
+        indexes.remove(userId);
+    }
+
+    /**
+     * Builds the index for a user if it is not already loaded. Incremental
+     * updates use {@code computeIfPresent}, which waits for an in-progress
+     * build of the same user, so a write can't slip between the build's read
+     * and the index becoming visible.
+     */
+    public UserIndex indexFor(String userId) {
+        UserIndex existing = indexes.get(userId);
+        if (existing != null) {
+            existing.lastAccess = System.nanoTime();
+            return existing;
+        }
+        if (indexes.size() >= maxIndexedUsers) {
+            evictLeastRecentlyUsed();
+        }
+        return indexes.computeIfAbsent(userId, id -> {
+            User user = userRepository.findByUserId(id);
+            return user != null ? UserIndex.build(user) : null;
+        });
+    }
+
+    private void evictLeastRecentlyUsed() {
+        String oldest = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<String, UserIndex> entry : indexes.entrySet()) {
+            if (entry.getValue().lastAccess < oldestAccess) {
+                oldestAccess = entry.getValue().lastAccess;
+                oldest = entry.getKey();
+            }
+        }
+        if (oldest != null) {
+            indexes.remove(oldest);
+        }
+    }
+
+    static String key(String type, Object id) {
+        return type + ":" + id;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= 2) {
+                    tokens.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static class Entry {
+        final String type;
+        final String id;
+        final String title;
+        final String snippet;
+        final String projectId;
+        final String projectName;
+        final Set<String> terms = new HashSet<>();
+
+        Entry(String type, String id, String title, String description, String projectId, String projectName) {
+            this.type = type;
+            this.id = id;
+            this.title = title;
+            this.snippet = description == null || description.length() <= SNIPPET_LENGTH
+                ? description : description.substring(0, SNIPPET_LENGTH);
+            this.projectId = projectId;
+            this.projectName = projectName;
+        }
+    }
+
+    static class UserIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final TreeMap<String, Map<String, Float>> postings = new TreeMap<>();
+        volatile long lastAccess = System.nanoTime();
+
+        static UserIndex build(User user) {
+            UserIndex index = new UserIndex();
+            if (user.getTeams() != null) {
+                for (Team team : user.getTeams()) {
+                    index.putTeam(team);
+                }
+            }
+            if (user.getProjects() != null) {
+                for (Project project : user.getProjects()) {
+                    index.putProject(project);
+                    if (project.getTasks() != null) {
+                        for (EmbeddedTask task : project.getTasks()) {
+                            index.putTask(task, project);
+                        }
+                    }
+                }
+            }
+            return index;
+        }
+
+        void putTask(EmbeddedTask task, Project project) {
+            String id = task.getId();
+            if (id == null) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.get(key("task", id));
+                String projectId = project != null ? project.getId() : null;
+                String projectName = project != null ? project.getName() : null;
+                if (projectId == null && previous != null) {
+                    projectId = previous.projectId;
+                    projectName = previous.projectName;
+                }
+                put(new Entry("task", id, task.getTitle(), task.getDescription(), projectId, projectName));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void putProject(Project project) {
+            String id = project.getId();
+            if (id == null) {
+                return;
+            }
+            String name = project.getName();
+            lock.writeLock().lock();
+            try {
+                put(new Entry("project", id, name, project.getDescription(), id, name));
+                // Tasks display their project's name; keep it in step with renames
+                for (Entry entry : new ArrayList<>(entries.values())) {
+                    if ("task".equals(entry.type) && id.equals(entry.projectId) && !Objects.equals(name, entry.projectName)) {
+                        Entry renamed = new Entry("task", entry.id, entry.title, entry.snippet, id, name);
+                        put(renamed);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void putTeam(Team team) {
+            String id = team.getId();
+            if (id == null) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                put(new Entry("team", id, team.getName(), team.getDescription(), null, null));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removeProject(String projectId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(key("project", projectId));
+                for (Entry entry : new ArrayList<>(entries.values())) {
+                    if ("task".equals(entry.type) && projectId.equals(entry.projectId)) {
+                        removeLocked(key("task", entry.id));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String docKey) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(docKey);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Caller holds the write lock
+        private void put(Entry entry) {
+            String docKey = key(entry.type, entry.id);
+            removeLocked(docKey);
+            Map<String, Float> weights = new HashMap<>();
+            for (String term : tokenize(entry.title)) {
+                weights.merge(term, TITLE_WEIGHT, Float::sum);
+            }
+            for (String term : tokenize(entry.snippet)) {
+                weights.merge(term, BODY_WEIGHT, Float::sum);
+            }
+            weights.forEach((term, weight) -> {
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(docKey, weight);
+                entry.terms.add(term);
+            });
+            entries.put(docKey, entry);
+        }
+
+        // Caller holds the write lock
+        private void removeLocked(String docKey) {
+            Entry entry = entries.remove(docKey);
+            if (entry == null) {
+                return;
+            }
+            for (String term : entry.terms) {
+                Map<String, Float> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(docKey);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        Result search(List<String> queryTerms, String type, int page, int size) {
+            lastAccess = System.nanoTime();
+            lock.readLock().lock();
+            try {
+                Map<String, Float> scores = new HashMap<>();
+                Map<String, Integer> matchedTerms = new HashMap<>();
+                for (String term : queryTerms) {
+                    Map<String, Float> termScores = new HashMap<>();
+                    Map<String, Float> exact = postings.get(term);
+                    if (exact != null) {
+                        exact.forEach((doc, weight) -> termScores.merge(doc, weight, Math::max));
+                    }
+                    if (term.length() >= 2) {
+                        for (Map.Entry<String, Map<String, Float>> posting
+                                : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                            posting.getValue().forEach((doc, weight) -> termScores.merge(doc, weight * PREFIX_FACTOR, Math::max));
+                        }
+                    }
+                    if (term.length() >= 4) {
+                        int maxDistance = term.length() <= 6 ? 1 : 2;
+                        String from = term.substring(0, 1);
+                        String to = String.valueOf((char) (term.charAt(0) + 1));
+                        for (Map.Entry<String, Map<String, Float>> posting : postings.subMap(from, to).entrySet()) {
+                            String candidate = posting.getKey();
+                            if (candidate.equals(term) || candidate.startsWith(term)
+                                    || Math.abs(candidate.length() - term.length()) > maxDistance
+                                    || editDistance(term, candidate, maxDistance) > maxDistance) {
+                                continue;
+                            }
+                            posting.getValue().forEach((doc, weight) -> termScores.merge(doc, weight * FUZZY_FACTOR, Math::max));
+                        }
+                    }
+                    termScores.forEach((doc, score) -> {
+                        scores.merge(doc, score, Float::sum);
+                        matchedTerms.merge(doc, 1, Integer::sum);
+                    });
+                }
+
+                List<Hit> hits = new ArrayList<>();
+                for (Map.Entry<String, Float> scored : scores.entrySet()) {
+                    Entry entry = entries.get(scored.getKey());
+                    if (entry == null || (type != null && !type.isEmpty() && !type.equalsIgnoreCase(entry.type))) {
+                        continue;
+                    }
+                    // Documents matching every query term rank above partial matches
+                    float coverage = (float) matchedTerms.get(scored.getKey()) / queryTerms.size();
+                    hits.add(new Hit(entry, scored.getValue() * coverage * coverage));
+                }
+                hits.sort(Comparator.comparingDouble((Hit h) -> -h.score)
+                    .thenComparing(h -> h.title == null ? "" : h.title));
+                int from = Math.min(hits.size(), page * size);
+                int to = Math.min(hits.size(), from + size);
+                return new Result(hits.size(), new ArrayList<>(hits.subList(from, to)));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Levenshtein distance that gives up once it exceeds {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
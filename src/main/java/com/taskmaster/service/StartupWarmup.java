@@ -0,0 +1,223 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.taskmaster.model.Team;
+import com.taskmaster.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the application up before it reports ready.
+ *
+ * Runs as an {@link ApplicationRunner}: the web server is already listening,
+ * but Boot only moves the readiness state to accepting traffic after the
+ * runners return. It opens Mongo connections up front, then sends the read
+ * endpoints real users hit most through the full HTTP stack (filters,
+ * converters, Jackson) for users active since yesterday. That compiles the
+ * hot paths and fills the lazily built caches (search indexes, team
+ * analytics) for the users most likely to come back first. The whole phase
+ * is capped by {@code max-seconds}; failures are logged and never block
+ * startup.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${taskmaster.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${taskmaster.warmup.users:20}")
+    private int maxUsers;
+
+    @Value("${taskmaster.warmup.rounds:3}")
+    private int rounds;
+
+    @Value("${taskmaster.warmup.threads:4}")
+    private int threads;
+
+    @Value("${taskmaster.warmup.mongo-connections:10}")
+    private int mongoConnections;
+
+    @Value("${taskmaster.warmup.max-seconds:20}")
+    private long maxSeconds;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "startup-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            int connections = openConnections(workers, deadline);
+            List<String> paths = requestPaths(recentUsers());
+            AtomicInteger failed = new AtomicInteger();
+            int sent = sendRequests(workers, paths, failed, deadline);
+            log.info("Warm-up finished in {} ms: {} Mongo connections, {} requests ({} failed) over {} paths",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), connections, sent, failed.get(), paths.size());
+        } catch (Exception e) {
+            log.warn("Warm-up stopped early: {}", e.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Pings from several threads at once, so that many pooled connections are
+     * established now rather than by the first concurrent requests.
+     */
+    private int openConnections(ExecutorService workers, long deadline) throws Exception {
+        List<Future<?>> pings = new ArrayList<>();
+        for (int i = 0; i < mongoConnections; i++) {
+            pings.add(workers.submit(() -> mongoTemplate.executeCommand(new Document("ping", 1))));
+        }
+        int opened = 0;
+        for (Future<?> ping : pings) {
+            try {
+                ping.get(remaining(deadline), TimeUnit.NANOSECONDS);
+                opened++;
+            } catch (Exception e) {
+                log.debug("Warm-up ping failed: {}", e.getMessage());
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Users with recorded activity today or yesterday, from the daily
+     * activity rollups.
+     */
+    private List<User> recentUsers() {
+        Date since = Date.from(LocalDate.now(ZoneOffset.UTC).minusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Set<String> userIds = new LinkedHashSet<>();
+        for (Document rollup : mongoTemplate.getCollection(ActivityRollupService.COLLECTION)
+                .find(Filters.and(Filters.eq("scope", ActivityRollupService.USER), Filters.gte("day", since)))
+                .projection(Projections.include("ownerId"))
+                .limit(maxUsers * 2)) {
+            userIds.add(rollup.getString("ownerId"));
+            if (userIds.size() >= maxUsers) {
+                break;
+            }
+        }
+        List<User> users = new ArrayList<>();
+        for (String userId : userIds) {
+            User user = userService.findByUserId(userId);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    private static List<String> requestPaths(List<User> users) {
+        List<String> paths = new ArrayList<>();
+        for (User user : users) {
+            String userId = URLEncoder.encode(user.getUserId(), StandardCharsets.UTF_8);
+            paths.add("/api/teams?userId=" + userId);
+            paths.add("/api/projects?userId=" + userId);
+            paths.add("/api/tasks?userId=" + userId);
+            paths.add("/api/changes?userId=" + userId + "&since=0");
+            paths.add("/api/dashboard/activity?userId=" + userId + "&days=7");
+            paths.add("/api/search?userId=" + userId + "&q=task");
+            if (user.getTeams() != null) {
+                for (Team team : user.getTeams()) {
+                    if (team.getId() != null) {
+                        paths.add("/api/teams/" + URLEncoder.encode(team.getId(), StandardCharsets.UTF_8) + "/analytics");
+                    }
+                }
+            }
+        }
+        return paths;
+    }
+
+    private int sendRequests(ExecutorService workers, List<String> paths, AtomicInteger failed, long deadline)
+            throws Exception {
+        String port = environment.getProperty("local.server.port");
+        if (paths.isEmpty() || port == null) {
+            return 0;
+        }
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        String address = environment.getProperty("server.address");
+        String host = address == null || address.isEmpty() || "0.0.0.0".equals(address) ? "localhost" : address;
+        String base = "http://" + host + ":" + port;
+        AtomicInteger sent = new AtomicInteger();
+        List<Future<?>> batches = new ArrayList<>();
+        for (int worker = 0; worker < Math.max(1, threads); worker++) {
+            int offset = worker;
+            batches.add(workers.submit(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    for (int i = offset; i < paths.size(); i += Math.max(1, threads)) {
+                        if (System.nanoTime() - deadline >= 0) {
+                            return null;
+                        }
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + paths.get(i)))
+                            .timeout(Duration.ofSeconds(5))
+                            .build();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 500) {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                        sent.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> batch : batches) {
+            try {
+                batch.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                break;
+            }
+        }
+        return sent.get();
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(1, deadline - System.nanoTime());
+    }
+}
@@ -0,0 +1,453 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Generates large volumes of synthetic users, teams, projects and tasks for
+ * reproducing production-scale load locally.
+ *
+ * Two shapes are supported: {@link Shape#EMBEDDED} writes {@code users}
+ * documents with teams, projects and tasks nested the way the controllers
+ * read them, {@link Shape#FLAT} writes the separate {@code teams},
+ * {@code projects} and {@code tasks} collections used by the dashboard.
+ * Users are split into chunks that are built and inserted in parallel with
+ * unordered {@code insertMany} batches.
+ */
+@Service
+public class SyntheticDataGenerator {
+
+    public enum Shape { EMBEDDED, FLAT }
+
+    private static final String[] TASK_STATUSES = {"todo", "in-progress", "review", "done"};
+    private static final String[] PROJECT_STATUSES = {"Planning", "In Progress", "Completed", "On Hold"};
+    private static final String[] PRIORITIES = {"high", "medium", "low"};
+    private static final String[] WORDS = {
+        "api", "auth", "billing", "cache", "dashboard", "deploy", "docs", "export", "gateway", "import",
+        "index", "invoice", "login", "metrics", "mobile", "onboarding", "payments", "report", "search",
+        "security", "settings", "signup", "storage", "sync", "upload", "webhook", "refactor", "migrate",
+        "optimize", "review", "design", "fix", "implement", "test", "audit", "cleanup"
+    };
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProjectProgressService projectProgressService;
+
+    /**
+     * Parameters of a generation run. Task counts are distributed across users
+     * with a Zipf-like weight {@code 1 / rank^skew}, so {@code skew = 0} gives
+     * every user the same number of tasks and larger values concentrate tasks
+     * on a few heavy users.
+     */
+    public static class Spec {
+        public int users = 1000;
+        public int teamsPerUser = 2;
+        public int membersPerTeam = 5;
+        public int projectsPerUser = 5;
+        public long tasks = 100_000;
+        public double skew = 1.0;
+        public int maxTasksPerUser = 20_000;
+        public Shape shape = Shape.EMBEDDED;
+        public int batchSize = 1000;
+        public int parallelism = Runtime.getRuntime().availableProcessors();
+        public long seed = 42L;
+
+        /**
+         * Rejects values the generator can't run with. The upper bounds keep
+         * one run's per-user arrays, and with the embedded shape a heavy
+         * user's document, within reason.
+         */
+        public void validate() {
+            check("users", users, 1, 1_000_000);
+            check("teamsPerUser", teamsPerUser, 0, 100);
+            check("membersPerTeam", membersPerTeam, 1, 1_000);
+            check("projectsPerUser", projectsPerUser, 0, 1_000);
+            check("tasks", tasks, 0, 100_000_000);
+            check("maxTasksPerUser", maxTasksPerUser, 1, 50_000);
+            check("batchSize", batchSize, 1, 10_000);
+            check("parallelism", parallelism, 1, 256);
+            if (!(skew >= 0 && skew <= 10)) {
+                throw new IllegalArgumentException("skew must be between 0 and 10");
+            }
+        }
+
+        private static void check(String name, long value, long min, long max) {
+            if (value < min || value > max) {
+                throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+            }
+        }
+    }
+
+    public static class Progress {
+        public final String runId;
+        public final long usersWritten;
+        public final long teamsWritten;
+        public final long projectsWritten;
+        public final long tasksWritten;
+        // Tasks the run will write once maxTasksPerUser has capped the heaviest users
+        public final long tasksPlanned;
+        public final int usersAtTaskCap;
+        public final long elapsedMs;
+        public final boolean done;
+
+        Progress(String runId, long users, long teams, long projects, long tasks, long tasksPlanned,
+                 int usersAtTaskCap, long elapsedMs, boolean done) {
+            this.runId = runId;
+            this.usersWritten = users;
+            this.teamsWritten = teams;
+            this.projectsWritten = projects;
+            this.tasksWritten = tasks;
+            this.tasksPlanned = tasksPlanned;
+            this.usersAtTaskCap = usersAtTaskCap;
+            this.elapsedMs = elapsedMs;
+            this.done = done;
+        }
+
+        public long getTasksPerSecond() {
+            return elapsedMs > 0 ? tasksWritten * 1000 / elapsedMs : 0;
+        }
+    }
+
+    private static class Counters {
+        final AtomicLong users = new AtomicLong();
+        final AtomicLong teams = new AtomicLong();
+        final AtomicLong projects = new AtomicLong();
+        final AtomicLong tasks = new AtomicLong();
+        long tasksPlanned;
+        int usersAtTaskCap;
+    }
+
+    /**
+     * Runs a generation and blocks until every chunk has been written.
+     * {@code progressListener} is invoked roughly once per second from a
+     * reporter thread and once more with {@code done = true} at the end.
+     */
+    public Progress generate(String runId, Spec spec, Consumer<Progress> progressListener) throws Exception {
+        Counters counters = new Counters();
+        int[] tasksPerUser = allocateTasks(spec, counters);
+        String[] userIds = new String[spec.users];
+        for (int i = 0; i < spec.users; i++) {
+            userIds[i] = "synth_" + runId + "_" + i;
+        }
+
+        long start = System.currentTimeMillis();
+        int parallelism = Math.max(1, spec.parallelism);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, daemonThreads("synthetic-writer"));
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(daemonThreads("synthetic-progress"));
+
+        try {
+            reporter.scheduleAtFixedRate(
+                () -> progressListener.accept(snapshot(runId, counters, start, false)), 1, 1, TimeUnit.SECONDS);
+
+            // Several chunks per worker so heavy users at the head of the Zipf curve don't serialize the run
+            int chunkCount = Math.min(spec.users, parallelism * 8);
+            int chunkSize = (spec.users + chunkCount - 1) / Math.max(1, chunkCount);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < spec.users; from += chunkSize) {
+                final int chunkFrom = from;
+                final int chunkTo = Math.min(spec.users, from + chunkSize);
+                futures.add(workers.submit(() -> {
+                    writeChunk(runId, spec, userIds, tasksPerUser, chunkFrom, chunkTo, counters);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            reporter.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        Progress finalProgress = snapshot(runId, counters, start, true);
+        progressListener.accept(finalProgress);
+        return finalProgress;
+    }
+
+    /**
+     * Removes every document written by a given run from all collections the
+     * generator touches.
+     */
+    public void clear(String runId) {
+        Query query = new Query(Criteria.where("synthRunId").is(runId));
+        for (String collection : List.of("users", "teams", "projects", "tasks")) {
+            mongoTemplate.remove(query, collection);
+        }
+    }
+
+    private Progress snapshot(String runId, Counters counters, long start, boolean done) {
+        return new Progress(runId, counters.users.get(), counters.teams.get(), counters.projects.get(),
+            counters.tasks.get(), counters.tasksPlanned, counters.usersAtTaskCap, System.currentTimeMillis() - start, done);
+    }
+
+    // Records the planned total and how many users the per-user cap cut short
+    private int[] allocateTasks(Spec spec, Counters counters) {
+        double[] weights = new double[spec.users];
+        double total = 0;
+        for (int i = 0; i < spec.users; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, Math.max(0, spec.skew));
+            total += weights[i];
+        }
+        int[] allocation = new int[spec.users];
+        for (int i = 0; i < spec.users; i++) {
+            long share = Math.round(spec.tasks * weights[i] / total);
+            allocation[i] = (int) Math.min(share, spec.maxTasksPerUser);
+            if (share > spec.maxTasksPerUser) {
+                counters.usersAtTaskCap++;
+            }
+            counters.tasksPlanned += allocation[i];
+        }
+        return allocation;
+    }
+
+    private void writeChunk(String runId, Spec spec, String[] userIds, int[] tasksPerUser,
+                            int from, int to, Counters counters) {
+        SplittableRandom random = new SplittableRandom(spec.seed + from);
+        if (spec.shape == Shape.EMBEDDED) {
+            writeEmbeddedChunk(runId, spec, userIds, tasksPerUser, from, to, random, counters);
+        } else {
+            writeFlatChunk(runId, spec, userIds, tasksPerUser, from, to, random, counters);
+        }
+    }
+
+    private void writeEmbeddedChunk(String runId, Spec spec, String[] userIds, int[] tasksPerUser,
+                                    int from, int to, SplittableRandom random, Counters counters) {
+        MongoCollection<Document> users = mongoTemplate.getCollection("users");
+        List<Document> batch = new ArrayList<>();
+        long batchTasks = 0;
+
+        for (int i = from; i < to; i++) {
+            String userId = userIds[i];
+            List<Document> teams = new ArrayList<>();
+            for (int t = 0; t < spec.teamsPerUser; t++) {
+                teams.add(team(userId, userIds, spec, random));
+            }
+            List<Document> projects = new ArrayList<>();
+            for (int p = 0; p < spec.projectsPerUser; p++) {
+                Document team = teams.isEmpty() ? null : teams.get(p % teams.size());
+                Document project = project(userId, team, random);
+                project.put("_id", UUID.randomUUID().toString());
+                projects.add(project);
+            }
+            int taskCount = tasksPerUser[i];
+            for (int k = 0; k < taskCount && !projects.isEmpty(); k++) {
+                Document project = projects.get(k % projects.size());
+                @SuppressWarnings("unchecked")
+                List<Document> projectTasks = (List<Document>) project.get("tasks");
+                projectTasks.add(task(userId, pickAssignee(userIds, random), random));
+            }
+            for (Document project : projects) {
+                projectProgressService.count(project);
+            }
+
+            String now = LocalDateTime.now().toString();
+            Document user = new Document("_id", userId)
+                .append("email", userId + "@synthetic.taskmaster.local")
+                .append("password", "synthetic")
+                .append("sessionToken", "session_" + userId)
+                .append("createdAt", now)
+                .append("updatedAt", now)
+                .append("userdata", new Document("firstName", "Synthetic")
+                    .append("lastName", "User " + i)
+                    .append("displayName", "Synthetic User " + i))
+                .append("teams", teams)
+                .append("projects", projects)
+                .append("tasks", new ArrayList<>())
+                .append("synthRunId", runId);
+            batch.add(user);
+            batchTasks += taskCount;
+
+            if (batch.size() >= spec.batchSize || batchTasks >= spec.batchSize * 20L) {
+                insert(users, batch);
+                countEmbedded(batch, counters);
+                batch = new ArrayList<>();
+                batchTasks = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(users, batch);
+            countEmbedded(batch, counters);
+        }
+    }
+
+    private void writeFlatChunk(String runId, Spec spec, String[] userIds, int[] tasksPerUser,
+                                int from, int to, SplittableRandom random, Counters counters) {
+        MongoCollection<Document> teamCollection = mongoTemplate.getCollection("teams");
+        MongoCollection<Document> projectCollection = mongoTemplate.getCollection("projects");
+        MongoCollection<Document> taskCollection = mongoTemplate.getCollection("tasks");
+        List<Document> teams = new ArrayList<>();
+        List<Document> projects = new ArrayList<>();
+        List<Document> tasks = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            String userId = userIds[i];
+            List<Document> userTeams = new ArrayList<>();
+            for (int t = 0; t < spec.teamsPerUser; t++) {
+                Document team = team(userId, userIds, spec, random);
+                team.append("id", team.get("_id"))
+                    .append("userId", userId)
+                    .append("ownerId", userId)
+                    .append("synthRunId", runId);
+                userTeams.add(team);
+                teams.add(team);
+            }
+            List<Document> userProjects = new ArrayList<>();
+            for (int p = 0; p < spec.projectsPerUser; p++) {
+                Document team = userTeams.isEmpty() ? null : userTeams.get(p % userTeams.size());
+                Document project = project(userId, team, random)
+                    .append("userId", userId)
+                    .append("ownerId", userId)
+                    .append("synthRunId", runId);
+                project.remove("tasks");
+                userProjects.add(project);
+                projects.add(project);
+            }
+            for (int k = 0; k < tasksPerUser[i] && !userProjects.isEmpty(); k++) {
+                Document project = userProjects.get(k % userProjects.size());
+                Document task = task(userId, pickAssignee(userIds, random), random)
+                    .append("projectId", project.get("_id"))
+                    .append("userId", userId)
+                    .append("synthRunId", runId);
+                tasks.add(task);
+                if (tasks.size() >= spec.batchSize) {
+                    insert(taskCollection, tasks);
+                    counters.tasks.addAndGet(tasks.size());
+                    tasks = new ArrayList<>();
+                }
+            }
+            counters.users.incrementAndGet();
+
+            if (teams.size() >= spec.batchSize) {
+                insert(teamCollection, teams);
+                counters.teams.addAndGet(teams.size());
+                teams = new ArrayList<>();
+            }
+            if (projects.size() >= spec.batchSize) {
+                insert(projectCollection, projects);
+                counters.projects.addAndGet(projects.size());
+                projects = new ArrayList<>();
+            }
+        }
+        insert(teamCollection, teams);
+        counters.teams.addAndGet(teams.size());
+        insert(projectCollection, projects);
+        counters.projects.addAndGet(projects.size());
+        insert(taskCollection, tasks);
+        counters.tasks.addAndGet(tasks.size());
+    }
+
+    private void insert(MongoCollection<Document> collection, List<Document> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        collection.insertMany(batch, new InsertManyOptions().ordered(false).bypassDocumentValidation(true));
+    }
+
+    private void countEmbedded(List<Document> batch, Counters counters) {
+        for (Document user : batch) {
+            @SuppressWarnings("unchecked")
+            List<Document> projects = (List<Document>) user.get("projects");
+            @SuppressWarnings("unchecked")
+            List<Document> teams = (List<Document>) user.get("teams");
+            long taskCount = 0;
+            for (Document project : projects) {
+                taskCount += ((List<?>) project.get("tasks")).size();
+            }
+            counters.users.incrementAndGet();
+            counters.teams.addAndGet(teams.size());
+            counters.projects.addAndGet(projects.size());
+            counters.tasks.addAndGet(taskCount);
+        }
+    }
+
+    private Document team(String ownerId, String[] userIds, Spec spec, SplittableRandom random) {
+        List<Document> members = new ArrayList<>();
+        members.add(new Document("userId", ownerId).append("role", "OWNER").append("joinedAt", new Date()));
+        for (int m = 1; m < spec.membersPerTeam && userIds.length > 1; m++) {
+            String memberId = userIds[random.nextInt(userIds.length)];
+            members.add(new Document("userId", memberId)
+                .append("email", memberId + "@synthetic.taskmaster.local")
+                .append("role", "MEMBER")
+                .append("joinedAt", new Date()));
+        }
+        return new Document("_id", UUID.randomUUID().toString())
+            .append("name", title(random, 2) + " Team")
+            .append("description", "Synthetic team")
+            .append("createdBy", ownerId)
+            .append("createdAt", new Date())
+            .append("members", members);
+    }
+
+    private Document project(String ownerId, Document team, SplittableRandom random) {
+        Calendar due = Calendar.getInstance();
+        due.add(Calendar.DAY_OF_MONTH, random.nextInt(-30, 90));
+        return new Document("_id", UUID.randomUUID().toString())
+            .append("name", title(random, 3))
+            .append("description", "Synthetic project " + title(random, 4).toLowerCase())
+            .append("status", PROJECT_STATUSES[random.nextInt(PROJECT_STATUSES.length)])
+            .append("priority", PRIORITIES[random.nextInt(PRIORITIES.length)])
+            .append("progress", 0)
+            .append("teamId", team != null ? team.get("_id") : null)
+            .append("teamName", team != null ? team.get("name") : null)
+            .append("createdBy", ownerId)
+            .append("createdAt", new Date())
+            .append("dueDate", due.getTime())
+            .append("tasks", new ArrayList<Document>());
+    }
+
+    private Document task(String creatorId, String assigneeId, SplittableRandom random) {
+        Calendar created = Calendar.getInstance();
+        created.add(Calendar.DAY_OF_MONTH, -random.nextInt(120));
+        Calendar due = Calendar.getInstance();
+        due.add(Calendar.DAY_OF_MONTH, random.nextInt(-20, 40));
+        return new Document("_id", UUID.randomUUID().toString())
+            .append("title", title(random, 4))
+            .append("description", "Synthetic task to " + title(random, 8).toLowerCase())
+            .append("priority", PRIORITIES[random.nextInt(PRIORITIES.length)])
+            .append("status", TASK_STATUSES[random.nextInt(TASK_STATUSES.length)])
+            .append("assignedTo", assigneeId)
+            .append("createdBy", creatorId)
+            .append("createdAt", created.getTime())
+            .append("dueDate", due.getTime());
+    }
+
+    private String pickAssignee(String[] userIds, SplittableRandom random) {
+        // Assignees come from the whole user population so assignedTo queries fan out realistically
+        return userIds[random.nextInt(userIds.length)];
+    }
+
+    private String title(SplittableRandom random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (w > 0) {
+                sb.append(' ');
+            }
+            sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return sb.toString();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
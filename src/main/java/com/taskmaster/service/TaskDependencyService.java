@@ -0,0 +1,252 @@
+package com.taskmaster.service;
+
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.User;
+import com.taskmaster.repository.UserRepository;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Task dependencies and critical paths, from in-memory {@link DependencyGraph}s
+ * built lazily per project.
+ *
+ * The stored {@code dependsOn} lists are the source of truth. A user's
+ * graphs are tagged with the user document revision they reflect; the task
+ * write paths pass each change in together with the revision it started
+ * from, so the graphs follow along incrementally. Any other write (project
+ * edits, team sync, overflow spills, another instance) leaves the tag behind
+ * and the graphs are rebuilt from the document on next use.
+ */
+@Service
+public class TaskDependencyService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RawUserDocumentService rawUserDocumentService;
+
+    @Value("${taskmaster.dependencies.max-cached-users:1000}")
+    private int maxCachedUsers;
+
+    private final ConcurrentHashMap<String, UserGraphs> graphs = new ConcurrentHashMap<>();
+
+    private static class UserGraphs {
+        long revision;
+        final Map<String, DependencyGraph> projects = new HashMap<>();
+        volatile long lastAccess = System.nanoTime();
+
+        UserGraphs(long revision) {
+            this.revision = revision;
+        }
+    }
+
+    /**
+     * Outcome of adding a dependency: {@code cycle} is {@code null} when the
+     * edge was accepted, otherwise the task ids of the existing path that
+     * the edge would have closed.
+     */
+    public static class EdgeResult {
+        public final List<String> cycle;
+
+        EdgeResult(List<String> cycle) {
+            this.cycle = cycle;
+        }
+    }
+
+    public static long revision(User user) {
+        return user.getRevision() != null ? user.getRevision() : 0L;
+    }
+
+    /**
+     * Makes {@code task} depend on {@code prerequisite} in {@code project},
+     * within a write of the user's document that started at
+     * {@code revisionBefore}. Stores the edge on the task only if it keeps
+     * the graph acyclic; the caller stamps the task.
+     */
+    public EdgeResult addDependency(User user, long revisionBefore, Project project, EmbeddedTask task,
+                                    EmbeddedTask prerequisite) {
+        UserGraphs entry = current(user, revisionBefore);
+        synchronized (entry) {
+            List<String> cycle = graphFor(entry, project).addEdge(task.getId(), prerequisite.getId());
+            if (cycle == null) {
+                if (task.getDependsOn() == null) {
+                    task.setDependsOn(new ArrayList<>());
+                }
+                if (!task.getDependsOn().contains(prerequisite.getId())) {
+                    task.getDependsOn().add(prerequisite.getId());
+                }
+            }
+            return new EdgeResult(cycle);
+        }
+    }
+
+    public boolean removeDependency(User user, long revisionBefore, Project project, EmbeddedTask task,
+                                    String prerequisiteId) {
+        UserGraphs entry = current(user, revisionBefore);
+        synchronized (entry) {
+            graphFor(entry, project).removeEdge(task.getId(), prerequisiteId);
+            boolean removed = task.getDependsOn() != null && task.getDependsOn().remove(prerequisiteId);
+            if (task.getDependsOn() != null && task.getDependsOn().isEmpty()) {
+                task.setDependsOn(null);
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * Marks the end of a write that changed dependencies, so the graphs are
+     * known to match the revision it saves.
+     */
+    public void written(User user) {
+        UserGraphs entry = graphs.get(user.getUserId());
+        if (entry != null) {
+            synchronized (entry) {
+                entry.revision = Math.max(entry.revision, revision(user));
+            }
+        }
+    }
+
+    /**
+     * A task was created, or its due date or status may have changed, in a
+     * write that started at {@code revisionBefore}.
+     */
+    public void taskChanged(User user, long revisionBefore, Project project, EmbeddedTask task) {
+        follow(user, revisionBefore, project, graph -> graph.putTask(task));
+    }
+
+    public void taskRemoved(User user, long revisionBefore, Project project, String taskId) {
+        follow(user, revisionBefore, project, graph -> graph.removeTask(taskId));
+    }
+
+    private void follow(User user, long revisionBefore, Project project, Consumer<DependencyGraph> change) {
+        UserGraphs entry = graphs.get(user.getUserId());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.revision != revisionBefore) {
+                graphs.remove(user.getUserId(), entry);
+                return;
+            }
+            DependencyGraph graph = entry.projects.get(project.getId());
+            if (graph != null) {
+                change.accept(graph);
+            }
+            entry.revision = revision(user);
+        }
+    }
+
+    /**
+     * The critical path and late tasks of a project, or {@code null} when
+     * the user or project does not exist. Served from the cached graph when
+     * it matches the stored revision (a one-field read), otherwise rebuilt.
+     */
+    public Map<String, Object> criticalPath(String userId, String projectId) {
+        UserGraphs entry = graphs.get(userId);
+        if (entry != null) {
+            RawBsonDocument stored = rawUserDocumentService.find(userId, "revision");
+            if (stored == null) {
+                return null;
+            }
+            BsonValue storedRevision = stored.get("revision");
+            long revision = storedRevision != null && storedRevision.isNumber() ? storedRevision.asNumber().longValue() : 0L;
+            synchronized (entry) {
+                DependencyGraph graph = entry.projects.get(projectId);
+                if (entry.revision == revision && graph != null) {
+                    entry.lastAccess = System.nanoTime();
+                    return describe(projectId, graph);
+                }
+            }
+        }
+
+        User user = userRepository.findByUserId(userId);
+        Project project = user != null ? user.findProject(projectId) : null;
+        if (project == null) {
+            return null;
+        }
+        DependencyGraph graph = DependencyGraph.build(project);
+        long revision = revision(user);
+        makeRoom(userId);
+        UserGraphs installed = graphs.compute(userId, (id, existing) ->
+            existing == null || existing.revision < revision ? new UserGraphs(revision) : existing);
+        synchronized (installed) {
+            if (installed.revision == revision) {
+                installed.projects.putIfAbsent(projectId, graph);
+                graph = installed.projects.get(projectId);
+            }
+            return describe(projectId, graph);
+        }
+    }
+
+    private UserGraphs current(User user, long revisionBefore) {
+        makeRoom(user.getUserId());
+        return graphs.compute(user.getUserId(), (id, existing) -> {
+            if (existing != null && existing.revision == revisionBefore) {
+                existing.lastAccess = System.nanoTime();
+                return existing;
+            }
+            return new UserGraphs(revisionBefore);
+        });
+    }
+
+    private void makeRoom(String userId) {
+        if (graphs.size() >= maxCachedUsers && !graphs.containsKey(userId)) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private static DependencyGraph graphFor(UserGraphs entry, Project project) {
+        return entry.projects.computeIfAbsent(project.getId(), id -> DependencyGraph.build(project));
+    }
+
+    private void evictLeastRecentlyUsed() {
+        String oldest = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<String, UserGraphs> entry : graphs.entrySet()) {
+            if (entry.getValue().lastAccess < oldestAccess) {
+                oldestAccess = entry.getValue().lastAccess;
+                oldest = entry.getKey();
+            }
+        }
+        if (oldest != null) {
+            graphs.remove(oldest);
+        }
+    }
+
+    private static Map<String, Object> describe(String projectId, DependencyGraph graph) {
+        List<Map<String, Object>> path = new ArrayList<>();
+        for (DependencyGraph.Node node : graph.criticalPath()) {
+            path.add(describe(node));
+        }
+        List<Map<String, Object>> late = new ArrayList<>();
+        for (DependencyGraph.Node node : graph.late()) {
+            Map<String, Object> item = describe(node);
+            item.put("heldUpBy", node.gate.id);
+            late.add(item);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("projectId", projectId);
+        response.put("projectedFinish", path.isEmpty() ? null : path.get(path.size() - 1).get("projectedFinish"));
+        response.put("criticalPath", path);
+        response.put("late", late);
+        return response;
+    }
+
+    private static Map<String, Object> describe(DependencyGraph.Node node) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("taskId", node.id);
+        item.put("due", node.due != null ? Instant.ofEpochMilli(node.due).toString() : null);
+        item.put("projectedFinish", Instant.ofEpochMilli(node.finish).toString());
+        return item;
+    }
+}
@@ -0,0 +1,323 @@
+package com.taskmaster.service;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.TaskStatus;
+import jakarta.annotation.PostConstruct;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Moves tasks out of oversized {@code users} documents into overflow bucket
+ * documents in {@code task_overflow}.
+ *
+ * Completed tasks are spilled first, then the oldest open tasks, until the
+ * user document is back under the target size. Spilled tasks are no longer
+ * part of the project's task list and are only read through
+ * {@link #loadArchivedTasks}.
+ *
+ * Buckets are written before the users save they belong to, so saves that
+ * may spill go through {@link #save}, which deletes the buckets again if the
+ * save fails. Bucket ids are derived from their first task, so a spill
+ * repeated after a failure overwrites rather than duplicates.
+ */
+@Service
+public class TaskOverflowService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskOverflowService.class);
+
+    public static final String COLLECTION = "task_overflow";
+
+    private static final Codec<Document> DOCUMENT_CODEC = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Ids of buckets spilled on this thread for a users save that hasn't completed
+    private static final ThreadLocal<List<String>> UNSAVED = new ThreadLocal<>();
+
+    @Value("${taskmaster.user.document.spill-threshold-bytes:8388608}")
+    private long spillThresholdBytes;
+
+    @Value("${taskmaster.user.document.spill-target-ratio:0.75}")
+    private double spillTargetRatio;
+
+    @Value("${taskmaster.user.document.bucket-size:500}")
+    private int bucketSize;
+
+    @PostConstruct
+    void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(COLLECTION).ensureIndex(
+                new Index().on("userId", Sort.Direction.ASC).on("projectId", Sort.Direction.ASC).on("spilledAt", Sort.Direction.DESC));
+        } catch (Exception e) {
+            log.warn("Could not ensure indexes on {}: {}", COLLECTION, e.getMessage());
+        }
+    }
+
+    public long getSpillThresholdBytes() {
+        return spillThresholdBytes;
+    }
+
+    public static int sizeOf(Document document) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            DOCUMENT_CODEC.encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.getPosition();
+    }
+
+    /**
+     * Runs a users save for {@code userId} that may spill. If it throws, the
+     * buckets its spill wrote are removed, so the tasks they hold stay only in
+     * the copy of the user that is still stored.
+     */
+    public <T> T save(String userId, Callable<T> save) throws Exception {
+        List<String> spilled = new ArrayList<>();
+        UNSAVED.set(spilled);
+        try {
+            return save.call();
+        } catch (Exception e) {
+            if (!spilled.isEmpty()) {
+                try {
+                    mongoTemplate.remove(new Query(Criteria.where("_id").in(spilled)), COLLECTION);
+                } catch (Exception removeFailure) {
+                    log.error("Failed to remove {} buckets of a failed save for user {}: {}",
+                        spilled.size(), userId, removeFailure.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            UNSAVED.remove();
+        }
+    }
+
+    /**
+     * Spills tasks out of {@code userDocument} (the BSON about to be saved) and
+     * out of the matching in-memory {@code projects} maps until the document
+     * is under the target size. Returns the estimated size after spilling.
+     * Failures are logged and leave the document untouched so the save still
+     * goes ahead.
+     */
+    @SuppressWarnings("unchecked")
+    public long spill(String userId, Document userDocument, List<Project> projects, long currentSize) {
+        long targetSize = (long) (spillThresholdBytes * spillTargetRatio);
+        List<Candidate> candidates = new ArrayList<>();
+        Object projectList = userDocument.get("projects");
+        if (!(projectList instanceof List)) {
+            return currentSize;
+        }
+        for (Object projectObject : (List<Object>) projectList) {
+            if (!(projectObject instanceof Document project)) {
+                continue;
+            }
+            Object tasks = project.get("tasks");
+            if (tasks instanceof List) {
+                for (Object task : (List<Object>) tasks) {
+                    if (task instanceof Document taskDocument) {
+                        candidates.add(new Candidate(project, taskDocument));
+                    }
+                }
+            }
+        }
+        candidates.sort(Comparator
+            .comparing((Candidate c) -> !c.completed)
+            .thenComparingLong(c -> c.createdAt));
+
+        long size = currentSize;
+        Map<String, List<Candidate>> spilledByProject = new LinkedHashMap<>();
+        for (Candidate candidate : candidates) {
+            if (size <= targetSize) {
+                break;
+            }
+            size -= sizeOf(candidate.task);
+            spilledByProject.computeIfAbsent(String.valueOf(candidate.project.get("_id")), k -> new ArrayList<>()).add(candidate);
+        }
+        if (spilledByProject.isEmpty()) {
+            return currentSize;
+        }
+
+        List<String> bucketIds = new ArrayList<>();
+        try {
+            List<ReplaceOneModel<Document>> buckets = new ArrayList<>();
+            Date now = new Date();
+            spilledByProject.forEach((projectId, spilled) -> {
+                for (int from = 0; from < spilled.size(); from += bucketSize) {
+                    List<Document> bucketTasks = new ArrayList<>();
+                    for (Candidate candidate : spilled.subList(from, Math.min(spilled.size(), from + bucketSize))) {
+                        bucketTasks.add(candidate.task);
+                    }
+                    String bucketId = userId + ":" + projectId + ":" + bucketTasks.get(0).get("_id");
+                    bucketIds.add(bucketId);
+                    buckets.add(new ReplaceOneModel<>(Filters.eq("_id", bucketId),
+                        new Document("_id", bucketId)
+                            .append("userId", userId)
+                            .append("projectId", projectId)
+                            .append("spilledAt", now)
+                            .append("count", bucketTasks.size())
+                            .append("tasks", bucketTasks),
+                        new ReplaceOptions().upsert(true)));
+                }
+            });
+            mongoTemplate.getCollection(COLLECTION).bulkWrite(buckets);
+            List<String> unsaved = UNSAVED.get();
+            if (unsaved != null) {
+                unsaved.addAll(bucketIds);
+            } else {
+                log.warn("Spilled {} buckets for user {} outside TaskOverflowService.save; they stay if the save fails",
+                    bucketIds.size(), userId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to spill tasks for user {}; saving full document: {}", userId, e.getMessage());
+            return currentSize;
+        }
+
+        int spilledCount = 0;
+        for (Map.Entry<String, List<Candidate>> entry : spilledByProject.entrySet()) {
+            Set<Object> spilledIds = new HashSet<>();
+            Document project = entry.getValue().get(0).project;
+            for (Candidate candidate : entry.getValue()) {
+                spilledIds.add(candidate.task.get("_id"));
+            }
+            ((List<Object>) project.get("tasks")).removeIf(t -> t instanceof Document d && spilledIds.contains(d.get("_id")));
+            int archived = ((Number) project.getOrDefault("archivedTaskCount", 0)).intValue() + spilledIds.size();
+            project.put("archivedTaskCount", archived);
+            spilledCount += spilledIds.size();
+
+            // Keep the in-memory entity in step so later saves in this request don't resurrect the tasks
+            if (projects != null) {
+                for (Project projectEntity : projects) {
+                    if (entry.getKey().equals(projectEntity.getId())) {
+                        if (projectEntity.getTasks() != null) {
+                            projectEntity.getTasks().removeIf(t -> spilledIds.contains(t.getId()));
+                        }
+                        projectEntity.setArchivedTaskCount(archived);
+                    }
+                }
+            }
+        }
+        log.info("Spilled {} tasks for user {} ({} -> ~{} bytes)", spilledCount, userId, currentSize, size);
+        return size;
+    }
+
+    /**
+     * Archived tasks of one project, newest buckets first. Only the buckets
+     * that hold the page are read with their tasks; the others are skipped
+     * by their stored count.
+     */
+    public List<Document> loadArchivedTasks(String userId, String projectId, int page, int size) {
+        Query counts = new Query(Criteria.where("userId").is(userId).and("projectId").is(projectId))
+            .with(Sort.by(Sort.Direction.DESC, "spilledAt"));
+        counts.fields().include("count");
+
+        long from = (long) page * size;
+        long to = from + size;
+        long position = 0;
+        long skip = 0;
+        List<Object> needed = new ArrayList<>();
+        for (Document bucket : mongoTemplate.find(counts, Document.class, COLLECTION)) {
+            int count = bucket.get("count") instanceof Number number ? number.intValue() : 0;
+            if (position + count > from) {
+                if (needed.isEmpty()) {
+                    skip = from - position;
+                }
+                needed.add(bucket.get("_id"));
+            }
+            position += count;
+            if (position >= to) {
+                break;
+            }
+        }
+        if (needed.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Query query = new Query(Criteria.where("_id").in(needed));
+        query.fields().include("tasks");
+        Map<Object, Document> buckets = new HashMap<>();
+        for (Document bucket : mongoTemplate.find(query, Document.class, COLLECTION)) {
+            buckets.put(bucket.get("_id"), bucket);
+        }
+        List<Document> result = new ArrayList<>();
+        for (Object id : needed) {
+            Document bucket = buckets.get(id);
+            @SuppressWarnings("unchecked")
+            List<Document> tasks = bucket != null ? (List<Document>) bucket.get("tasks") : null;
+            if (tasks != null) {
+                for (int i = (int) skip; i < tasks.size() && result.size() < size; i++) {
+                    result.add(tasks.get(i));
+                }
+            }
+            skip = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Passes every archived task of one project to {@code action}, read with
+     * just the given {@code fields}, one bucket at a time.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachArchivedTask(String userId, String projectId, Consumer<Document> action, String... fields) {
+        Query query = new Query(Criteria.where("userId").is(userId).and("projectId").is(projectId));
+        for (String field : fields) {
+            query.fields().include("tasks." + field);
+        }
+        try (Stream<Document> buckets = mongoTemplate.stream(query, Document.class, COLLECTION)) {
+            buckets.forEach(bucket -> {
+                Object tasks = bucket.get("tasks");
+                if (tasks instanceof List) {
+                    ((List<Document>) tasks).forEach(action);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deletes the overflow buckets of a deleted project. Returns the number
+     * of buckets removed.
+     */
+    public long deleteProject(String userId, String projectId) {
+        Query query = new Query(Criteria.where("userId").is(userId).and("projectId").is(projectId));
+        return mongoTemplate.remove(query, COLLECTION).getDeletedCount();
+    }
+
+    private static class Candidate {
+        final Document project;
+        final Document task;
+        final boolean completed;
+        final long createdAt;
+
+        Candidate(Document project, Document task) {
+            this.project = project;
+            this.task = task;
+            Object statusCode = task.get("statusCode");
+            this.completed = statusCode instanceof Number
+                ? ((Number) statusCode).intValue() == TaskStatus.DONE.code()
+                : TaskStatus.parse(Objects.toString(task.get("status"), null)) == TaskStatus.DONE;
+            Object created = task.get("createdAt");
+            this.createdAt = created instanceof Date ? ((Date) created).getTime() : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.TaskStatus;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Throughput, cycle time, completion rate and on-time share per team, kept
+ * in {@code team_analytics} and updated on every task status transition.
+ *
+ * Throughput and completion rate come from exponentially decayed counters
+ * of created and completed tasks: on each event the counter is decayed to
+ * the event time and incremented, so it approximates events per
+ * {@code halfLife / ln 2} with older events fading out. Cycle time
+ * ({@code createdAt} to completion) and on-time share are event-weighted
+ * moving averages. A reopen takes back the completion it undoes, so a task
+ * finished, reopened and finished again counts once. Each update touches a
+ * fixed number of fields and a read is a single document (or cache) lookup,
+ * independent of task history.
+ *
+ * Teams are updated under a per-team lock and written through, which
+ * assumes a single app instance. {@link #backfill} rebuilds every team from
+ * the tasks stored in user documents, keeping the events recorded while it
+ * runs.
+ */
+@Service
+public class TeamAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamAnalyticsService.class);
+
+    public static final String COLLECTION = "team_analytics";
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${taskmaster.analytics.half-life-days:14}")
+    private double halfLifeDays;
+
+    @Value("${taskmaster.analytics.ewma-alpha:0.2}")
+    private double alpha;
+
+    @Value("${taskmaster.analytics.backfill-parallelism:0}")
+    private int backfillParallelism;
+
+    private final ConcurrentHashMap<String, TeamStats> cache = new ConcurrentHashMap<>();
+
+    // Events recorded per team while a backfill runs, merged into the rebuilt stats
+    private final AtomicReference<ConcurrentHashMap<String, List<Event>>> backfillEvents = new AtomicReference<>();
+
+    /**
+     * Events for any number of teams collected over one write, applied with
+     * {@link #record} in one update per team.
+     */
+    public static class Events {
+        private final Map<String, List<Event>> byTeam = new LinkedHashMap<>();
+        private final long now = System.currentTimeMillis();
+
+        public Events created(String teamId, EmbeddedTask task) {
+            return add(teamId, new Event(now, Event.CREATED, 0, true).of(task));
+        }
+
+        public Events completed(String teamId, EmbeddedTask task) {
+            Date createdAt = task.getCreatedAt();
+            Long dueAt = ReminderService.parseDueDate(task.getDueDate());
+            return add(teamId, new Event(now, Event.COMPLETED,
+                createdAt != null ? Math.max(0, now - createdAt.getTime()) : -1, dueAt == null || now <= dueAt).of(task));
+        }
+
+        /**
+         * A done task moved back to an open status. {@code completedAt} is
+         * when it was completed (its last update before the reopen), which
+         * sets how much of the decayed completion count to take back.
+         */
+        public Events reopened(String teamId, EmbeddedTask task, Date completedAt) {
+            Event event = new Event(now, Event.REOPENED, 0, true).of(task);
+            event.completedAt = completedAt != null ? completedAt.getTime() : now;
+            return add(teamId, event);
+        }
+
+        private Events add(String teamId, Event event) {
+            if (teamId != null && !teamId.isEmpty()) {
+                byTeam.computeIfAbsent(teamId, k -> new ArrayList<>()).add(event);
+            }
+            return this;
+        }
+    }
+
+    public void record(Events events) {
+        events.byTeam.forEach((teamId, list) -> {
+            try {
+                TeamStats stats = stats(teamId);
+                synchronized (stats) {
+                    for (Event event : list) {
+                        apply(stats, event);
+                    }
+                    ConcurrentHashMap<String, List<Event>> duringBackfill = backfillEvents.get();
+                    if (duringBackfill != null) {
+                        duringBackfill.computeIfAbsent(teamId, k -> new ArrayList<>()).addAll(list);
+                    }
+                    save(teamId, stats);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to update analytics for team {}: {}", teamId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Current analytics of a team, with the decayed counters brought up to
+     * now, or {@code null} when nothing has been recorded for it.
+     */
+    public Map<String, Object> snapshot(String teamId) {
+        TeamStats stats = cache.get(teamId);
+        if (stats == null) {
+            // Unknown teams are not cached, so lookups of arbitrary ids don't grow the cache
+            Document document = mongoTemplate.getCollection(COLLECTION).find(Filters.eq("_id", teamId)).first();
+            if (document == null) {
+                return null;
+            }
+            stats = cache.computeIfAbsent(teamId, id -> TeamStats.fromDocument(document));
+        }
+        synchronized (stats) {
+            if (stats.createdCount == 0 && stats.completedCount == 0) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            double decay = decay(now - stats.decayedAt);
+            double created = stats.createdDecayed * decay;
+            double completed = stats.completedDecayed * decay;
+            double tauDays = halfLifeDays / Math.log(2);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("teamId", teamId);
+            result.put("throughputPerWeek", round(completed / tauDays * 7));
+            result.put("completionRate", created > 0 ? round(Math.min(1.0, completed / created) * 100) : null);
+            result.put("cycleTimeHours", stats.cycleTimeHours >= 0 ? round(stats.cycleTimeHours) : null);
+            result.put("efficiency", stats.onTime >= 0 ? round(stats.onTime * 100) : null);
+            result.put("tasksCreated", stats.createdCount);
+            result.put("tasksCompleted", stats.completedCount);
+            result.put("tasksReopened", stats.reopenedCount);
+            result.put("lastCompletedAt", stats.lastCompletedAt > 0 ? new Date(stats.lastCompletedAt) : null);
+            result.put("halfLifeDays", halfLifeDays);
+            return result;
+        }
+    }
+
+    /**
+     * Rebuilds the analytics of every team from the tasks in user documents:
+     * a single cursor over {@code users} feeds batches to a worker pool that
+     * extracts team-project tasks (deduplicating the copies each member
+     * holds), then each team's events are replayed in time order in
+     * parallel and written. A task counts as completed at its last
+     * {@code updatedAt}, the closest record of when it was finished.
+     *
+     * Events recorded while the scan runs are kept, and each team's rebuilt
+     * stats are installed under its lock together with those of its events
+     * that the scanned documents don't already reflect, so live updates
+     * aren't lost.
+     */
+    public Map<String, Object> backfill() throws Exception {
+        ConcurrentHashMap<String, List<Event>> duringBackfill = new ConcurrentHashMap<>();
+        if (!backfillEvents.compareAndSet(null, duringBackfill)) {
+            throw new IllegalStateException("A backfill is already running");
+        }
+        long start = System.nanoTime();
+        int parallelism = backfillParallelism > 0 ? backfillParallelism : Runtime.getRuntime().availableProcessors();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "analytics-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ConcurrentHashMap<String, ConcurrentHashMap<String, HistoricalTask>> tasksByTeam = new ConcurrentHashMap<>();
+        int users = 0;
+        try {
+            List<Future<?>> extraction = new ArrayList<>();
+            List<Document> batch = new ArrayList<>();
+            for (Document user : mongoTemplate.getCollection("users").find()
+                    .projection(Projections.include("projects.teamId", "projects.tasks._id", "projects.tasks.createdAt",
+                        "projects.tasks.updatedAt", "projects.tasks.status", "projects.tasks.statusCode",
+                        "projects.tasks.dueDate"))
+                    .batchSize(500)) {
+                users++;
+                batch.add(user);
+                if (batch.size() == 500) {
+                    List<Document> full = batch;
+                    extraction.add(workers.submit(() -> extract(full, tasksByTeam)));
+                    batch = new ArrayList<>();
+                }
+            }
+            List<Document> last = batch;
+            extraction.add(workers.submit(() -> extract(last, tasksByTeam)));
+            for (Future<?> future : extraction) {
+                future.get();
+            }
+
+            List<Future<Integer>> replays = new ArrayList<>();
+            for (Map.Entry<String, ConcurrentHashMap<String, HistoricalTask>> team : tasksByTeam.entrySet()) {
+                replays.add(workers.submit(() -> replay(team.getKey(), team.getValue(), duringBackfill)));
+            }
+            int tasks = 0;
+            for (Future<Integer> future : replays) {
+                tasks += future.get();
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("users", users);
+            result.put("teams", tasksByTeam.size());
+            result.put("tasks", tasks);
+            result.put("parallelism", parallelism);
+            result.put("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Team analytics backfill: {}", result);
+            return result;
+        } finally {
+            workers.shutdown();
+            backfillEvents.set(null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void extract(List<Document> users, ConcurrentHashMap<String, ConcurrentHashMap<String, HistoricalTask>> tasksByTeam) {
+        for (Document user : users) {
+            Object projects = user.get("projects");
+            if (!(projects instanceof List)) {
+                continue;
+            }
+            for (Object item : (List<Object>) projects) {
+                if (!(item instanceof Document project) || !(project.get("teamId") instanceof String teamId)
+                        || teamId.isEmpty() || !(project.get("tasks") instanceof List)) {
+                    continue;
+                }
+                ConcurrentHashMap<String, HistoricalTask> teamTasks =
+                    tasksByTeam.computeIfAbsent(teamId, k -> new ConcurrentHashMap<>());
+                for (Object taskItem : (List<Object>) project.get("tasks")) {
+                    if (taskItem instanceof Document task && task.get("_id") != null) {
+                        HistoricalTask historical = HistoricalTask.of(task);
+                        if (historical != null) {
+                            // Members hold copies of team tasks; the most recently updated one wins
+                            teamTasks.merge(String.valueOf(task.get("_id")), historical,
+                                (a, b) -> a.updatedAt >= b.updatedAt ? a : b);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private int replay(String teamId, Map<String, HistoricalTask> tasks, Map<String, List<Event>> duringBackfill) {
+        List<Event> events = new ArrayList<>(tasks.size() * 2);
+        for (HistoricalTask task : tasks.values()) {
+            events.add(new Event(task.createdAt, Event.CREATED, 0, true));
+            if (task.done) {
+                events.add(new Event(task.updatedAt, Event.COMPLETED, Math.max(0, task.updatedAt - task.createdAt),
+                    task.dueAt == null || task.updatedAt <= task.dueAt));
+            }
+        }
+        events.sort(Comparator.comparingLong(event -> event.at));
+
+        TeamStats stats = new TeamStats();
+        for (Event event : events) {
+            apply(stats, event);
+        }
+        TeamStats cached = stats(teamId);
+        synchronized (cached) {
+            List<Event> live = duringBackfill.remove(teamId);
+            if (live != null) {
+                for (Event event : live) {
+                    if (!reflected(event, tasks.get(event.taskId))) {
+                        apply(stats, event);
+                    }
+                }
+            }
+            cached.copyFrom(stats);
+            save(teamId, cached);
+        }
+        return tasks.size();
+    }
+
+    // Whether the scanned copy of a task was saved at or after the write that recorded the event
+    private static boolean reflected(Event event, HistoricalTask task) {
+        return task != null && task.updatedAt >= event.taskUpdatedAt;
+    }
+
+    private void apply(TeamStats stats, Event event) {
+        // Events can arrive slightly out of order; never decay backwards
+        long at = Math.max(event.at, stats.decayedAt);
+        double decay = stats.decayedAt > 0 ? decay(at - stats.decayedAt) : 1.0;
+        stats.createdDecayed *= decay;
+        stats.completedDecayed *= decay;
+        stats.decayedAt = at;
+
+        switch (event.type) {
+            case Event.CREATED -> {
+                stats.createdCount++;
+                stats.createdDecayed += 1;
+            }
+            case Event.COMPLETED -> {
+                stats.completedCount++;
+                stats.completedDecayed += 1;
+                stats.lastCompletedAt = Math.max(stats.lastCompletedAt, event.at);
+                if (event.cycleMs >= 0) {
+                    double hours = event.cycleMs / 3_600_000.0;
+                    stats.cycleTimeHours = stats.cycleTimeHours < 0 ? hours : alpha * hours + (1 - alpha) * stats.cycleTimeHours;
+                }
+                double onTime = event.onTime ? 1.0 : 0.0;
+                stats.onTime = stats.onTime < 0 ? onTime : alpha * onTime + (1 - alpha) * stats.onTime;
+            }
+            case Event.REOPENED -> {
+                stats.reopenedCount++;
+                if (stats.completedCount > 0) {
+                    stats.completedCount--;
+                    stats.completedDecayed = Math.max(0, stats.completedDecayed - decay(at - Math.min(event.completedAt, at)));
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private double decay(long elapsedMs) {
+        return Math.pow(0.5, elapsedMs / (halfLifeDays * DAY_MS));
+    }
+
+    private TeamStats stats(String teamId) {
+        return cache.computeIfAbsent(teamId, id -> {
+            Document document = mongoTemplate.getCollection(COLLECTION).find(Filters.eq("_id", id)).first();
+            return document != null ? TeamStats.fromDocument(document) : new TeamStats();
+        });
+    }
+
+    private void save(String teamId, TeamStats stats) {
+        mongoTemplate.getCollection(COLLECTION).replaceOne(Filters.eq("_id", teamId), stats.toDocument(teamId),
+            new ReplaceOptions().upsert(true));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static class Event {
+        static final int CREATED = 0;
+        static final int COMPLETED = 1;
+        static final int REOPENED = 2;
+
+        final long at;
+        final int type;
+        final long cycleMs;
+        final boolean onTime;
+        // The task the event is about and its updatedAt after the write, for merging into a backfill
+        String taskId;
+        long taskUpdatedAt;
+        long completedAt;
+
+        Event(long at, int type, long cycleMs, boolean onTime) {
+            this.at = at;
+            this.type = type;
+            this.cycleMs = cycleMs;
+            this.onTime = onTime;
+        }
+
+        Event of(EmbeddedTask task) {
+            taskId = task.getId();
+            Date updatedAt = task.getUpdatedAt() != null ? task.getUpdatedAt() : task.getCreatedAt();
+            taskUpdatedAt = updatedAt != null ? updatedAt.getTime() : 0;
+            return this;
+        }
+    }
+
+    private static class HistoricalTask {
+        final long createdAt;
+        final long updatedAt;
+        final boolean done;
+        final Long dueAt;
+
+        HistoricalTask(long createdAt, long updatedAt, boolean done, Long dueAt) {
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.done = done;
+            this.dueAt = dueAt;
+        }
+
+        static HistoricalTask of(Document task) {
+            if (!(task.get("createdAt") instanceof Date createdAt)) {
+                return null;
+            }
+            long updatedAt = task.get("updatedAt") instanceof Date date ? date.getTime() : createdAt.getTime();
+            Object statusCode = task.get("statusCode");
+            boolean done = statusCode instanceof Number
+                ? ((Number) statusCode).intValue() == TaskStatus.DONE.code()
+                : TaskStatus.parse(Objects.toString(task.get("status"), null)) == TaskStatus.DONE;
+            Object dueDate = task.get("dueDate");
+            Long dueAt = dueDate instanceof Date date ? Long.valueOf(date.getTime())
+                : ReminderService.parseDueDate(dueDate != null ? dueDate.toString() : null);
+            return new HistoricalTask(createdAt.getTime(), Math.max(updatedAt, createdAt.getTime()), done, dueAt);
+        }
+    }
+
+    private static class TeamStats {
+        long createdCount;
+        long completedCount;
+        long reopenedCount;
+        double createdDecayed;
+        double completedDecayed;
+        long decayedAt;
+        double cycleTimeHours = -1;
+        double onTime = -1;
+        long lastCompletedAt;
+
+        void copyFrom(TeamStats other) {
+            createdCount = other.createdCount;
+            completedCount = other.completedCount;
+            reopenedCount = other.reopenedCount;
+            createdDecayed = other.createdDecayed;
+            completedDecayed = other.completedDecayed;
+            decayedAt = other.decayedAt;
+            cycleTimeHours = other.cycleTimeHours;
+            onTime = other.onTime;
+            lastCompletedAt = other.lastCompletedAt;
+        }
+
+        Document toDocument(String teamId) {
+            return new Document("_id", teamId)
+                .append("createdCount", createdCount)
+                .append("completedCount", completedCount)
+                .append("reopenedCount", reopenedCount)
+                .append("createdDecayed", createdDecayed)
+                .append("completedDecayed", completedDecayed)
+                .append("decayedAt", new Date(decayedAt))
+                .append("cycleTimeHours", cycleTimeHours)
+                .append("onTime", onTime)
+                .append("lastCompletedAt", lastCompletedAt > 0 ? new Date(lastCompletedAt) : null)
+                .append("updatedAt", new Date());
+        }
+
+        static TeamStats fromDocument(Document document) {
+            TeamStats stats = new TeamStats();
+            stats.createdCount = longValue(document.get("createdCount"));
+            stats.completedCount = longValue(document.get("completedCount"));
+            stats.reopenedCount = longValue(document.get("reopenedCount"));
+            stats.createdDecayed = doubleValue(document.get("createdDecayed"), 0);
+            stats.completedDecayed = doubleValue(document.get("completedDecayed"), 0);
+            stats.decayedAt = document.get("decayedAt") instanceof Date date ? date.getTime() : 0;
+            stats.cycleTimeHours = doubleValue(document.get("cycleTimeHours"), -1);
+            stats.onTime = doubleValue(document.get("onTime"), -1);
+            stats.lastCompletedAt = document.get("lastCompletedAt") instanceof Date date ? date.getTime() : 0;
+            return stats;
+        }
+
+        private static long longValue(Object value) {
+            return value instanceof Number number ? number.longValue() : 0;
+        }
+
+        private static double doubleValue(Object value, double fallback) {
+            return value instanceof Number number ? number.doubleValue() : fallback;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.taskmaster.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by {@code K}.
+ *
+ * Level 0 has one slot per tick; each higher level has slots
+ * {@code wheelSize} times wider, so {@code levels} levels cover
+ * {@code wheelSize^levels} ticks. Scheduling and cancelling are O(1): an entry
+ * goes into the slot of the lowest level whose span reaches its deadline and
+ * is linked into that slot's list. When time crosses a slot boundary of a
+ * higher level, that slot's entries are re-inserted and fall to finer levels,
+ * so each entry moves at most {@code levels} times before it expires.
+ * Deadlines beyond the top level's span are parked in its farthest slot and
+ * re-placed each time that slot comes round.
+ *
+ * Not thread-safe on its own; callers synchronize.
+ */
+public class TimingWheel<K, V> {
+
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Node<K, V>[][] slots;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 1
+                || (long) Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel shape");
+        }
+        this.tickMs = tickMs;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.slots = new Node[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                Node<K, V> sentinel = new Node<>(null, null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                slots[level][slot] = sentinel;
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedules {@code value} under {@code key} to expire at {@code deadlineMs},
+     * replacing any entry already scheduled for the key. Deadlines at or
+     * before the current time expire on the next tick.
+     */
+    public void schedule(K key, long deadlineMs, V value) {
+        cancel(key);
+        long tick = Math.floorDiv(deadlineMs + tickMs - 1, tickMs);
+        Node<K, V> node = new Node<>(key, value, Math.max(tick, currentTick + 1));
+        nodes.put(key, node);
+        place(node);
+    }
+
+    public V cancel(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        return node.value;
+    }
+
+    public boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMs} and returns the entries that
+     * expired on the way, in deadline order (tick resolution).
+     */
+    public List<V> advance(long nowMs) {
+        List<V> expired = new ArrayList<>();
+        long target = Math.floorDiv(nowMs, tickMs);
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    cascade(slots[level][(int) (currentTick >>> (bits * level)) & mask]);
+                }
+            }
+            Node<K, V> node = detach(slots[0][(int) currentTick & mask]);
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.next = null;
+                if (node.tick <= currentTick) {
+                    nodes.remove(node.key);
+                    expired.add(node.value);
+                } else {
+                    // Parked beyond the span of a single-level wheel
+                    place(node);
+                }
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(Node<K, V> head) {
+        Node<K, V> node = detach(head);
+        while (node != null) {
+            Node<K, V> next = node.next;
+            node.next = null;
+            place(node);
+            node = next;
+        }
+    }
+
+    /**
+     * Empties a slot and returns its first node, the rest following through
+     * {@code next}. Detaching the whole list first matters because re-placed
+     * nodes may land in this same slot.
+     */
+    private static <K, V> Node<K, V> detach(Node<K, V> head) {
+        if (head.next == head) {
+            return null;
+        }
+        Node<K, V> first = head.next;
+        head.prev.next = null;
+        head.next = head;
+        head.prev = head;
+        for (Node<K, V> node = first; node != null; node = node.next) {
+            node.prev = null;
+        }
+        return first;
+    }
+
+    private void place(Node<K, V> node) {
+        long delta = node.tick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        long tick = Math.min(node.tick, currentTick + (1L << (bits * levels)) - 1);
+        Node<K, V> head = slots[level][(int) (tick >>> (bits * level)) & mask];
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private static <K, V> void unlink(Node<K, V> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    private static class Node<K, V> {
+        final K key;
+        final V value;
+        final long tick;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, long tick) {
+            this.key = key;
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.taskmaster.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by {@code K}, each allowing {@code ratePerSecond}
+ * requests on average with bursts of up to {@code burst}.
+ *
+ * A bucket is a single {@link AtomicLong}, the time at which it will be full
+ * again (the generic cell rate algorithm, equivalent to a token bucket). A
+ * decision is one compare-and-set on it, so there are no locks and no
+ * refill timers. A bucket that has refilled completely behaves exactly like
+ * an absent one, so when the map reaches {@code maxKeys} those are dropped
+ * (at most once a second); if that is not enough, new keys share one
+ * overflow bucket until room frees up. Memory stays bounded however many
+ * distinct keys arrive.
+ */
+public class TokenBucketRateLimiter<K> {
+
+    private static final long NO_WAIT = 0;
+
+    // A full map of busy buckets would otherwise be scanned for every new key
+    private static final long MIN_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final Map<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - MIN_SWEEP_INTERVAL_NANOS);
+
+    public TokenBucketRateLimiter(double ratePerSecond, int burst, int maxKeys) {
+        if (ratePerSecond <= 0 || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("Invalid rate limit");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token for {@code key}. Returns 0 when the request may proceed,
+     * otherwise the nanoseconds until a token will be available.
+     */
+    public long acquire(K key) {
+        return acquire(key, System.nanoTime());
+    }
+
+    long acquire(K key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(nowNanos);
+            }
+            bucket = buckets.size() < maxKeys
+                ? buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos))
+                : overflow;
+        }
+        while (true) {
+            long full = bucket.get();
+            long start = full - nowNanos < 0 ? nowNanos : full;
+            long next = start + intervalNanos;
+            long wait = next - toleranceNanos - intervalNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return NO_WAIT;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drops buckets that have refilled. At most one sweep runs per interval;
+     * callers that lose the race go on without waiting.
+     */
+    private void sweep(long nowNanos) {
+        long last = lastSweep.get();
+        if (nowNanos - last < MIN_SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, nowNanos)) {
+            return;
+        }
+        for (Iterator<AtomicLong> it = buckets.values().iterator(); it.hasNext(); ) {
+            if (it.next().get() - nowNanos <= 0) {
+                it.remove();
+            }
+        }
+    }
+}
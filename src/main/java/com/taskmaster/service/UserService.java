@@ -1,18 +1,42 @@
 package com.taskmaster.service;
 
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import com.taskmaster.model.User;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    private static final String COLLECTION = "users";
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @PostConstruct
+    void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(COLLECTION).ensureIndex(new Index().on("teams._id", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Could not ensure indexes on {}: {}", COLLECTION, e.getMessage());
+        }
+    }
+
     public User findByUserId(String userId) {
         Query query = new Query();
         query.addCriteria(Criteria.where("userId").is(userId));
@@ -25,6 +49,34 @@ public class UserService {
         return mongoTemplate.findOne(query, User.class);
     }
 
+    /**
+     * Ids of the users holding a copy of team {@code teamId}, which is its
+     * owner and every member. Only {@code _id} is read.
+     */
+    public List<String> findTeamMemberIds(String teamId) {
+        List<String> userIds = new ArrayList<>();
+        for (Document user : mongoTemplate.getCollection(COLLECTION)
+                .find(Filters.eq("teams._id", teamId))
+                .projection(Projections.include("_id"))) {
+            userIds.add(String.valueOf(user.get("_id")));
+        }
+        return userIds;
+    }
+
+    /**
+     * The first user holding team {@code teamId}, with only their email and
+     * that one team loaded; {@code null} when no user has it.
+     */
+    public User findTeamHolder(String teamId) {
+        Document user = mongoTemplate.getCollection(COLLECTION)
+            .find(Filters.eq("teams._id", teamId))
+            .projection(Projections.fields(
+                Projections.include("email"),
+                Projections.elemMatch("teams", Filters.eq("_id", teamId))))
+            .first();
+        return user != null ? mongoTemplate.getConverter().read(User.class, user) : null;
+    }
+
     public User save(User user) {
         return mongoTemplate.save(user);
     }
@@ -32,4 +84,4 @@ public class UserService {
     public void delete(User user) {
         mongoTemplate.remove(user);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,426 @@
+package com.taskmaster.service;
+
+import com.mongodb.MongoClientSettings;
+import com.taskmaster.config.UserReadConverter;
+import com.taskmaster.config.UserWriteConverter;
+import com.taskmaster.model.EmbeddedEntity;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.User;
+import com.taskmaster.monitoring.MongoCommandTracker;
+import com.taskmaster.monitoring.RequestLogFilter;
+import com.taskmaster.monitoring.RequestMongoStats;
+import com.taskmaster.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes load-modify-save cycles on {@code users} documents per user.
+ *
+ * Every user maps to one of a fixed number of single-threaded stripes, so
+ * two writes for the same user never overlap and no update is lost to a
+ * concurrent full-document save. Mutations that queue up for a user while
+ * a previous batch is being written are coalesced: the next batch loads the
+ * user once, applies all of them in arrival order and saves once. A
+ * mutation that throws leaves no trace in the batch: the user is rebuilt
+ * from the copy loaded for the batch and the mutations that succeeded
+ * before it are applied again.
+ *
+ * Mutations run on a stripe thread. They must not block on another
+ * {@link #write} (that could deadlock two stripes); use {@link #submit} for
+ * follow-up writes to other users. Since a mutation may be applied more
+ * than once, it should only change the user; anything else belongs after
+ * the write returns.
+ */
+@Service
+public class UserWriteQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(UserWriteQueue.class);
+
+    @FunctionalInterface
+    public interface UserMutation<T> {
+        T apply(UserWriteContext context) throws Exception;
+    }
+
+    /**
+     * Handle passed to a mutation. {@link #user()} is {@code null} when the
+     * user does not exist; call {@link #changed()} after modifying the user
+     * so the batch is persisted.
+     *
+     * Mutations to teams, projects and tasks also {@link #stamp} the entity
+     * they modified, or record a {@link #tombstone} for what they removed, so
+     * {@code GET /api/changes} can hand clients just the delta.
+     */
+    public static class UserWriteContext {
+        private final User user;
+        private final int maxTombstones;
+        private boolean changed;
+
+        UserWriteContext(User user, int maxTombstones) {
+            this.user = user;
+            this.maxTombstones = maxTombstones;
+        }
+
+        public User user() {
+            return user;
+        }
+
+        public void changed() {
+            this.changed = true;
+        }
+
+        /**
+         * Marks {@code entity} as modified at the user's next revision.
+         */
+        public long stamp(EmbeddedEntity entity) {
+            long revision = nextRevision();
+            entity.setRev(revision);
+            return revision;
+        }
+
+        /**
+         * Stamps a project together with every task embedded in it, for
+         * projects copied in from another user's document.
+         */
+        public long stampWithTasks(Project project) {
+            long revision = stamp(project);
+            if (project.getTasks() != null) {
+                for (EmbeddedTask task : project.getTasks()) {
+                    task.setRev(revision);
+                }
+            }
+            return revision;
+        }
+
+        /**
+         * Records that an entity was removed. Deleting a project implies its
+         * tasks; {@code projectId} is only set for task tombstones.
+         */
+        public void tombstone(String type, Object id, Object projectId) {
+            Map<String, Object> tombstone = new HashMap<>();
+            tombstone.put("type", type);
+            tombstone.put("id", id);
+            if (projectId != null) {
+                tombstone.put("projectId", projectId);
+            }
+            tombstone.put("rev", nextRevision());
+
+            List<Map<String, Object>> tombstones = user.getTombstones();
+            if (tombstones == null) {
+                tombstones = new ArrayList<>();
+                user.setTombstones(tombstones);
+            }
+            tombstones.add(tombstone);
+            // Clients older than the oldest tombstone dropped here must resync fully
+            while (tombstones.size() > maxTombstones) {
+                Map<String, Object> dropped = tombstones.remove(0);
+                long droppedRevision = ((Number) dropped.get("rev")).longValue();
+                if (user.getChangesFloor() == null || user.getChangesFloor() < droppedRevision) {
+                    user.setChangesFloor(droppedRevision);
+                }
+            }
+        }
+
+        private long nextRevision() {
+            long revision = (user.getRevision() != null ? user.getRevision() : 0L) + 1;
+            user.setRevision(revision);
+            changed = true;
+            return revision;
+        }
+    }
+
+    private static class Pending<T> {
+        static final int QUEUED = 0;
+        static final int RUNNING = 1;
+        static final int CANCELLED = 2;
+
+        final UserMutation<T> mutation;
+        // The HTTP request that queued the mutation, if any, to charge its Mongo commands to
+        final RequestMongoStats request = MongoCommandTracker.current();
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        T result;
+        Exception failure;
+        boolean changed;
+        boolean ran;
+
+        Pending(UserMutation<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        /**
+         * Runs the mutation unless it was cancelled while queued. Returns
+         * false when it ran and threw.
+         */
+        boolean run(User user, int maxTombstones) {
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                return true;
+            }
+            ran = true;
+            return apply(user, maxTombstones);
+        }
+
+        /**
+         * Applies the mutation to {@code user}, again if it already ran
+         * against an earlier copy; only the last result counts.
+         */
+        boolean apply(User user, int maxTombstones) {
+            UserWriteContext context = new UserWriteContext(user, maxTombstones);
+            try {
+                result = MongoCommandTracker.onBehalfOf(requests(), () -> mutation.apply(context));
+                changed = context.changed;
+                return true;
+            } catch (Exception e) {
+                failure = e;
+                changed = false;
+                return false;
+            }
+        }
+
+        List<RequestMongoStats> requests() {
+            return request != null ? List.of(request) : List.of();
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+
+        void complete(Exception batchFailure) {
+            if (state.get() == CANCELLED) {
+                future.cancel(false);
+            } else if (failure != null) {
+                future.completeExceptionally(failure);
+            } else if (batchFailure != null && (changed || !ran)) {
+                future.completeExceptionally(batchFailure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    private static final ThreadLocal<Boolean> ON_STRIPE = ThreadLocal.withInitial(() -> false);
+
+    private static final Codec<Document> DOCUMENT_CODEC = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+    private static final UserReadConverter USER_READER = new UserReadConverter();
+    private static final UserWriteConverter USER_WRITER = new UserWriteConverter();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskOverflowService taskOverflowService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskmaster.user.write.stripes:0}")
+    private int configuredStripes;
+
+    @Value("${taskmaster.user.write.max-batch:64}")
+    private int maxBatch;
+
+    @Value("${taskmaster.user.write.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${taskmaster.changes.max-tombstones:1000}")
+    private int maxTombstones;
+
+    private ExecutorService[] stripes;
+
+    // Users with queued or running mutations; an entry exists exactly while a drain is scheduled
+    private final ConcurrentHashMap<String, ArrayDeque<Pending<?>>> lanes = new ConcurrentHashMap<>();
+
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    void start() {
+        int count = configuredStripes > 0 ? configuredStripes : Runtime.getRuntime().availableProcessors() * 2;
+        stripes = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            String name = "user-writer-" + i;
+            stripes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(() -> {
+                    ON_STRIPE.set(true);
+                    runnable.run();
+                }, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        batchSizes = DistributionSummary.builder("taskmaster.user.write.batch")
+            .description("Mutations coalesced into one users document save")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+
+    /**
+     * Applies {@code mutation} to the latest copy of the user and waits for it
+     * to be persisted. Exceptions thrown by the mutation are rethrown here.
+     *
+     * After {@code taskmaster.user.write.timeout-ms} this gives up with a
+     * {@link TimeoutException}. A mutation still waiting in the queue is then
+     * cancelled and never runs; one that had already started is left to
+     * finish, so its change may still be saved, and the exception says so.
+     */
+    public <T> T write(String userId, UserMutation<T> mutation) throws Exception {
+        if (ON_STRIPE.get()) {
+            throw new IllegalStateException("Blocking write for " + userId + " from a user-writer thread; use submit()");
+        }
+        Pending<T> pending = enqueue(userId, mutation);
+        try {
+            return pending.future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        } catch (TimeoutException e) {
+            if (pending.cancel()) {
+                throw new TimeoutException("Write for user " + userId + " timed out in the queue and was not applied");
+            }
+            throw new TimeoutException("Write for user " + userId + " timed out while running; it may still be applied");
+        }
+    }
+
+    /**
+     * Queues {@code mutation} without waiting for it.
+     */
+    public <T> CompletableFuture<T> submit(String userId, UserMutation<T> mutation) {
+        return enqueue(userId, mutation).future;
+    }
+
+    private <T> Pending<T> enqueue(String userId, UserMutation<T> mutation) {
+        // Write endpoints take the userId in the body, out of reach of the access log filter
+        RequestLogFilter.identify(userId);
+        Pending<T> pending = new Pending<>(mutation);
+        boolean[] schedule = new boolean[1];
+        lanes.compute(userId, (id, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                schedule[0] = true;
+            }
+            queue.add(pending);
+            return queue;
+        });
+        if (schedule[0]) {
+            stripeFor(userId).execute(() -> drain(userId));
+        }
+        return pending;
+    }
+
+    private static RawBsonDocument snapshot(User user) {
+        return new RawBsonDocument(USER_WRITER.convert(user), DOCUMENT_CODEC);
+    }
+
+    /**
+     * The user as loaded for the batch, with {@code applied} run against it
+     * again; a mutation that fails this time is dropped from
+     * {@code applied} and the rebuild starts over without it. The revision
+     * is carried over from {@code failed}: numbers handed out before the
+     * failure are skipped rather than reused, since caches keyed by revision
+     * may have seen them.
+     */
+    private User rebuild(RawBsonDocument loaded, User failed, List<Pending<?>> applied) {
+        while (true) {
+            User user = USER_READER.convert(loaded.decode(DOCUMENT_CODEC));
+            user.setRevision(failed.getRevision());
+            Pending<?> failing = null;
+            for (Pending<?> pending : applied) {
+                if (!pending.apply(user, maxTombstones)) {
+                    failing = pending;
+                    break;
+                }
+            }
+            if (failing == null) {
+                return user;
+            }
+            applied.remove(failing);
+            failed = user;
+        }
+    }
+
+    private ExecutorService stripeFor(String userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+
+    private void drain(String userId) {
+        List<Pending<?>> batch = new ArrayList<>();
+        lanes.computeIfPresent(userId, (id, queue) -> {
+            while (!queue.isEmpty() && batch.size() < maxBatch) {
+                batch.add(queue.poll());
+            }
+            return queue;
+        });
+
+        MDC.put(RequestLogFilter.USER_ID_MDC_KEY, userId);
+        try {
+            Exception failure = null;
+            try {
+                // The load and save serve every request in the batch
+                Set<RequestMongoStats> requests = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Pending<?> pending : batch) {
+                    requests.addAll(pending.requests());
+                }
+                User user = MongoCommandTracker.onBehalfOf(requests, () -> userRepository.findByUserId(userId));
+                // A lone mutation that throws is simply not saved; in a batch, keep the loaded copy to undo its edits
+                RawBsonDocument loaded = batch.size() > 1 && user != null ? snapshot(user) : null;
+                List<Pending<?>> applied = new ArrayList<>();
+                for (Pending<?> pending : batch) {
+                    if (pending.run(user, maxTombstones)) {
+                        if (pending.ran) {
+                            applied.add(pending);
+                        }
+                    } else if (loaded != null) {
+                        user = rebuild(loaded, user, applied);
+                    }
+                }
+                boolean changed = false;
+                for (Pending<?> pending : applied) {
+                    changed |= pending.changed;
+                }
+                if (changed && user != null) {
+                    User saved = user;
+                    MongoCommandTracker.onBehalfOf(requests,
+                        () -> taskOverflowService.save(userId, () -> userRepository.save(saved)));
+                }
+            } catch (Exception e) {
+                log.error("Write batch of {} mutations for user {} failed: {}", batch.size(), userId, e.getMessage());
+                failure = e;
+            }
+            batchSizes.record(batch.size());
+            for (Pending<?> pending : batch) {
+                pending.complete(failure);
+            }
+        } finally {
+            MDC.remove(RequestLogFilter.USER_ID_MDC_KEY);
+            ArrayDeque<Pending<?>> remaining = lanes.compute(userId, (id, queue) ->
+                queue == null || queue.isEmpty() ? null : queue);
+            if (remaining != null) {
+                stripeFor(userId).execute(() -> drain(userId));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.taskmaster.config;
+
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.User;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserConverterRoundTripTest {
+
+    private final UserReadConverter reader = new UserReadConverter();
+    private final UserWriteConverter writer = new UserWriteConverter();
+
+    private static Document storedUser(Date due) {
+        Document task = new Document("_id", "t1")
+            .append("title", "Write report")
+            .append("status", "todo")
+            .append("statusCode", 0)
+            .append("dueDate", due)
+            .append("legacyFlag", true);
+        Document project = new Document("_id", "p1")
+            .append("name", "Reports")
+            .append("dueDate", due)
+            .append("tasks", List.of(task));
+        return new Document("_id", "user_1")
+            .append("email", "a@example.com")
+            .append("projects", List.of(project))
+            .append("synthRunId", "run-42");
+    }
+
+    @Test
+    void dateTypedDueDatesReadAsIsoTimestamps() {
+        Date due = Date.from(Instant.parse("2026-10-20T00:00:00Z"));
+        User user = reader.convert(storedUser(due));
+
+        Project project = user.findProject("p1");
+        EmbeddedTask task = project.findTask("t1");
+        assertEquals("2026-10-20T00:00:00Z", project.getDueDate());
+        assertEquals("2026-10-20T00:00:00Z", task.getDueDate());
+        // Still comparable as a date prefix by the summary aggregation
+        assertEquals("2026-10-20", task.getDueDate().substring(0, 10));
+    }
+
+    @Test
+    void roundTripKeepsDueDatesAndUnknownFields() {
+        Date due = Date.from(Instant.parse("2026-10-20T12:30:00Z"));
+        Document written = writer.convert(reader.convert(storedUser(due)));
+
+        assertEquals("run-42", written.getString("synthRunId"));
+        Document project = written.getList("projects", Document.class).get(0);
+        Document task = project.getList("tasks", Document.class).get(0);
+        assertEquals("2026-10-20T12:30:00Z", project.get("dueDate"));
+        assertEquals("2026-10-20T12:30:00Z", task.get("dueDate"));
+        assertEquals(true, task.get("legacyFlag"));
+
+        // A second pass changes nothing
+        assertEquals(written, writer.convert(reader.convert(written)));
+    }
+
+    @Test
+    void stringDueDatesAreLeftAlone() {
+        Document stored = storedUser(null);
+        Document task = stored.getList("projects", Document.class).get(0).getList("tasks", Document.class).get(0);
+        task.put("dueDate", "2026-11-01");
+
+        Document written = writer.convert(reader.convert(stored));
+        Document writtenTask = written.getList("projects", Document.class).get(0).getList("tasks", Document.class).get(0);
+        assertEquals("2026-11-01", writtenTask.get("dueDate"));
+    }
+}
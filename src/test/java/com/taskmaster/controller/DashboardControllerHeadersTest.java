@@ -0,0 +1,40 @@
+package com.taskmaster.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardControllerHeadersTest {
+
+    private static final String ETAG = "\"0123abcd\"";
+
+    @Test
+    void ifNoneMatchComparesWholeEntityTags() {
+        assertTrue(DashboardController.matchesAny(ETAG, ETAG));
+        assertTrue(DashboardController.matchesAny("\"other\", W/\"0123abcd\"", ETAG));
+        assertTrue(DashboardController.matchesAny("*", ETAG));
+
+        assertFalse(DashboardController.matchesAny(null, ETAG));
+        assertFalse(DashboardController.matchesAny("\"0123abcd-gz\"", ETAG));
+        assertFalse(DashboardController.matchesAny("\"x0123abcd\"", ETAG));
+        assertFalse(DashboardController.matchesAny("\"0123abc\"", ETAG));
+        // A substring of a longer tag used to count as a match
+        assertFalse(DashboardController.matchesAny("\"prefix\"0123abcd\"", ETAG));
+        assertFalse(DashboardController.matchesAny("0123abcd", ETAG));
+    }
+
+    @Test
+    void acceptEncodingHonoursQualities() {
+        assertTrue(DashboardController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(DashboardController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(DashboardController.acceptsGzip("*"));
+        assertTrue(DashboardController.acceptsGzip("x-gzip"));
+
+        assertFalse(DashboardController.acceptsGzip(null));
+        assertFalse(DashboardController.acceptsGzip("identity"));
+        assertFalse(DashboardController.acceptsGzip("gzip;q=0"));
+        assertFalse(DashboardController.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(DashboardController.acceptsGzip("*;q=0"));
+        assertFalse(DashboardController.acceptsGzip("deflate, gzip;q=bogus"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskmaster.monitoring;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoCommandTrackerTest {
+
+    private static final ConnectionDescription CONNECTION =
+        new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MongoCommandTracker tracker = new MongoCommandTracker();
+
+    @AfterEach
+    void tearDown() {
+        MongoCommandTracker.end();
+    }
+
+    @Test
+    void rawRepliesAreMeasuredExactly() {
+        BsonDocument reply = new BsonDocument("n", new BsonInt32(1)).append("note", new BsonString("é✓"));
+        RawBsonDocument raw = new RawBsonDocument(reply, new BsonDocumentCodec());
+
+        RequestMongoStats stats = run(raw);
+
+        assertEquals(raw.getByteBuffer().remaining(), stats.getTotalBytes());
+        assertEquals(0, stats.getUnmeasuredCount());
+    }
+
+    @Test
+    void decodedRepliesAreLeftUnmeasured() {
+        RequestMongoStats stats = run(new BsonDocument("n", new BsonInt32(1)));
+
+        assertEquals(0, stats.getTotalBytes());
+        assertEquals(1, stats.getUnmeasuredCount());
+        assertEquals(RequestMongoStats.UNMEASURED, stats.getCommands().get(0).bytes);
+    }
+
+    @Test
+    void commandsOnAnotherThreadAreChargedToTheRequestsServed() throws Exception {
+        RequestMongoStats first = new RequestMongoStats("r1", "PUT", "/api/a");
+        RequestMongoStats second = new RequestMongoStats("r2", "PUT", "/api/b");
+        Thread worker = new Thread(() -> {
+            try {
+                MongoCommandTracker.onBehalfOf(List.of(first, second), () -> command(new BsonDocument()));
+                command(new BsonDocument());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        worker.start();
+        worker.join();
+
+        assertEquals(1, first.getCommandCount());
+        assertEquals(1, second.getCommandCount());
+        assertEquals("update users", first.getCommands().get(0).commandName + " " + first.getCommands().get(0).collection);
+    }
+
+    private RequestMongoStats run(BsonDocument reply) {
+        RequestMongoStats stats = new RequestMongoStats("r1", "GET", "/api/test");
+        MongoCommandTracker.begin(stats);
+        command(reply);
+        return stats;
+    }
+
+    private Void command(BsonDocument reply) {
+        BsonDocument command = new BsonDocument("update", new BsonString("users"));
+        tracker.commandStarted(new CommandStartedEvent(null, 1, 7, CONNECTION, "db", "update", command));
+        tracker.commandSucceeded(new CommandSucceededEvent(null, 1, 7, CONNECTION, "db", "update", reply, 1000));
+        return null;
+    }
+}
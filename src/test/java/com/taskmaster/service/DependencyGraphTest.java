@@ -0,0 +1,256 @@
+package com.taskmaster.service;
+
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.TaskStatus;
+import com.taskmaster.service.DependencyGraph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+
+    @Test
+    void edgeAgainstTheOrderIsReorderedNotRejected() {
+        DependencyGraph graph = graph(task("a", 1), task("b", 2), task("c", 3));
+        // a comes first in the order; making it depend on c forces a reorder
+        assertNull(graph.addEdge("a", "c"));
+        assertNull(graph.addEdge("c", "b"));
+        assertTrue(graph.node("b").order < graph.node("c").order);
+        assertTrue(graph.node("c").order < graph.node("a").order);
+    }
+
+    @Test
+    void cycleIsRejectedWithThePathItWouldClose() {
+        DependencyGraph graph = graph(task("a", 1), task("b", 2), task("c", 3), task("d", 4));
+        assertNull(graph.addEdge("b", "a"));
+        assertNull(graph.addEdge("c", "b"));
+        assertNull(graph.addEdge("d", "c"));
+
+        assertEquals(List.of("a", "b", "c", "d"), graph.addEdge("a", "d"));
+        assertEquals(List.of("a"), graph.addEdge("a", "a"));
+        assertFalse(graph.node("d").dependents.contains(graph.node("a")));
+    }
+
+    @Test
+    void criticalPathFollowsTheLatestOpenPrerequisites() {
+        EmbeddedTask done = task("done", 30);
+        done.setStatus(TaskStatus.DONE);
+        DependencyGraph graph = graph(task("design", 10), task("build", 5), task("test", 7), done, task("ship", 8));
+        graph.addEdge("build", "design");
+        graph.addEdge("test", "build");
+        graph.addEdge("ship", "test");
+        graph.addEdge("ship", "done");
+
+        assertEquals(List.of("design", "build", "test", "ship"), ids(graph.criticalPath()));
+        assertEquals(List.of("build", "test", "ship"), ids(graph.late()));
+
+        graph.removeEdge("build", "design");
+        assertEquals(List.of("design"), ids(graph.criticalPath()));
+        assertEquals(List.of(), ids(graph.late()));
+    }
+
+    @Test
+    void buildDropsEdgesClosingStoredCycles() {
+        EmbeddedTask a = task("a", 1);
+        EmbeddedTask b = task("b", 2);
+        a.setDependsOn(List.of("b"));
+        b.setDependsOn(List.of("a", "missing"));
+        Project project = new Project();
+        project.setTasks(List.of(a, b));
+
+        DependencyGraph graph = DependencyGraph.build(project);
+        Node nodeA = graph.node("a");
+        Node nodeB = graph.node("b");
+        int edges = nodeA.prerequisites.size() + nodeB.prerequisites.size();
+        assertEquals(1, edges);
+        for (Node node : List.of(nodeA, nodeB)) {
+            for (Node prerequisite : node.prerequisites) {
+                assertTrue(prerequisite.order < node.order);
+            }
+        }
+    }
+
+    /**
+     * Random task and edge changes against a brute-force model: plain edge
+     * sets, cycle detection by searching the whole graph, and finishes
+     * recomputed from scratch by recursion. After every step the graph's
+     * order must be topological, its finishes and critical path must match
+     * the model, and a graph rebuilt from the same tasks must agree.
+     */
+    @Test
+    void matchesBruteForceModel() {
+        Random random = new Random(3);
+        for (int round = 0; round < 30; round++) {
+            Map<String, EmbeddedTask> tasks = new LinkedHashMap<>();
+            Map<String, Set<String>> prerequisites = new HashMap<>();
+            DependencyGraph graph = DependencyGraph.build(new Project());
+            int nextId = 0;
+
+            for (int step = 0; step < 400; step++) {
+                List<String> ids = new ArrayList<>(tasks.keySet());
+                int action = ids.size() < 2 ? 0 : random.nextInt(10);
+                if (action <= 1) {
+                    EmbeddedTask task = task("t" + nextId++, random.nextInt(5) == 0 ? null : random.nextInt(40));
+                    tasks.put(task.getId(), task);
+                    prerequisites.put(task.getId(), new LinkedHashSet<>());
+                    graph.putTask(task);
+                } else if (action == 2) {
+                    EmbeddedTask task = tasks.get(pick(ids, random));
+                    task.setDueDate(random.nextInt(4) == 0 ? null : date(random.nextInt(40)));
+                    task.setStatus(random.nextInt(4) == 0 ? TaskStatus.DONE : TaskStatus.TODO);
+                    graph.putTask(task);
+                } else if (action == 3) {
+                    String id = pick(ids, random);
+                    tasks.remove(id);
+                    prerequisites.remove(id);
+                    prerequisites.values().forEach(set -> set.remove(id));
+                    graph.removeTask(id);
+                } else if (action <= 7) {
+                    String dependent = pick(ids, random);
+                    String prerequisite = pick(ids, random);
+                    List<String> cycle = graph.addEdge(dependent, prerequisite);
+                    boolean closesCycle = dependent.equals(prerequisite) || reaches(prerequisites, dependent, prerequisite);
+                    assertEquals(closesCycle, cycle != null, "cycle detection for " + dependent + " -> " + prerequisite);
+                    if (cycle == null) {
+                        prerequisites.get(dependent).add(prerequisite);
+                    } else {
+                        assertCyclePath(prerequisites, cycle, dependent, prerequisite);
+                    }
+                } else {
+                    String dependent = pick(ids, random);
+                    List<String> existing = new ArrayList<>(prerequisites.get(dependent));
+                    if (!existing.isEmpty()) {
+                        String prerequisite = pick(existing, random);
+                        prerequisites.get(dependent).remove(prerequisite);
+                        graph.removeEdge(dependent, prerequisite);
+                    }
+                }
+                assertMatches(graph, tasks, prerequisites);
+            }
+
+            Project project = new Project();
+            List<EmbeddedTask> stored = new ArrayList<>(tasks.values());
+            stored.forEach(task -> task.setDependsOn(new ArrayList<>(prerequisites.get(task.getId()))));
+            project.setTasks(stored);
+            assertMatches(DependencyGraph.build(project), tasks, prerequisites);
+        }
+    }
+
+    private static void assertMatches(DependencyGraph graph, Map<String, EmbeddedTask> tasks,
+                                      Map<String, Set<String>> prerequisites) {
+        assertEquals(tasks.size(), graph.size());
+        Map<String, Long> finishes = new HashMap<>();
+        Set<Integer> orders = new HashSet<>();
+        for (String id : tasks.keySet()) {
+            Node node = graph.node(id);
+            assertTrue(orders.add(node.order), "order " + node.order + " used twice");
+            assertEquals(prerequisites.get(id), ids(node.prerequisites), "prerequisites of " + id);
+            for (Node prerequisite : node.prerequisites) {
+                assertTrue(prerequisite.order < node.order, prerequisite.id + " not ordered before " + id);
+                assertTrue(prerequisite.dependents.contains(node));
+            }
+            assertEquals(finish(id, tasks, prerequisites, finishes), node.finish, "finish of " + id);
+        }
+
+        List<Node> path = graph.criticalPath();
+        Long latest = finishes.values().stream().filter(Objects::nonNull).max(Long::compare).orElse(null);
+        if (latest == null) {
+            assertTrue(path.isEmpty());
+            return;
+        }
+        assertEquals(latest, path.get(path.size() - 1).finish);
+        assertEquals(latest, path.get(0).due, "the path starts at the task whose due date sets the finish");
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(prerequisites.get(path.get(i).id).contains(path.get(i - 1).id), "path is not a chain");
+            assertEquals(latest, path.get(i).finish);
+        }
+    }
+
+    // Projected finish by recursion over the model
+    private static Long finish(String id, Map<String, EmbeddedTask> tasks, Map<String, Set<String>> prerequisites,
+                               Map<String, Long> memo) {
+        if (memo.containsKey(id)) {
+            return memo.get(id);
+        }
+        EmbeddedTask task = tasks.get(id);
+        Long finish = null;
+        if (task.getStatus() == null || !task.getStatus().isDone()) {
+            finish = ReminderService.parseDueDate(task.getDueDate());
+            for (String prerequisite : prerequisites.get(id)) {
+                Long before = finish(prerequisite, tasks, prerequisites, memo);
+                if (before != null && (finish == null || before > finish)) {
+                    finish = before;
+                }
+            }
+        }
+        memo.put(id, finish);
+        return finish;
+    }
+
+    // Whether from (transitively) depends on to
+    private static boolean reaches(Map<String, Set<String>> prerequisites, String to, String from) {
+        Deque<String> stack = new ArrayDeque<>(List.of(from));
+        Set<String> seen = new HashSet<>();
+        while (!stack.isEmpty()) {
+            String id = stack.pop();
+            if (id.equals(to)) {
+                return true;
+            }
+            if (seen.add(id)) {
+                stack.addAll(prerequisites.get(id));
+            }
+        }
+        return false;
+    }
+
+    // The returned path runs from dependent to prerequisite along existing edges
+    private static void assertCyclePath(Map<String, Set<String>> prerequisites, List<String> cycle,
+                                        String dependent, String prerequisite) {
+        if (dependent.equals(prerequisite)) {
+            assertEquals(List.of(dependent), cycle);
+            return;
+        }
+        assertEquals(dependent, cycle.get(0));
+        assertEquals(prerequisite, cycle.get(cycle.size() - 1));
+        for (int i = 1; i < cycle.size(); i++) {
+            assertTrue(prerequisites.get(cycle.get(i)).contains(cycle.get(i - 1)),
+                cycle.get(i) + " does not depend on " + cycle.get(i - 1));
+        }
+    }
+
+    private static DependencyGraph graph(EmbeddedTask... tasks) {
+        Project project = new Project();
+        project.setTasks(new ArrayList<>(List.of(tasks)));
+        return DependencyGraph.build(project);
+    }
+
+    private static EmbeddedTask task(String id, Integer dueDay) {
+        EmbeddedTask task = new EmbeddedTask();
+        task.setId(id);
+        task.setStatus(TaskStatus.TODO);
+        task.setDueDate(dueDay != null ? date(dueDay) : null);
+        return task;
+    }
+
+    private static String date(int day) {
+        return LocalDate.of(2030, 1, 1).plusDays(day).toString();
+    }
+
+    private static String pick(List<String> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static List<String> ids(Collection<Node> nodes) {
+        return nodes.stream().map(node -> node.id).toList();
+    }
+
+    private static Set<String> ids(Set<Node> nodes) {
+        Set<String> ids = new LinkedHashSet<>();
+        nodes.forEach(node -> ids.add(node.id));
+        return ids;
+    }
+}
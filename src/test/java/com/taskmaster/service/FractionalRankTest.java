@@ -0,0 +1,174 @@
+package com.taskmaster.service;
+
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.Project;
+import com.taskmaster.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FractionalRankTest {
+
+    @Test
+    void repeatedInsertsAtOneSpotNeverRunOutOfRoom() {
+        // Always just above the same key, and always just below it: the two directions bisect differently
+        String low = FractionalRank.between(null, null);
+        String high = FractionalRank.after(low);
+        String lowest = low;
+        String highest = high;
+        for (int i = 0; i < 3000; i++) {
+            String up = FractionalRank.between(low, highest);
+            assertBetween(low, up, highest);
+            highest = up;
+
+            String down = FractionalRank.between(lowest, high);
+            assertBetween(lowest, down, high);
+            lowest = down;
+        }
+        // Halving the gap each time: one character per five inserts going down, six going up
+        assertTrue(highest.length() <= 3000 / 5 + 5, "key grew to " + highest.length());
+        assertTrue(lowest.length() <= 3000 / 6 + 5, "key grew to " + lowest.length());
+    }
+
+    @Test
+    void tightestGapsStillHaveAKeyBetween() {
+        String[][] pairs = {
+            {"", "1"}, {"", "01"}, {"", "0001"}, {"1", "11"}, {"1", "101"}, {"1", "2"},
+            {"y", "z"}, {"z", "z1"}, {"zz", "zzz"}, {"0z", "1"}, {"0zzz", "1"}, {"A", "A0001"},
+        };
+        for (String[] pair : pairs) {
+            String key = FractionalRank.between(pair[0].isEmpty() ? null : pair[0], pair[1]);
+            assertBetween(pair[0], key, pair[1]);
+        }
+        String top = "z";
+        for (int i = 0; i < 200; i++) {
+            String next = FractionalRank.between(top, null);
+            assertBetween(top, next, null);
+            top = next;
+        }
+    }
+
+    @Test
+    void countingPastTheFirstDigitFallsBackToBisection() {
+        String key = "zzzz";
+        for (int i = 0; i < 100; i++) {
+            String next = FractionalRank.after(key);
+            assertBetween(key, next, null);
+            key = next;
+        }
+        key = "0001";
+        for (int i = 0; i < 100; i++) {
+            String next = FractionalRank.before(key);
+            assertBetween("", next, key);
+            key = next;
+        }
+    }
+
+    @Test
+    void appendsStayShort() {
+        String key = null;
+        for (int i = 0; i < 100_000; i++) {
+            String next = FractionalRank.after(key);
+            if (key != null) {
+                assertBetween(key, next, null);
+            }
+            key = next;
+        }
+        assertTrue(key.length() <= 4, key);
+    }
+
+    @Test
+    void spreadKeysAreAscendingAndInsideTheBounds() {
+        for (int count : new int[] {0, 1, 2, 7, 61, 62, 63, 1000}) {
+            List<String> keys = FractionalRank.between("1", "2", count);
+            assertEquals(count, keys.size());
+            String previous = "1";
+            for (String key : keys) {
+                assertBetween(previous, key, "2");
+                previous = key;
+            }
+        }
+    }
+
+    @Test
+    void invalidKeysAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FractionalRank.between("10", null));
+        assertThrows(IllegalArgumentException.class, () -> FractionalRank.between("a-b", null));
+        assertThrows(IllegalArgumentException.class, () -> FractionalRank.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> FractionalRank.between("a", "a"));
+    }
+
+    /**
+     * Random moves in one list of keys, against the list's own order: each
+     * new key must land exactly where it was inserted.
+     */
+    @Test
+    void randomInsertsKeepTheListSorted() {
+        Random random = new Random(11);
+        List<String> keys = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            if (!keys.isEmpty() && random.nextInt(4) == 0) {
+                keys.remove(random.nextInt(keys.size()));
+            }
+            int index = random.nextInt(keys.size() + 1);
+            String before = index > 0 ? keys.get(index - 1) : null;
+            String after = index < keys.size() ? keys.get(index) : null;
+            String key = switch (random.nextInt(3)) {
+                case 0 -> after == null ? FractionalRank.after(before) : FractionalRank.between(before, after);
+                case 1 -> before == null ? FractionalRank.before(after) : FractionalRank.between(before, after);
+                default -> FractionalRank.between(before, after);
+            };
+            assertBetween(before != null ? before : "", key, after);
+            keys.add(index, key);
+        }
+    }
+
+    @Test
+    void boardRanksUnrankedTasksAfterRankedOnesInStoredOrder() {
+        Project project = new Project();
+        List<EmbeddedTask> tasks = new ArrayList<>();
+        tasks.add(task("u1", TaskStatus.TODO, null));
+        tasks.add(task("r2", TaskStatus.TODO, "V"));
+        tasks.add(task("d", TaskStatus.DONE, "a"));
+        tasks.add(task("u2", TaskStatus.TODO, null));
+        tasks.add(task("r1", TaskStatus.TODO, "F"));
+        tasks.add(task("u3", null, null));
+        project.setTasks(tasks);
+
+        assertEquals(List.of("r1", "r2", "u1", "u2", "u3"), ids(BoardOrder.tasks(project, TaskStatus.TODO)));
+        assertEquals(List.of("u1", "u2", "u3"), ids(BoardOrder.rankUnranked(project, TaskStatus.TODO)));
+        assertEquals(List.of("r1", "r2", "u1", "u2", "u3"), ids(BoardOrder.tasks(project, TaskStatus.TODO)));
+        assertTrue(BoardOrder.tasks(project, TaskStatus.TODO).get(2).getRank().compareTo("V") > 0);
+
+        EmbeddedTask r1 = tasks.get(4);
+        String end = BoardOrder.rankAtEnd(project, TaskStatus.TODO, r1);
+        assertTrue(end.compareTo(tasks.get(5).getRank()) > 0);
+        // With r1 moving, r2 is at the top
+        assertNull(BoardOrder.adjacent(project, TaskStatus.TODO, tasks.get(1), r1, false));
+        assertEquals("u1", BoardOrder.adjacent(project, TaskStatus.TODO, tasks.get(1), r1, true).getId());
+    }
+
+    private static void assertBetween(String low, String key, String high) {
+        assertTrue(FractionalRank.isValid(key), "invalid key " + key);
+        assertTrue(key.compareTo(low) > 0, key + " not after " + low);
+        if (high != null) {
+            assertTrue(key.compareTo(high) < 0, key + " not before " + high);
+        }
+    }
+
+    private static EmbeddedTask task(String id, TaskStatus status, String rank) {
+        EmbeddedTask task = new EmbeddedTask();
+        task.setId(id);
+        task.setStatus(status);
+        task.setRank(rank);
+        return task;
+    }
+
+    private static List<String> ids(List<EmbeddedTask> tasks) {
+        return tasks.stream().map(EmbeddedTask::getId).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOneModel;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TaskOverflowServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> buckets = mock(MongoCollection.class);
+    private final TaskOverflowService service = new TaskOverflowService();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollection(TaskOverflowService.COLLECTION)).thenReturn(buckets);
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "spillThresholdBytes", 1000L);
+        ReflectionTestUtils.setField(service, "spillTargetRatio", 0.5);
+        ReflectionTestUtils.setField(service, "bucketSize", 2);
+    }
+
+    @Test
+    void failedSaveRemovesTheBucketsItsSpillWrote() {
+        Document user = user(6);
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> service.save("u1", () -> {
+            service.spill("u1", user, null, TaskOverflowService.sizeOf(user));
+            throw new IllegalStateException("save failed");
+        }));
+        assertEquals("save failed", failure.getMessage());
+
+        List<Object> written = bucketIds();
+        assertFalse(written.isEmpty());
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(TaskOverflowService.COLLECTION));
+        assertEquals(new Document("_id", new Document("$in", written)), removed.getValue().getQueryObject());
+    }
+
+    @Test
+    void repeatedSpillOfTheSameTasksReusesBucketIds() throws Exception {
+        service.save("u1", () -> service.spill("u1", user(6), null, TaskOverflowService.sizeOf(user(6))));
+        service.save("u1", () -> service.spill("u1", user(6), null, TaskOverflowService.sizeOf(user(6))));
+
+        List<Object> written = bucketIds();
+        int half = written.size() / 2;
+        assertEquals(written.subList(0, half), written.subList(half, written.size()));
+        verify(mongoTemplate, never()).remove(any(Query.class), anyString());
+    }
+
+    @Test
+    void pageReadsOnlyTheBucketsItCovers() {
+        // Three buckets of 4, 3 and 5 tasks, newest first
+        Map<String, List<Document>> stored = new LinkedHashMap<>();
+        stored.put("b1", tasks("a", 4));
+        stored.put("b2", tasks("b", 3));
+        stored.put("b3", tasks("c", 5));
+        List<Object> fetched = new ArrayList<>();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(TaskOverflowService.COLLECTION)))
+            .thenAnswer(call -> {
+                Query query = call.getArgument(0);
+                List<Document> result = new ArrayList<>();
+                if (query.getFieldsObject().containsKey("count")) {
+                    stored.forEach((id, tasks) -> result.add(new Document("_id", id).append("count", tasks.size())));
+                    return result;
+                }
+                @SuppressWarnings("unchecked")
+                List<Object> ids = (List<Object>) ((Document) query.getQueryObject().get("_id")).get("$in");
+                fetched.addAll(ids);
+                ids.forEach(id -> result.add(new Document("_id", id).append("tasks", stored.get(id))));
+                return result;
+            });
+
+        assertEquals(List.of("a3", "b0", "b1"), titles(service.loadArchivedTasks("u1", "p1", 1, 3)));
+        assertEquals(List.of("b1", "b2"), fetched);
+        fetched.clear();
+
+        assertEquals(List.of("c3", "c4"), titles(service.loadArchivedTasks("u1", "p1", 5, 2)));
+        assertEquals(List.of("b3"), fetched);
+        fetched.clear();
+
+        assertEquals(List.of(), titles(service.loadArchivedTasks("u1", "p1", 3, 5)));
+        assertTrue(fetched.isEmpty());
+    }
+
+    private List<Object> bucketIds() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<List<ReplaceOneModel<Document>>> writes = ArgumentCaptor.forClass((Class) List.class);
+        verify(buckets, atLeastOnce()).bulkWrite(writes.capture());
+        List<Object> ids = new ArrayList<>();
+        for (List<ReplaceOneModel<Document>> write : writes.getAllValues()) {
+            for (ReplaceOneModel<Document> model : write) {
+                ids.add(model.getReplacement().get("_id"));
+            }
+        }
+        return ids;
+    }
+
+    private static Document user(int taskCount) {
+        List<Document> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new Document("_id", "t" + i).append("statusCode", 3).append("createdAt", new Date(i))
+                .append("description", "x".repeat(200)));
+        }
+        return new Document("userId", "u1")
+            .append("projects", new ArrayList<>(List.of(new Document("_id", "p1").append("tasks", tasks))));
+    }
+
+    private static List<Document> tasks(String prefix, int count) {
+        List<Document> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Document("title", prefix + i));
+        }
+        return tasks;
+    }
+
+    private static List<String> titles(List<Document> tasks) {
+        return tasks.stream().map(task -> task.getString("title")).toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.taskmaster.service;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.taskmaster.model.EmbeddedTask;
+import com.taskmaster.model.TaskStatus;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TeamAnalyticsServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> analytics = mock(MongoCollection.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> users = mock(MongoCollection.class);
+    private final TeamAnalyticsService service = new TeamAnalyticsService();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        FindIterable<Document> none = mock(FindIterable.class);
+        when(analytics.find(any(Bson.class))).thenReturn(none);
+        when(mongoTemplate.getCollection(TeamAnalyticsService.COLLECTION)).thenReturn(analytics);
+        when(mongoTemplate.getCollection("users")).thenReturn(users);
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "halfLifeDays", 14.0);
+        ReflectionTestUtils.setField(service, "alpha", 0.2);
+        ReflectionTestUtils.setField(service, "backfillParallelism", 2);
+    }
+
+    @Test
+    void reopenedAndCompletedAgainCountsOnce() {
+        EmbeddedTask task = task("t1", new Date());
+        service.record(new TeamAnalyticsService.Events().created("team", task).completed("team", task));
+        Date completedAt = task.getUpdatedAt();
+        for (int i = 0; i < 3; i++) {
+            service.record(new TeamAnalyticsService.Events().reopened("team", task, completedAt)
+                .completed("team", task));
+        }
+
+        Map<String, Object> snapshot = service.snapshot("team");
+        assertEquals(1L, snapshot.get("tasksCreated"));
+        assertEquals(1L, snapshot.get("tasksCompleted"));
+        assertEquals(3L, snapshot.get("tasksReopened"));
+        assertEquals(100.0, snapshot.get("completionRate"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfillKeepsEventsRecordedWhileItRuns() throws Exception {
+        Date stored = new Date(System.currentTimeMillis() - 60_000);
+        EmbeddedTask scanned = task("t1", stored);
+        EmbeddedTask late = task("t2", new Date());
+        Document user = new Document("projects", List.of(new Document("teamId", "team")
+            .append("tasks", List.of(new Document("_id", "t1").append("createdAt", stored).append("updatedAt", stored)
+                .append("statusCode", TaskStatus.TODO.code())))));
+
+        FindIterable<Document> found = mock(FindIterable.class);
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(users.find()).thenReturn(found);
+        when(found.projection(any())).thenReturn(found);
+        when(found.batchSize(anyInt())).thenReturn(found);
+        when(found.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenAnswer(call -> {
+            // Recorded mid-scan: t1's creation is already in the scanned document, t2 is not
+            service.record(new TeamAnalyticsService.Events().created("team", scanned).created("team", late));
+            return user;
+        });
+
+        service.backfill();
+
+        assertEquals(2L, service.snapshot("team").get("tasksCreated"));
+    }
+
+    private static EmbeddedTask task(String id, Date at) {
+        EmbeddedTask task = new EmbeddedTask();
+        task.setId(id);
+        task.setStatus(TaskStatus.TODO);
+        task.setCreatedAt(at);
+        task.setUpdatedAt(at);
+        return task;
+    }
+}
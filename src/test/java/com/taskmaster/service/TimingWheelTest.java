@@ -0,0 +1,131 @@
+package com.taskmaster.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK_MS = 10;
+
+    @Test
+    void entriesExpireOnTheirTickAcrossLevelBoundaries() {
+        // 4 slots over 3 levels: 64 ticks, with level boundaries every 4 and 16 ticks
+        long start = 13 * TICK_MS;
+        TimingWheel<Integer, Integer> wheel = new TimingWheel<>(TICK_MS, 4, 3, start);
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int delta = 1; delta <= 63; delta++) {
+            wheel.schedule(delta, start + delta * TICK_MS, delta);
+            expected.put(delta, 13L + delta);
+        }
+
+        for (long tick = 14; tick <= 13 + 63; tick++) {
+            List<Integer> expired = wheel.advance(tick * TICK_MS);
+            long now = tick;
+            List<Integer> due = expected.entrySet().stream()
+                .filter(entry -> entry.getValue() == now).map(Map.Entry::getKey).toList();
+            assertEquals(due, expired, "tick " + tick);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelWrapAroundUntilDue() {
+        // 2 slots over 2 levels cover 4 ticks; these deadlines lap the wheel several times
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK_MS, 2, 2, 0);
+        wheel.schedule("a", 5 * TICK_MS, "a");
+        wheel.schedule("b", 17 * TICK_MS, "b");
+        wheel.schedule("c", 100 * TICK_MS, "c");
+
+        Map<String, Long> fired = new HashMap<>();
+        for (long tick = 1; tick <= 120; tick++) {
+            for (String value : wheel.advance(tick * TICK_MS)) {
+                assertNull(fired.put(value, tick), value + " fired twice");
+            }
+        }
+        assertEquals(Map.of("a", 5L, "b", 17L, "c", 100L), fired);
+    }
+
+    @Test
+    void singleLevelWheelHoldsDeadlinesBeyondItsSpan() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK_MS, 4, 1, 0);
+        wheel.schedule("far", 10 * TICK_MS, "far");
+        for (long tick = 1; tick < 10; tick++) {
+            assertEquals(List.of(), wheel.advance(tick * TICK_MS), "tick " + tick);
+        }
+        assertEquals(List.of("far"), wheel.advance(10 * TICK_MS));
+    }
+
+    @Test
+    void deadlinesInThePastFireOnTheNextTick() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK_MS, 8, 2, 1000);
+        wheel.schedule("late", 0, "late");
+        assertEquals(List.of(), wheel.advance(1000));
+        assertEquals(List.of("late"), wheel.advance(1000 + TICK_MS));
+    }
+
+    @Test
+    void rescheduleAndCancelReplaceEarlierEntries() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK_MS, 4, 2, 0);
+        wheel.schedule("k", 3 * TICK_MS, "first");
+        wheel.schedule("k", 9 * TICK_MS, "second");
+        wheel.schedule("gone", 4 * TICK_MS, "gone");
+        assertEquals("gone", wheel.cancel("gone"));
+        assertNull(wheel.cancel("gone"));
+
+        assertEquals(List.of(), wheel.advance(8 * TICK_MS));
+        assertEquals(List.of("second"), wheel.advance(9 * TICK_MS));
+        assertFalse(wheel.contains("k"));
+    }
+
+    /**
+     * Random schedules, cancels and advances of random length against a map
+     * of deadlines: every advance must return exactly the entries whose
+     * tick has been reached, in tick order.
+     */
+    @Test
+    void matchesReferenceModel() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int wheelSize = 1 << (1 + random.nextInt(3));
+            int levels = 1 + random.nextInt(3);
+            long now = random.nextInt(1000) * TICK_MS + random.nextInt((int) TICK_MS);
+            TimingWheel<Integer, Integer> wheel = new TimingWheel<>(TICK_MS, wheelSize, levels, now);
+            long span = (long) Math.pow(wheelSize, levels);
+            Map<Integer, Long> deadlines = new HashMap<>();
+
+            for (int step = 0; step < 2000; step++) {
+                int key = random.nextInt(200);
+                long currentTick = Math.floorDiv(now, TICK_MS);
+                switch (random.nextInt(4)) {
+                    case 0, 1 -> {
+                        long deadline = now + random.nextLong(3 * span * TICK_MS) - TICK_MS;
+                        wheel.schedule(key, deadline, key);
+                        long tick = Math.floorDiv(deadline + TICK_MS - 1, TICK_MS);
+                        deadlines.put(key, Math.max(tick, currentTick + 1));
+                    }
+                    case 2 -> assertEquals(deadlines.remove(key) != null ? key : null, wheel.cancel(key));
+                    default -> {
+                        now += random.nextLong(span * TICK_MS / 2 + 1);
+                        long target = Math.floorDiv(now, TICK_MS);
+                        List<Integer> expired = wheel.advance(now);
+                        List<Long> ticks = new ArrayList<>();
+                        for (Integer value : expired) {
+                            Long tick = deadlines.remove(value);
+                            assertNotNull(tick, "unexpected expiry of " + value);
+                            assertTrue(tick <= target, value + " expired early");
+                            ticks.add(tick);
+                        }
+                        List<Long> sorted = new ArrayList<>(ticks);
+                        Collections.sort(sorted);
+                        assertEquals(sorted, ticks, "expiries out of order");
+                        deadlines.values().forEach(tick -> assertTrue(tick > target, "missed expiry"));
+                    }
+                }
+                assertEquals(deadlines.size(), wheel.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.taskmaster.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    // 10 per second: one token every 100 ms
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final long start = System.nanoTime();
+
+    @Test
+    void freshBucketAllowsExactlyTheBurst() {
+        TokenBucketRateLimiter<String> limiter = new TokenBucketRateLimiter<>(10, 5, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.acquire("k", start), "request " + i);
+        }
+        assertEquals(INTERVAL, limiter.acquire("k", start));
+    }
+
+    @Test
+    void burstOfOneAllowsOnePerInterval() {
+        TokenBucketRateLimiter<String> limiter = new TokenBucketRateLimiter<>(10, 1, 100);
+        assertEquals(0, limiter.acquire("k", start));
+        assertEquals(INTERVAL, limiter.acquire("k", start));
+        assertEquals(1, limiter.acquire("k", start + INTERVAL - 1));
+        assertEquals(0, limiter.acquire("k", start + INTERVAL));
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanTheBurst() {
+        TokenBucketRateLimiter<String> limiter = new TokenBucketRateLimiter<>(10, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("k", start);
+        }
+        long later = start + TimeUnit.HOURS.toNanos(1);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("k", later), "request " + i);
+        }
+        assertTrue(limiter.acquire("k", later) > 0);
+    }
+
+    /**
+     * The limiter against a plain token bucket holding up to {@code burst}
+     * tokens, refilled continuously (in nanoseconds of credit) and charged
+     * one interval per request. Every decision must agree, and a denial's
+     * wait must be exactly the time until the next decision would agree to
+     * let a request through.
+     */
+    @Test
+    void matchesTokenBucketReferenceModel() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            int burst = 1 + random.nextInt(10);
+            TokenBucketRateLimiter<String> limiter = new TokenBucketRateLimiter<>(10, burst, 100);
+            long capacity = burst * INTERVAL;
+            long credit = capacity;
+            long now = start;
+            long last = now;
+
+            for (int step = 0; step < 5000; step++) {
+                now += random.nextInt(4) == 0 ? random.nextLong(3 * INTERVAL) : random.nextLong(INTERVAL / 4);
+                credit = Math.min(capacity, credit + (now - last));
+                last = now;
+
+                long wait = limiter.acquire("k", now);
+                if (credit >= INTERVAL) {
+                    assertEquals(0, wait, "step " + step + " should be allowed");
+                    credit -= INTERVAL;
+                } else {
+                    assertEquals(INTERVAL - credit, wait, "step " + step + " wait");
+                    // A denial takes nothing, so the request goes through once the wait is over
+                    assertEquals(1, limiter.acquire("k", now + wait - 1));
+                    assertEquals(0, limiter.acquire("k", now + wait));
+                    now += wait;
+                    credit = credit + wait - INTERVAL;
+                    last = now;
+                }
+            }
+        }
+    }
+
+    @Test
+    void keysBeyondTheLimitShareTheOverflowBucket() {
+        TokenBucketRateLimiter<Integer> limiter = new TokenBucketRateLimiter<>(10, 1, 2);
+        // The overflow bucket starts out full as of construction
+        long now = System.nanoTime();
+        assertEquals(0, limiter.acquire(1, now));
+        assertEquals(0, limiter.acquire(2, now));
+        assertEquals(2, limiter.size());
+
+        // Buckets 1 and 2 are still draining, so 3 and 4 fall into one shared bucket
+        assertEquals(0, limiter.acquire(3, now));
+        assertEquals(INTERVAL, limiter.acquire(4, now));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void refilledBucketsAreSweptToMakeRoom() {
+        TokenBucketRateLimiter<Integer> limiter = new TokenBucketRateLimiter<>(10, 1, 2);
+        limiter.acquire(1, start);
+        limiter.acquire(2, start);
+
+        long later = start + TimeUnit.SECONDS.toNanos(2);
+        assertEquals(0, limiter.acquire(3, later));
+        assertEquals(1, limiter.size());
+        assertEquals(0, limiter.acquire(4, later));
+        assertEquals(2, limiter.size());
+    }
+}
@@ -0,0 +1,227 @@
+package com.taskmaster.service;
+
+import com.taskmaster.config.UserReadConverter;
+import com.taskmaster.config.UserWriteConverter;
+import com.taskmaster.model.Team;
+import com.taskmaster.model.User;
+import com.taskmaster.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserWriteQueueTest {
+
+    private static final String USER_ID = "user_1";
+
+    private final Map<String, Document> stored = new ConcurrentHashMap<>();
+    private final AtomicInteger saves = new AtomicInteger();
+    private volatile long saveDelayMs;
+    private UserWriteQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        addUser(USER_ID);
+
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findByUserId(anyString())).thenAnswer(call -> {
+            Document document = stored.get(call.<String>getArgument(0));
+            return document != null ? new UserReadConverter().convert(document) : null;
+        });
+        when(repository.save(any(User.class))).thenAnswer(call -> {
+            Thread.sleep(saveDelayMs);
+            User user = call.getArgument(0);
+            stored.put(user.getUserId(), new UserWriteConverter().convert(user));
+            saves.incrementAndGet();
+            return user;
+        });
+
+        queue = new UserWriteQueue();
+        ReflectionTestUtils.setField(queue, "userRepository", repository);
+        ReflectionTestUtils.setField(queue, "taskOverflowService", new TaskOverflowService());
+        ReflectionTestUtils.setField(queue, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queue, "configuredStripes", 1);
+        ReflectionTestUtils.setField(queue, "maxBatch", 64);
+        ReflectionTestUtils.setField(queue, "timeoutMs", 10_000L);
+        ReflectionTestUtils.setField(queue, "maxTombstones", 1000);
+        queue.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.stop();
+    }
+
+    private void addUser(String userId) {
+        User user = new User(userId, userId + "@example.com", "p");
+        user.setUserdata(new HashMap<>());
+        stored.put(userId, new UserWriteConverter().convert(user));
+    }
+
+    private static void put(UserWriteQueue.UserWriteContext ctx, String key, Object value) {
+        ctx.user().getUserdata().put(key, value);
+        ctx.changed();
+    }
+
+    private Map<String, Object> storedUserdata() {
+        return storedUserdata(USER_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> storedUserdata(String userId) {
+        return (Map<String, Object>) stored.get(userId).get("userdata");
+    }
+
+    /** Holds the lane busy so the next mutations queue up into one batch. */
+    private CountDownLatch blockLane() throws InterruptedException {
+        return blockLane(USER_ID);
+    }
+
+    private CountDownLatch blockLane(String userId) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(userId, ctx -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    void failedMutationInBatchLeavesNoPartialEdits() throws Exception {
+        CountDownLatch release = blockLane();
+        CompletableFuture<Object> first = queue.submit(USER_ID, ctx -> {
+            put(ctx, "first", 1);
+            return null;
+        });
+        CompletableFuture<Object> failing = queue.submit(USER_ID, ctx -> {
+            put(ctx, "partial", 2);
+            ctx.user().setEmail("changed@example.com");
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Object> last = queue.submit(USER_ID, ctx -> {
+            put(ctx, "last", 3);
+            return null;
+        });
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+        Map<String, Object> userdata = storedUserdata();
+        assertEquals(1, userdata.get("first"));
+        assertEquals(3, userdata.get("last"));
+        assertFalse(userdata.containsKey("partial"));
+        assertEquals(USER_ID + "@example.com", stored.get(USER_ID).get("email"));
+    }
+
+    @Test
+    void revisionsAreNotReusedAfterRollback() throws Exception {
+        CountDownLatch release = blockLane();
+        CompletableFuture<Object> failing = queue.submit(USER_ID, ctx -> {
+            ctx.stamp(new Team());
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Long> next = queue.submit(USER_ID, ctx -> ctx.stamp(new Team()));
+        release.countDown();
+
+        assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, next.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timedOutWriteStillQueuedIsNeverApplied() throws Exception {
+        ReflectionTestUtils.setField(queue, "timeoutMs", 100L);
+        CountDownLatch release = blockLane();
+
+        TimeoutException timeout = assertThrows(TimeoutException.class, () -> queue.write(USER_ID, ctx -> {
+            put(ctx, "late", true);
+            return null;
+        }));
+        assertTrue(timeout.getMessage().contains("not applied"));
+
+        release.countDown();
+        queue.submit(USER_ID, ctx -> {
+            put(ctx, "after", true);
+            return null;
+        }).get(5, TimeUnit.SECONDS);
+        assertFalse(storedUserdata().containsKey("late"));
+        assertEquals(true, storedUserdata().get("after"));
+    }
+
+    @Test
+    void concurrentWritersLoseNoUpdatesAndShareSaves() throws Exception {
+        // A slow save lets writers pile up behind each batch
+        saveDelayMs = 2;
+        int threads = 8;
+        int writesPerThread = 50;
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(writers.submit(() -> {
+                go.await();
+                for (int i = 0; i < writesPerThread; i++) {
+                    queue.write(USER_ID, ctx -> {
+                        Map<String, Object> userdata = ctx.user().getUserdata();
+                        put(ctx, "count", (Integer) userdata.getOrDefault("count", 0) + 1);
+                        return null;
+                    });
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> future : done) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        writers.shutdown();
+
+        int writes = threads * writesPerThread;
+        assertEquals(writes, storedUserdata().get("count"));
+        assertTrue(saves.get() < writes, saves.get() + " saves for " + writes + " writes");
+    }
+
+    @Test
+    void blockedUserDoesNotStallUsersOnOtherStripes() throws Exception {
+        queue.stop();
+        ReflectionTestUtils.setField(queue, "configuredStripes", 4);
+        ReflectionTestUtils.setField(queue, "timeoutMs", 2000L);
+        queue.start();
+        String other = "user_2";
+        for (int i = 3; Math.floorMod(other.hashCode(), 4) == Math.floorMod(USER_ID.hashCode(), 4); i++) {
+            other = "user_" + i;
+        }
+        addUser(other);
+
+        CountDownLatch release = blockLane();
+        try {
+            queue.write(other, ctx -> {
+                put(ctx, "done", true);
+                return null;
+            });
+            assertEquals(true, storedUserdata(other).get("done"));
+        } finally {
+            release.countDown();
+        }
+    }
+}